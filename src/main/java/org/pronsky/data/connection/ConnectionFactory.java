@@ -0,0 +1,12 @@
+package org.pronsky.data.connection;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens new physical connections for the {@link ConnectionPool}.
+ */
+@FunctionalInterface
+public interface ConnectionFactory {
+    Connection create() throws SQLException;
+}
@@ -0,0 +1,333 @@
+package org.pronsky.data.connection;
+
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.exceptions.ConnectionException;
+import org.pronsky.utils.PropertyReader;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTimeoutException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * A small JDBC connection pool.
+ * Idle connections are kept in a lock-free deque, the maximum pool size is enforced by a semaphore,
+ * and a background housekeeper evicts idle connections, keeps the minimum size and reports leaks.
+ */
+@Log4j2
+public class ConnectionPool implements DataSource, AutoCloseable {
+    private static final long VALIDATION_BYPASS_MILLIS = 500;
+    private static ConnectionPool instance;
+    private final ConnectionFactory connectionFactory;
+    private final PoolConfig config;
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final Semaphore permits;
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final LongAdder createdConnections = new LongAdder();
+    private final LongAdder destroyedConnections = new LongAdder();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean used;
+    private volatile boolean closed;
+
+    public ConnectionPool(ConnectionFactory connectionFactory, PoolConfig config) {
+        this.connectionFactory = connectionFactory;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::housekeep, config.getHousekeepingPeriod(),
+                config.getHousekeepingPeriod(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the application-wide pool configured from {@code connection-config.properties}.
+     * Physical connections are opened lazily on the first borrow.
+     */
+    public static synchronized ConnectionPool getInstance() {
+        if (instance == null) {
+            PropertyReader propertyReader = PropertyReader.getInstance();
+            instance = new ConnectionPool(driverManagerFactory(propertyReader, propertyReader.getUrl()),
+                    PoolConfig.fromProperties(propertyReader));
+        }
+        return instance;
+    }
+
+    static ConnectionFactory driverManagerFactory(PropertyReader propertyReader, String url) {
+        try {
+            Class.forName(propertyReader.getDriver());
+        } catch (ClassNotFoundException e) {
+            log.error(e.getMessage(), e);
+            throw new ConnectionException("Unable to find postgres driver");
+        }
+        Properties properties = new Properties();
+        properties.setProperty("user", propertyReader.getUser());
+        properties.setProperty("password", propertyReader.getPassword());
+        properties.setProperty("prepareThreshold", String.valueOf(propertyReader.getPrepareThreshold()));
+        properties.setProperty("reWriteBatchedInserts", "true");
+        return () -> DriverManager.getConnection(url, properties);
+    }
+
+    /**
+     * Borrows a connection from the pool, opening a new one if no idle connection is available
+     * and the pool has not reached its maximum size.
+     *
+     * @return A connection that returns to the pool when closed.
+     * @throws SQLTimeoutException If no connection becomes available within the connection timeout.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        acquirePermit();
+        try {
+            PooledConnection pooled = pollUsable();
+            if (pooled == null) {
+                pooled = open();
+            }
+            used = true;
+            borrowed.add(pooled);
+            borrowCount.increment();
+            return pooled.borrow(config.getLeakDetectionThreshold() > 0);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pooled connections use the configured credentials");
+    }
+
+    /**
+     * @return A snapshot of the pool counters.
+     */
+    public PoolStats getStats() {
+        int idleSize = idle.size();
+        return new PoolStats(totalConnections.get(), idleSize, borrowed.size(), permits.getQueueLength(),
+                createdConnections.sum(), destroyedConnections.sum(), borrowCount.sum(), timeoutCount.sum(),
+                leakCount.sum(), statementCacheHits.sum(), statementCacheMisses.sum(), statementCacheEvictions.sum());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        if (closed || !reset(pooled)) {
+            destroy(pooled);
+        } else {
+            pooled.markReturned();
+            idle.offerFirst(pooled);
+        }
+        permits.release();
+    }
+
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(config.getConnectionTimeout(), TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLTimeoutException("Timed out after " + config.getConnectionTimeout()
+                        + " ms waiting for a connection, " + getStats());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+    }
+
+    private PooledConnection pollUsable() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isValid(pooled)) {
+                return pooled;
+            }
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        if (System.currentTimeMillis() - pooled.getLastReturnedAt() < VALIDATION_BYPASS_MILLIS) {
+            return true;
+        }
+        try {
+            int timeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(config.getValidationTimeout()));
+            return pooled.getPhysical().isValid(timeoutSeconds);
+        } catch (SQLException e) {
+            log.warn("Connection validation failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean reset(PooledConnection pooled) {
+        Connection physical = pooled.getPhysical();
+        try {
+            if (physical.isClosed()) {
+                return false;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            return true;
+        } catch (SQLException e) {
+            log.warn("Unable to reset returned connection: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private PooledConnection open() throws SQLException {
+        totalConnections.incrementAndGet();
+        try {
+            PooledConnection pooled = new PooledConnection(connectionFactory.create(), this, newStatementCache());
+            createdConnections.increment();
+            return pooled;
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private StatementCache newStatementCache() {
+        if (config.getStatementCacheSize() <= 0) {
+            return null;
+        }
+        return new StatementCache(config.getStatementCacheSize(), statementCacheHits, statementCacheMisses,
+                statementCacheEvictions);
+    }
+
+    private void destroy(PooledConnection pooled) {
+        pooled.closePhysical();
+        totalConnections.decrementAndGet();
+        destroyedConnections.increment();
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            reportLeaks();
+            if (used) {
+                fillToMinimum();
+            }
+        } catch (RuntimeException e) {
+            log.error("Connection pool housekeeping failed", e);
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : idle) {
+            if (totalConnections.get() <= config.getMinSize()) {
+                return;
+            }
+            if (now - pooled.getLastReturnedAt() > config.getIdleTimeout() && idle.remove(pooled)) {
+                destroy(pooled);
+            }
+        }
+    }
+
+    private void reportLeaks() {
+        long threshold = config.getLeakDetectionThreshold();
+        if (threshold <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : borrowed) {
+            if (!pooled.isLeakReported() && now - pooled.getBorrowedAt() > threshold) {
+                pooled.markLeakReported();
+                leakCount.increment();
+                log.warn("Connection held for more than " + threshold + " ms, possible leak", pooled.getBorrowStack());
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed) {
+            int total = totalConnections.get();
+            if (total >= config.getMinSize() || total >= config.getMaxSize()) {
+                return;
+            }
+            try {
+                PooledConnection pooled = open();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                log.warn("Unable to open idle connection: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // logging goes through log4j
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(seconds));
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return (int) TimeUnit.MILLISECONDS.toSeconds(config.getConnectionTimeout());
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+}
@@ -1,32 +1,84 @@
 package org.pronsky.data.connection;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.pronsky.exceptions.ConnectionException;
-import org.pronsky.utils.PropertyReader;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 @Log4j2
-@RequiredArgsConstructor
 public class ConnectionUtil {
-    private final PropertyReader propertyReader = PropertyReader.getInstance();
-    private final String url = propertyReader.getUrl();
-    private final String user = propertyReader.getUser();
-    private final String password = propertyReader.getPassword();
+    private final DataSource dataSource;
+    private final ReplicaRouter replicaRouter;
 
+    public ConnectionUtil() {
+        this(ConnectionPool.getInstance(), ReplicaRouter.getInstance());
+    }
+
+    public ConnectionUtil(DataSource dataSource) {
+        this(dataSource, null);
+    }
+
+    public ConnectionUtil(DataSource dataSource, ReplicaRouter replicaRouter) {
+        this.dataSource = dataSource;
+        this.replicaRouter = replicaRouter;
+    }
+
+    /**
+     * Returns the connection of the current {@link UnitOfWork} if one is active,
+     * otherwise borrows a new connection from the primary data source.
+     * A read-only unit of work borrows from a replica when one is available.
+     * While a {@link RequestDeadline} is active the connection enforces it on every statement.
+     */
     public Connection getConnection() {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            deadline.check();
+        }
+        Connection connection;
+        UnitOfWork unitOfWork = UnitOfWork.current();
+        if (unitOfWork != null) {
+            connection = unitOfWork.getConnection(unitOfWork.isReadOnly() ? this::borrowForRead : this::borrow);
+        } else {
+            connection = borrow();
+        }
+        return deadline == null ? connection : deadline.guard(connection);
+    }
+
+    private Connection borrowForRead() {
+        if (replicaRouter != null) {
+            Connection connection = replicaRouter.getConnection();
+            if (connection != null) {
+                return connection;
+            }
+        }
+        return borrow();
+    }
+
+    private Connection borrow() {
         try {
-            Class.forName("org.postgresql.Driver");
-            return DriverManager.getConnection(url, user, password);
+            return dataSource.getConnection();
         } catch (SQLException e) {
             log.error(e.getMessage(), e);
             throw new ConnectionException("Unable to connect to database");
-        } catch (ClassNotFoundException e) {
-            log.error(e.getMessage(), e);
-            throw new ConnectionException("Unable to find postgres driver");
         }
     }
+
+    /**
+     * @return The counters of the underlying pool, or null if the data source is not pooled.
+     */
+    public PoolStats getPoolStats() {
+        if (dataSource instanceof ConnectionPool pool) {
+            return pool.getStats();
+        }
+        return null;
+    }
+
+    /**
+     * @return The primary data source connections are borrowed from outside a read-only unit of work.
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
 }
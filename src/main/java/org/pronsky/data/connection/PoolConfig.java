@@ -0,0 +1,31 @@
+package org.pronsky.data.connection;
+
+import lombok.Data;
+import org.pronsky.utils.PropertyReader;
+
+/**
+ * Settings of the {@link ConnectionPool}. All durations are in milliseconds.
+ */
+@Data
+public class PoolConfig {
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long connectionTimeout = 30_000;
+    private long idleTimeout = 600_000;
+    private long validationTimeout = 5_000;
+    private long leakDetectionThreshold = 0;
+    private long housekeepingPeriod = 30_000;
+    private int statementCacheSize = 64;
+
+    public static PoolConfig fromProperties(PropertyReader propertyReader) {
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(propertyReader.getPoolMinSize());
+        config.setMaxSize(propertyReader.getPoolMaxSize());
+        config.setConnectionTimeout(propertyReader.getPoolConnectionTimeout());
+        config.setIdleTimeout(propertyReader.getPoolIdleTimeout());
+        config.setValidationTimeout(propertyReader.getPoolValidationTimeout());
+        config.setLeakDetectionThreshold(propertyReader.getPoolLeakDetectionThreshold());
+        config.setStatementCacheSize(propertyReader.getPoolStatementCacheSize());
+        return config;
+    }
+}
@@ -0,0 +1,26 @@
+package org.pronsky.data.connection;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Point-in-time snapshot of the {@link ConnectionPool} counters.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class PoolStats {
+    private final int totalConnections;
+    private final int idleConnections;
+    private final int activeConnections;
+    private final int threadsAwaitingConnection;
+    private final long createdConnections;
+    private final long destroyedConnections;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long leakCount;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+}
@@ -0,0 +1,103 @@
+package org.pronsky.data.connection;
+
+import lombok.Getter;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * A physical connection owned by the {@link ConnectionPool}.
+ * Every borrow hands out a fresh proxy whose {@code close()} returns the connection to the pool
+ * instead of closing the socket, and whose prepared statements go through the connection's {@link StatementCache}.
+ */
+@Getter
+class PooledConnection {
+    private final Connection physical;
+    private final ConnectionPool pool;
+    private final StatementCache statementCache;
+    private volatile long lastReturnedAt;
+    private volatile long borrowedAt;
+    private volatile Throwable borrowStack;
+    private volatile boolean leakReported;
+
+    PooledConnection(Connection physical, ConnectionPool pool, StatementCache statementCache) {
+        this.physical = physical;
+        this.pool = pool;
+        this.statementCache = statementCache;
+        this.lastReturnedAt = System.currentTimeMillis();
+    }
+
+    Connection borrow(boolean captureStack) {
+        borrowedAt = System.currentTimeMillis();
+        borrowStack = captureStack ? new Throwable("Connection borrowed here") : null;
+        leakReported = false;
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class[]{Connection.class}, new Handler());
+    }
+
+    void markReturned() {
+        lastReturnedAt = System.currentTimeMillis();
+        borrowStack = null;
+    }
+
+    void markLeakReported() {
+        leakReported = true;
+    }
+
+    void closePhysical() {
+        try {
+            physical.close();
+        } catch (SQLException ignored) {
+            // the connection is discarded anyway
+        }
+    }
+
+    private class Handler implements InvocationHandler {
+        private volatile boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + physical + "]";
+                default:
+                    if (closed) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    if (statementCache != null && isCacheable(method)) {
+                        Integer autoGeneratedKeys = args.length == 2 ? (Integer) args[1] : null;
+                        return statementCache.prepare(physical, (String) args[0], autoGeneratedKeys);
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+
+        private boolean isCacheable(Method method) {
+            if (!"prepareStatement".equals(method.getName())) {
+                return false;
+            }
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            return parameterTypes.length == 1 || (parameterTypes.length == 2 && parameterTypes[1] == int.class);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.pronsky.data.connection;
+
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.utils.PropertyReader;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Routes read-only units of work to read replicas.
+ * A replica is picked by round-robin or by the lowest number of connections in flight. A replica that fails to
+ * hand out a connection or fails the periodic health check is taken out of rotation until it passes a check again.
+ * A replica whose pool is saturated is only skipped for that borrow, since waiting for a connection says nothing
+ * about the health of the replica.
+ * When no replica is available {@link #getConnection()} returns null and the caller falls back to the primary.
+ */
+@Log4j2
+public class ReplicaRouter implements AutoCloseable {
+    private static final int HEALTH_CHECK_TIMEOUT_SECONDS = 2;
+    private static ReplicaRouter instance;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final Strategy strategy;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public enum Strategy {
+        ROUND_ROBIN,
+        LEAST_IN_FLIGHT
+    }
+
+    public ReplicaRouter(List<? extends DataSource> dataSources, Strategy strategy, long healthCheckPeriod) {
+        this.strategy = strategy;
+        for (int i = 0; i < dataSources.size(); i++) {
+            replicas.add(new Replica(i, dataSources.get(i)));
+        }
+        if (replicas.isEmpty() || healthCheckPeriod <= 0) {
+            healthChecker = null;
+            return;
+        }
+        healthChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-health-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, healthCheckPeriod, healthCheckPeriod,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the application-wide router with one pool per URL in {@code db.replica.urls}.
+     * Without configured replicas the router is empty and every read goes to the primary.
+     */
+    public static synchronized ReplicaRouter getInstance() {
+        if (instance == null) {
+            PropertyReader propertyReader = PropertyReader.getInstance();
+            List<ConnectionPool> pools = new ArrayList<>();
+            for (String url : propertyReader.getReplicaUrls()) {
+                pools.add(new ConnectionPool(ConnectionPool.driverManagerFactory(propertyReader, url),
+                        PoolConfig.fromProperties(propertyReader)));
+            }
+            instance = new ReplicaRouter(pools, Strategy.valueOf(propertyReader.getReplicaStrategy()),
+                    propertyReader.getReplicaHealthCheckPeriod());
+        }
+        return instance;
+    }
+
+    /**
+     * Borrows a connection from a healthy replica.
+     *
+     * @return A connection to a replica, or null if no replica is available.
+     */
+    public Connection getConnection() {
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = select();
+            if (replica == null) {
+                return null;
+            }
+            try {
+                return replica.borrow();
+            } catch (SQLTimeoutException e) {
+                log.debug("Replica " + replica.index + " skipped: " + e.getMessage());
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The number of replicas currently in rotation.
+     */
+    public int getHealthyReplicaCount() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * Validates every replica, taking failing ones out of rotation and returning recovered ones to it.
+     */
+    void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(HEALTH_CHECK_TIMEOUT_SECONDS)) {
+                    markDown(replica, "validation failed");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Replica " + replica.index + " is back in rotation");
+                }
+            } catch (SQLException | RuntimeException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (healthChecker != null) {
+            healthChecker.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Unable to close replica " + replica.index + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Replica select() {
+        if (strategy == Strategy.LEAST_IN_FLIGHT) {
+            Replica selected = null;
+            for (Replica replica : replicas) {
+                if (replica.healthy && (selected == null || replica.inFlight.get() < selected.inFlight.get())) {
+                    selected = replica;
+                }
+            }
+            return selected;
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica " + replica.index + " taken out of rotation: " + reason);
+        }
+    }
+
+    private static final class Replica {
+        private final int index;
+        private final DataSource dataSource;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        private Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+
+        private Connection borrow() throws SQLException {
+            Connection connection = dataSource.getConnection();
+            inFlight.incrementAndGet();
+            boolean[] closed = {false};
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (!closed[0]) {
+                                    closed[0] = true;
+                                    inFlight.decrementAndGet();
+                                    connection.close();
+                                }
+                                return null;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                try {
+                                    return method.invoke(connection, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.pronsky.data.connection;
+
+import org.pronsky.exceptions.DeadlineExceededException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time budget of the request handled by the current thread.
+ * While a deadline is active, connections returned by {@link ConnectionUtil#getConnection()} check it before
+ * every statement and pass the remaining time to {@link Statement#setQueryTimeout(int)}. When the deadline
+ * expires or the request is cancelled, statements that are still running are cancelled with
+ * {@link Statement#cancel()}, and the next database call fails with {@link DeadlineExceededException}.
+ */
+public final class RequestDeadline implements AutoCloseable {
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "request-deadline-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final long expiresAt;
+    private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+    private final ScheduledFuture<?> expiry;
+    private volatile String cancelReason;
+
+    private RequestDeadline(long timeoutMillis) {
+        this.expiresAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        this.expiry = TIMER.schedule(() -> cancel("deadline of " + timeoutMillis + " ms exceeded"),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Starts a deadline for the current thread.
+     *
+     * @param timeoutMillis The time budget in milliseconds.
+     * @return The started deadline.
+     */
+    public static RequestDeadline begin(long timeoutMillis) {
+        RequestDeadline deadline = new RequestDeadline(timeoutMillis);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    /**
+     * @return The deadline of the current thread, or null if none is active.
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Detaches the deadline from the current thread without stopping it, for requests that continue asynchronously.
+     */
+    public static void detach() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Cancels the request: the running statements are cancelled and further database calls fail.
+     *
+     * @param reason Why the request was cancelled.
+     */
+    public void cancel(String reason) {
+        if (cancelReason != null) {
+            return;
+        }
+        cancelReason = reason;
+        for (Statement statement : running) {
+            try {
+                statement.cancel();
+            } catch (SQLException ignored) {
+                // the statement has already finished
+            }
+        }
+    }
+
+    /**
+     * @return The remaining time in milliseconds, or zero if the deadline has passed or the request was cancelled.
+     */
+    public long remainingMillis() {
+        if (cancelReason != null) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(expiresAt - System.nanoTime()));
+    }
+
+    /**
+     * @throws DeadlineExceededException If the deadline has passed or the request was cancelled.
+     */
+    public void check() {
+        if (remainingMillis() == 0) {
+            throw new DeadlineExceededException(cancelReason != null ? cancelReason : "Request deadline exceeded");
+        }
+    }
+
+    /**
+     * Stops the deadline timer and detaches the deadline from the current thread.
+     */
+    @Override
+    public void close() {
+        expiry.cancel(false);
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    Connection guard(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "createStatement", "prepareStatement", "prepareCall":
+                            check();
+                            return guard((Statement) invoke(connection, method, args), method.getReturnType());
+                        default:
+                            return invoke(connection, method, args);
+                    }
+                });
+    }
+
+    private Statement guard(Statement statement, Class<?> type) {
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class[]{type},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            if (!method.getName().startsWith("execute")) {
+                                return invoke(statement, method, args);
+                            }
+                            check();
+                            statement.setQueryTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(
+                                    remainingMillis() + 999)));
+                            running.add(statement);
+                            try {
+                                return invoke(statement, method, args);
+                            } catch (SQLException e) {
+                                if (remainingMillis() == 0) {
+                                    throw new DeadlineExceededException(cancelReason != null
+                                            ? cancelReason : "Request deadline exceeded", e);
+                                }
+                                throw e;
+                            } finally {
+                                running.remove(statement);
+                            }
+                    }
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.pronsky.data.connection;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU cache of prepared statements keyed by SQL text, owned by one {@link PooledConnection}.
+ * Closing a statement handed out by the cache returns it to the cache, so the driver keeps its
+ * server-side prepared plan across borrows of the connection.
+ * A connection is used by one thread at a time, so the cache is not synchronized.
+ */
+@Log4j2
+class StatementCache {
+    private final Map<String, CachedStatement> statements;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    StatementCache(int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                eldest.getValue().evict();
+                StatementCache.this.evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    PreparedStatement prepare(Connection physical, String sql, Integer autoGeneratedKeys) throws SQLException {
+        String key = autoGeneratedKeys == null ? sql : sql + '\u0000' + autoGeneratedKeys;
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+            hits.increment();
+            return cached.checkout();
+        }
+        misses.increment();
+        PreparedStatement statement = autoGeneratedKeys == null
+                ? physical.prepareStatement(sql)
+                : physical.prepareStatement(sql, autoGeneratedKeys);
+        if (cached != null && cached.inUse) {
+            return statement;
+        }
+        cached = new CachedStatement(statement);
+        statements.put(key, cached);
+        return cached.checkout();
+    }
+
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private final List<ResultSet> openResults = new ArrayList<>();
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement checkout() {
+            inUse = true;
+            boolean[] closed = {false};
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (!closed[0]) {
+                                    closed[0] = true;
+                                    checkin();
+                                }
+                                return null;
+                            case "isClosed":
+                                return closed[0];
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                if (closed[0]) {
+                                    throw new SQLException("Statement is closed");
+                                }
+                                Object result;
+                                try {
+                                    result = method.invoke(statement, args);
+                                } catch (InvocationTargetException e) {
+                                    throw e.getCause();
+                                }
+                                if (result instanceof ResultSet resultSet) {
+                                    openResults.add(resultSet);
+                                }
+                                return result;
+                        }
+                    });
+        }
+
+        private void checkin() throws SQLException {
+            inUse = false;
+            try {
+                for (ResultSet resultSet : openResults) {
+                    resultSet.close();
+                }
+                openResults.clear();
+                if (evicted) {
+                    statement.close();
+                    return;
+                }
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.setQueryTimeout(0);
+                statement.setFetchSize(0);
+                statement.setMaxRows(0);
+            } catch (SQLException e) {
+                log.warn("Unable to reset cached statement: " + e.getMessage());
+                statement.close();
+            }
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                try {
+                    statement.close();
+                } catch (SQLException e) {
+                    log.warn("Unable to close evicted statement: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package org.pronsky.data.connection;
+
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.exceptions.ConnectionException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Thread-bound transaction scope.
+ * While a unit of work is active on the current thread, every {@link ConnectionUtil#getConnection()} call
+ * returns the same connection, which is borrowed lazily on first use and committed once when the outermost
+ * unit of work completes. Nested units of work join the enclosing one.
+ * Actions registered with {@link #afterCommit(Runnable)} run once the outermost unit of work has committed.
+ */
+@Log4j2
+public final class UnitOfWork {
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+    private final boolean readOnly;
+    private final List<Runnable> afterCommitActions = new ArrayList<>();
+    private Connection connection;
+    private Connection sharedConnection;
+
+    private UnitOfWork(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Runs the work in a read-write unit of work, joining the current one if present.
+     *
+     * @param work The work to run.
+     * @return The result of the work.
+     */
+    public static <T> T execute(Supplier<T> work) {
+        return execute(false, work);
+    }
+
+    /**
+     * Runs the work in a read-write unit of work, joining the current one if present.
+     *
+     * @param work The work to run.
+     */
+    public static void run(Runnable work) {
+        execute(false, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the work in a read-only unit of work, joining the current one if present.
+     *
+     * @param work The work to run.
+     * @return The result of the work.
+     */
+    public static <T> T readOnly(Supplier<T> work) {
+        return execute(true, work);
+    }
+
+    /**
+     * Runs the action after the current unit of work commits, or right away if no unit of work is active.
+     * Actions of a unit of work that rolls back are dropped. A failing action is logged and does not affect
+     * the committed work or the other actions.
+     *
+     * @param action The action to run.
+     */
+    public static void afterCommit(Runnable action) {
+        UnitOfWork current = CURRENT.get();
+        if (current == null) {
+            runSafely(action);
+        } else {
+            current.afterCommitActions.add(action);
+        }
+    }
+
+    /**
+     * @return True if a unit of work is active on the current thread.
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    private static <T> T execute(boolean readOnly, Supplier<T> work) {
+        UnitOfWork current = CURRENT.get();
+        if (current != null) {
+            if (current.readOnly && !readOnly) {
+                throw new IllegalStateException("Unable to start a read-write unit of work inside a read-only one");
+            }
+            return work.get();
+        }
+        UnitOfWork unitOfWork = new UnitOfWork(readOnly);
+        CURRENT.set(unitOfWork);
+        T result;
+        try {
+            result = work.get();
+            unitOfWork.commit();
+        } catch (RuntimeException | Error e) {
+            unitOfWork.rollback();
+            throw e;
+        } finally {
+            CURRENT.remove();
+            unitOfWork.release();
+        }
+        unitOfWork.afterCommitActions.forEach(UnitOfWork::runSafely);
+        return result;
+    }
+
+    private static void runSafely(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.error("After-commit action failed", e);
+        }
+    }
+
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    Connection getConnection(Supplier<Connection> opener) {
+        if (connection == null) {
+            Connection opened = opener.get();
+            try {
+                opened.setAutoCommit(false);
+                opened.setReadOnly(readOnly);
+            } catch (SQLException e) {
+                close(opened);
+                log.error(e.getMessage(), e);
+                throw new ConnectionException("Unable to start transaction");
+            }
+            connection = opened;
+            sharedConnection = nonClosing(opened);
+        }
+        return sharedConnection;
+    }
+
+    private void commit() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.commit();
+        } catch (SQLException e) {
+            log.error(e.getMessage(), e);
+            throw new ConnectionException("Unable to commit transaction");
+        }
+    }
+
+    private void rollback() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.error("Unable to roll back transaction", e);
+        }
+    }
+
+    private void release() {
+        if (connection != null) {
+            close(connection);
+            connection = null;
+            sharedConnection = null;
+        }
+    }
+
+    private static void close(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.error("Unable to release connection", e);
+        }
+    }
+
+    private static Connection nonClosing(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+}
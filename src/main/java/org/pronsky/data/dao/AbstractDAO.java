@@ -1,5 +1,6 @@
 package org.pronsky.data.dao;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface AbstractDAO<K, T> {
@@ -7,6 +8,8 @@ public interface AbstractDAO<K, T> {
 
     List<T> getAll();
 
+    List<T> getByIds(Collection<K> ids);
+
     T create(T t);
 
     T update(T t);
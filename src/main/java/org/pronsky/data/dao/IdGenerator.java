@@ -0,0 +1,10 @@
+package org.pronsky.data.dao;
+
+/**
+ * Assigns primary keys before rows are inserted, so a parent row and its child rows can be written in one
+ * round trip.
+ */
+@FunctionalInterface
+public interface IdGenerator {
+    long nextId();
+}
@@ -2,5 +2,24 @@ package org.pronsky.data.dao;
 
 import org.pronsky.data.entities.OrderDetails;
 
+import java.io.Writer;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface OrderDetailsDAO extends AbstractDAO<Long, OrderDetails> {
+    List<OrderDetails> getPage(long afterId, int limit);
+
+    List<OrderDetails> getPageCreatedBetween(Instant from, Instant to, long afterId, int limit);
+
+    void streamAll(Consumer<OrderDetails> consumer);
+
+    void writeAllAsJson(Writer writer);
+
+    /**
+     * @return True if the orders are read with their products and the products' categories already set.
+     */
+    default boolean readsProducts() {
+        return false;
+    }
 }
@@ -0,0 +1,13 @@
+package org.pronsky.data.dao;
+
+import org.pronsky.data.entities.OrderSummary;
+
+import java.util.List;
+
+public interface OrderSummaryDAO {
+    List<OrderSummary> getAll();
+
+    List<OrderSummary> getPage(long afterId, int limit);
+
+    int rebuild();
+}
@@ -2,8 +2,12 @@ package org.pronsky.data.dao;
 
 import org.pronsky.data.entities.ProductCategory;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 
 public interface ProductCategoryDAO extends AbstractDAO<Long, ProductCategory> {
     Set<ProductCategory> getAllByProductId(Long productId);
+
+    Map<Long, Set<ProductCategory>> getAllByProductIds(Collection<Long> productIds);
 }
@@ -1,9 +1,27 @@
 package org.pronsky.data.dao;
 
+import org.pronsky.data.entities.ImportReport;
 import org.pronsky.data.entities.Product;
 
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface ProductDAO extends AbstractDAO<Long, Product> {
     List<Product> getAllByOrderId(long orderId);
+
+    List<Product> getPage(long afterId, int limit);
+
+    Map<Long, List<Product>> getAllByOrderIds(Collection<Long> orderIds);
+
+    ImportReport importCsv(Reader csv);
+
+    void streamAll(Consumer<Product> consumer);
+
+    List<Product> searchByName(String query, int limit);
+
+    void writeAllAsJson(Writer writer);
 }
@@ -0,0 +1,50 @@
+package org.pronsky.data.dao.impl;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Writes rows through JDBC batches on the caller's connection.
+ * With {@code reWriteBatchedInserts} enabled the driver sends each batch as a single multi-row insert.
+ */
+final class BatchExecutor {
+
+    private BatchExecutor() {
+    }
+
+    /**
+     * Binds every item to the statement and executes it in batches of the given size.
+     *
+     * @param connection The connection to write on.
+     * @param sql        The statement to execute for each item.
+     * @param items      The items to write.
+     * @param batchSize  The maximum number of rows sent in one batch.
+     * @param binder     Sets the statement parameters for one item.
+     * @return The number of rows written.
+     */
+    static <T> int executeBatch(Connection connection, String sql, Iterable<T> items, int batchSize,
+                                ParameterBinder<T> binder) throws SQLException {
+        int written = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int pending = 0;
+            for (T item : items) {
+                binder.bind(statement, item);
+                statement.addBatch();
+                if (++pending == batchSize) {
+                    written += statement.executeBatch().length;
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                written += statement.executeBatch().length;
+            }
+        }
+        return written;
+    }
+
+    @FunctionalInterface
+    interface ParameterBinder<T> {
+        void bind(PreparedStatement statement, T item) throws SQLException;
+    }
+}
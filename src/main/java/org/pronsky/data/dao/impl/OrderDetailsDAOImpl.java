@@ -1,44 +1,96 @@
 package org.pronsky.data.dao.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.UnitOfWork;
+import org.pronsky.data.dao.IdGenerator;
 import org.pronsky.data.dao.OrderDetailsDAO;
 import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.data.entities.OrderDetailsRowMapper;
 import org.pronsky.data.entities.Product;
+import org.pronsky.data.mapper.RowMapper;
+import org.pronsky.data.reference.ReferenceData;
 import org.pronsky.exceptions.UnableToCreateException;
 import org.pronsky.exceptions.UnableToDeleteException;
 import org.pronsky.exceptions.UnableToFindException;
 import org.pronsky.exceptions.UnableToUpdateException;
+import org.pronsky.utils.PropertyReader;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.sql.*;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * DAO implementation for the OrderDetails entity using JDBC.
  * This class provides methods for database operations related to order details.
+ * Order statuses are read and written by ID through the {@link ReferenceData} registry, without joining
+ * {@code order_statuses}. New orders take their IDs from an {@link IdGenerator}.
+ * Listings read the current orders only, archived orders are found by ID or by creation time.
  */
 @Log4j2
-@RequiredArgsConstructor
 public class OrderDetailsDAOImpl implements OrderDetailsDAO {
-    private static final String CREATE_ORDER_DETAILS = "INSERT INTO order_details (status_id, total_amount) VALUES (?, ?)";
-    private static final String CREATE_DETAILS_TO_PRODUCTS_RELATIONS = "INSERT INTO details_to_products (order_details_id, product_id) " +
-            "VALUES (?, ?)";
-    private static final String UPDATE_ORDER_DETAILS = "UPDATE order_details SET status_id = ?, total_amount = ?" +
-            " WHERE id = ?";
-    private static final String FIND_ORDER_DETAILS_BY_ID = "SELECT od.id, od.total_amount, os.name AS order_status " +
-            "FROM order_details od " +
-            "JOIN order_statuses os ON os.id = od.status_id " +
-            "WHERE od.id = ?";
-    private static final String FIND_ALL_ORDER_DETAILS = "SELECT od.id, od.total_amount, os.name AS order_status " +
-            "FROM order_details od JOIN order_statuses os ON os.id = od.status_id ";
+    private static final String CREATE_ORDER_DETAILS = "WITH created AS (" +
+            "INSERT INTO order_details (id, status_id, total_amount) VALUES (?, ?, ?)) " +
+            "INSERT INTO details_to_products (order_details_id, product_id) SELECT ?, unnest(?::bigint[])";
+    private static final String UPDATE_ORDER_DETAILS = "UPDATE order_details SET status_id = ?, total_amount = ? " +
+            "WHERE id = ? RETURNING id, status_id, total_amount";
+    private static final String FIND_ORDER_DETAILS_BY_ID = "SELECT od.id, od.total_amount, od.status_id " +
+            "FROM order_details od WHERE od.id = ?";
+    private static final String FIND_ORDER_DETAILS_BY_IDS = "SELECT od.id, od.total_amount, od.status_id " +
+            "FROM order_details od WHERE od.id = ANY(?) ORDER BY od.id";
+    private static final String FIND_ALL_ORDER_DETAILS = "SELECT od.id, od.total_amount, od.status_id " +
+            "FROM order_details od WHERE NOT od.archived";
+    private static final String FIND_ORDER_DETAILS_PAGE = "SELECT od.id, od.total_amount, od.status_id " +
+            "FROM order_details od WHERE NOT od.archived AND od.id > ? ORDER BY od.id LIMIT ?";
+    static final String FIND_ORDER_DETAILS_CREATED_BETWEEN = "SELECT od.id, od.total_amount, od.status_id " +
+            "FROM order_details od WHERE od.created_at >= COALESCE(?::timestamptz, '-infinity') " +
+            "AND od.created_at < COALESCE(?::timestamptz, 'infinity') AND od.id > ? ORDER BY od.id LIMIT ?";
+    private static final String FIND_ALL_ORDER_DETAILS_AS_JSON = "SELECT COALESCE(json_agg(json_build_object(" +
+            "'id', od.id, 'orderStatus', os.name, " +
+            "'products', COALESCE((SELECT json_agg(" + ProductDAOImpl.PRODUCT_JSON + " ORDER BY p.id) " +
+            "FROM details_to_products dtp JOIN products p ON p.id = dtp.product_id " +
+            "WHERE dtp.order_details_id = od.id), '[]'::json), " +
+            "'totalAmount', od.total_amount) ORDER BY od.id), '[]'::json) " +
+            "FROM order_details od JOIN order_statuses os ON os.id = od.status_id WHERE NOT od.archived";
     private static final String DELETE_ORDER_DETAILS = "DELETE FROM order_details od WHERE od.id = ?";
     private static final String DELETE_DETAILS_TO_PRODUCT_RELATIONS = "DELETE FROM details_to_products dtp " +
             "WHERE dtp.order_details_id = ?";
-    private static final String COLUMN_ID = "id";
-    private static final String COLUMN_TOTAL_AMOUNT = "total_amount";
+    private final int fetchSize = PropertyReader.getInstance().getFetchSize();
+    private static final String COLUMN_STATUS_ID = "status_id";
+    private static final String ID_SEQUENCE = "order_details_id_seq";
+    private final RowMapper<OrderDetails> rowMapper = new OrderDetailsRowMapper();
     private final ConnectionUtil connectionUtil;
+    private final Supplier<ReferenceData> referenceData;
+    private final IdGenerator idGenerator;
+
+    public OrderDetailsDAOImpl(ConnectionUtil connectionUtil) {
+        this(connectionUtil, ReferenceData::getInstance, SequenceBlockIdGenerator.shared(connectionUtil, ID_SEQUENCE));
+    }
+
+    public OrderDetailsDAOImpl(ConnectionUtil connectionUtil, ReferenceData referenceData) {
+        this(connectionUtil, referenceData, SequenceBlockIdGenerator.shared(connectionUtil, ID_SEQUENCE));
+    }
+
+    public OrderDetailsDAOImpl(ConnectionUtil connectionUtil, ReferenceData referenceData, IdGenerator idGenerator) {
+        this(connectionUtil, () -> referenceData, idGenerator);
+    }
+
+    /**
+     * @param referenceData Resolves the registry on first use, so constructing the DAO needs no database.
+     */
+    public OrderDetailsDAOImpl(ConnectionUtil connectionUtil, Supplier<ReferenceData> referenceData,
+                               IdGenerator idGenerator) {
+        this.connectionUtil = connectionUtil;
+        this.referenceData = referenceData;
+        this.idGenerator = idGenerator;
+    }
 
     /**
      * Retrieves order details by its ID from the database.
@@ -50,12 +102,10 @@ public class OrderDetailsDAOImpl implements OrderDetailsDAO {
     @Override
     public OrderDetails getById(Long id) {
         log.debug("OrderDetailsDAOImpl.getById");
-        OrderDetails details = new OrderDetails();
         try (Connection connection = connectionUtil.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(FIND_ORDER_DETAILS_BY_ID)) {
             preparedStatement.setLong(1, id);
-            ResultSet resultSet = preparedStatement.executeQuery();
-            setParameters(details, resultSet);
+            OrderDetails details = mapSingle(preparedStatement.executeQuery());
             log.debug("Fetched details : " + details);
             return details;
         } catch (SQLException e) {
@@ -64,9 +114,9 @@ public class OrderDetailsDAOImpl implements OrderDetailsDAO {
     }
 
     /**
-     * Retrieves all order details from the database.
+     * Retrieves all current order details from the database, archived ones are left out.
      *
-     * @return A list of all order details.
+     * @return A list of all current order details.
      * @throws UnableToFindException If an error occurs during the retrieval process.
      */
     @Override
@@ -77,9 +127,7 @@ public class OrderDetailsDAOImpl implements OrderDetailsDAO {
              PreparedStatement statement = connection.prepareStatement(FIND_ALL_ORDER_DETAILS)) {
             ResultSet result = statement.executeQuery();
             while (result.next()) {
-                long id = result.getLong(COLUMN_ID);
-                OrderDetails details = getById(id);
-                orderDetails.add(details);
+                orderDetails.add(map(result));
             }
             log.debug("fetched details : " + orderDetails);
             return orderDetails;
@@ -88,8 +136,145 @@ public class OrderDetailsDAOImpl implements OrderDetailsDAO {
         }
     }
 
+    /**
+     * Retrieves several order details by their IDs in a single query.
+     *
+     * @param ids The IDs of the order details to retrieve.
+     * @return The found order details ordered by ID. IDs without order details are skipped.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<OrderDetails> getByIds(Collection<Long> ids) {
+        log.debug("OrderDetailsDAOImpl.getByIds");
+        List<OrderDetails> orderDetails = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return orderDetails;
+        }
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ORDER_DETAILS_BY_IDS)) {
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            ResultSet result = statement.executeQuery();
+            while (result.next()) {
+                orderDetails.add(map(result));
+            }
+            log.debug("Fetched details : " + orderDetails);
+            return orderDetails;
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Retrieves one page of current order details ordered by ID.
+     * The page starts right after the given ID, so the primary key index serves every page at the same cost.
+     *
+     * @param afterId The ID of the last order details of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of order details to return.
+     * @return The order details of the page.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<OrderDetails> getPage(long afterId, int limit) {
+        log.debug("OrderDetailsDAOImpl.getPage");
+        List<OrderDetails> orderDetails = new ArrayList<>();
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ORDER_DETAILS_PAGE)) {
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            ResultSet result = statement.executeQuery();
+            while (result.next()) {
+                orderDetails.add(map(result));
+            }
+            return orderDetails;
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Retrieves one page of order details created in the given time range ordered by ID, archived ones included.
+     * The range bounds let PostgreSQL skip the monthly partitions outside of it.
+     *
+     * @param from    The inclusive start of the range, or null for no lower bound.
+     * @param to      The exclusive end of the range, or null for no upper bound.
+     * @param afterId The ID of the last order details of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of order details to return.
+     * @return The order details of the page.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<OrderDetails> getPageCreatedBetween(Instant from, Instant to, long afterId, int limit) {
+        log.debug("OrderDetailsDAOImpl.getPageCreatedBetween");
+        List<OrderDetails> orderDetails = new ArrayList<>();
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ORDER_DETAILS_CREATED_BETWEEN)) {
+            statement.setTimestamp(1, from == null ? null : Timestamp.from(from));
+            statement.setTimestamp(2, to == null ? null : Timestamp.from(to));
+            statement.setLong(3, afterId);
+            statement.setInt(4, limit);
+            ResultSet result = statement.executeQuery();
+            while (result.next()) {
+                orderDetails.add(map(result));
+            }
+            return orderDetails;
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Passes every current order details record to the consumer as it is read, without products.
+     * The query runs in a read-only transaction with the configured fetch size, so the driver reads the rows
+     * through a server-side cursor and only one fetch is held in memory at a time.
+     *
+     * @param consumer Receives each order details record.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public void streamAll(Consumer<OrderDetails> consumer) {
+        log.debug("OrderDetailsDAOImpl.streamAll");
+        UnitOfWork.readOnly(() -> {
+            try (Connection connection = connectionUtil.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(FIND_ALL_ORDER_DETAILS)) {
+                statement.setFetchSize(fetchSize);
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    consumer.accept(map(resultSet));
+                }
+                return null;
+            } catch (SQLException e) {
+                throw new UnableToFindException(e);
+            }
+        });
+    }
+
+    /**
+     * Writes all current order details with their products and the products' categories to the writer as a JSON array
+     * in the shape of {@code OrderDetailsDTO}.
+     * The document is built by PostgreSQL in a single query, so no entities or DTOs are created.
+     *
+     * @param writer Receives the JSON document.
+     * @throws UnableToFindException If an error occurs during the retrieval or while writing.
+     */
+    @Override
+    public void writeAllAsJson(Writer writer) {
+        log.debug("OrderDetailsDAOImpl.writeAllAsJson");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ALL_ORDER_DETAILS_AS_JSON)) {
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            try (Reader json = resultSet.getCharacterStream(1)) {
+                json.transferTo(writer);
+            }
+        } catch (SQLException | IOException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
     /**
      * Creates a new order details record in the database.
+     * The ID is assigned by the {@link IdGenerator} beforehand, so the order row and its product relations are
+     * inserted by a single statement.
      *
      * @param details The order details object to create.
      * @return The created order details object with the generated ID.
@@ -99,15 +284,16 @@ public class OrderDetailsDAOImpl implements OrderDetailsDAO {
     public OrderDetails create(OrderDetails details) {
         log.debug("OrderDetailsDAOImpl.create");
         try (Connection connection = connectionUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(CREATE_ORDER_DETAILS, Statement.RETURN_GENERATED_KEYS)) {
-            prepareStatementForCreate(details, statement);
+             PreparedStatement statement = connection.prepareStatement(CREATE_ORDER_DETAILS)) {
+            OrderDetails created = new OrderDetails();
+            created.setId(idGenerator.nextId());
+            created.setOrderStatus(details.getOrderStatus());
+            created.setTotalAmount(details.getTotalAmount());
+            created.setProducts(details.getProducts());
+            prepareStatementForCreate(created, statement, connection);
             statement.executeUpdate();
-            ResultSet result = statement.getGeneratedKeys();
-            if (result.next()) {
-                details.setId(result.getLong(COLUMN_ID));
-                setDetailsToProductRelations(details);
-            }
-            return getById(result.getLong(COLUMN_ID));
+            OrderSummaryDAOImpl.refresh(connection, List.of(created.getId()));
+            return created;
         } catch (SQLException e) {
             throw new UnableToCreateException(e);
         }
@@ -115,10 +301,11 @@ public class OrderDetailsDAOImpl implements OrderDetailsDAO {
 
     /**
      * Updates an existing order details record in the database.
+     * The updated row is returned by the update statement itself.
      *
      * @param orderDetails The order details object to update.
      * @return The updated order details object.
-     * @throws UnableToUpdateException If an error occurs during the update process.
+     * @throws UnableToUpdateException If the order details do not exist or an error occurs during the update process.
      */
     @Override
     public OrderDetails update(OrderDetails orderDetails) {
@@ -126,15 +313,20 @@ public class OrderDetailsDAOImpl implements OrderDetailsDAO {
         try (Connection connection = connectionUtil.getConnection();
              PreparedStatement statement = connection.prepareStatement(UPDATE_ORDER_DETAILS)) {
             prepareStatementForUpdate(orderDetails, statement);
-            statement.executeUpdate();
-            return getById(orderDetails.getId());
+            OrderDetails updated = mapSingle(statement.executeQuery());
+            if (updated.getId() == null) {
+                throw new UnableToUpdateException("Order details not found : " + orderDetails.getId());
+            }
+            updated.setProducts(orderDetails.getProducts());
+            OrderSummaryDAOImpl.refresh(connection, List.of(updated.getId()));
+            return updated;
         } catch (SQLException e) {
             throw new UnableToUpdateException(e);
         }
     }
 
     /**
-     * Deletes an order details record from the database by its ID.
+     * Deletes an order details record from the database by its ID. Its summary row is removed by cascade.
      *
      * @param id The ID of the order details to delete.
      * @return True if the deletion was successful, false otherwise.
@@ -145,7 +337,7 @@ public class OrderDetailsDAOImpl implements OrderDetailsDAO {
         log.debug("OrderDetailsDAOImpl.deleteById");
         try (Connection connection = connectionUtil.getConnection();
              PreparedStatement statement = connection.prepareStatement(DELETE_ORDER_DETAILS)) {
-            deleteDetailsToProductRelations(id);
+            deleteDetailsToProductRelations(id, connection);
             statement.setLong(1, id);
             int affectedRows = statement.executeUpdate();
             return affectedRows == 1;
@@ -154,42 +346,35 @@ public class OrderDetailsDAOImpl implements OrderDetailsDAO {
         }
     }
 
-    private void setParameters(OrderDetails details, ResultSet resultSet) throws SQLException {
-        while (resultSet.next()) {
-            details.setId(resultSet.getLong(COLUMN_ID));
-            details.setOrderStatus(OrderDetails.OrderStatus.valueOf(resultSet.getString("order_status")));
-            details.setTotalAmount(resultSet.getBigDecimal(COLUMN_TOTAL_AMOUNT));
-        }
+    private OrderDetails mapSingle(ResultSet resultSet) throws SQLException {
+        return resultSet.next() ? map(resultSet) : new OrderDetails();
     }
 
-    private void prepareStatementForCreate(OrderDetails details, PreparedStatement statement) throws SQLException {
-        statement.setInt(1, details.getOrderStatus().ordinal() + 1);
-        statement.setBigDecimal(2, details.getTotalAmount());
+    private OrderDetails map(ResultSet resultSet) throws SQLException {
+        OrderDetails details = rowMapper.map(resultSet);
+        details.setOrderStatus(referenceData.get().orderStatus(resultSet.getLong(COLUMN_STATUS_ID)));
+        return details;
+    }
+
+    private void prepareStatementForCreate(OrderDetails details, PreparedStatement statement, Connection connection)
+            throws SQLException {
+        Object[] productIds = details.getProducts() == null ? new Object[0]
+                : details.getProducts().stream().map(Product::getId).toArray();
+        statement.setLong(1, details.getId());
+        statement.setLong(2, referenceData.get().idOf(details.getOrderStatus()));
+        statement.setBigDecimal(3, details.getTotalAmount());
+        statement.setLong(4, details.getId());
+        statement.setArray(5, connection.createArrayOf("bigint", productIds));
     }
 
     private void prepareStatementForUpdate(OrderDetails details, PreparedStatement statement) throws SQLException {
-        statement.setInt(1, details.getOrderStatus().ordinal() + 1);
+        statement.setLong(1, referenceData.get().idOf(details.getOrderStatus()));
         statement.setBigDecimal(2, details.getTotalAmount());
         statement.setLong(3, details.getId());
     }
 
-    private void setDetailsToProductRelations(OrderDetails details) {
-        for (Product product : details.getProducts()) {
-            try (Connection connection = connectionUtil.getConnection();
-                 PreparedStatement statement = connection.prepareStatement(CREATE_DETAILS_TO_PRODUCTS_RELATIONS)) {
-                statement.setLong(1, details.getId());
-                statement.setLong(2, product.getId());
-                statement.executeUpdate();
-            } catch (SQLException e) {
-                log.error(e.getMessage());
-                throw new UnableToCreateException("Unable to create relations", e);
-            }
-        }
-    }
-
-    private boolean deleteDetailsToProductRelations(Long id) throws SQLException {
-        try (Connection connection = connectionUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(DELETE_DETAILS_TO_PRODUCT_RELATIONS)) {
+    private boolean deleteDetailsToProductRelations(Long id, Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_DETAILS_TO_PRODUCT_RELATIONS)) {
             statement.setLong(1, id);
             int affectedRows = statement.executeUpdate();
             return affectedRows >= 1;
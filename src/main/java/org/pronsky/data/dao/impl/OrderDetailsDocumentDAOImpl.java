@@ -0,0 +1,353 @@
+package org.pronsky.data.dao.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.UnitOfWork;
+import org.pronsky.data.dao.OrderDetailsDAO;
+import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.exceptions.UnableToCreateException;
+import org.pronsky.exceptions.UnableToDeleteException;
+import org.pronsky.exceptions.UnableToFindException;
+import org.pronsky.exceptions.UnableToUpdateException;
+import org.pronsky.utils.PropertyReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * DAO implementation for the OrderDetails entity storing every order as one JSONB document.
+ * The document of an order holds its header and a snapshot of its products with their categories taken when the
+ * order is created, so a read by ID is a single lookup of the {@code order_documents} primary key without joins.
+ * Listings join the primary key of the current {@code order_details} partition, so archived orders are left out
+ * as in the relational mode.
+ * Writes go through the relational {@link OrderDetailsDAO} first and then write the document in the same
+ * transaction, so {@code order_details}, {@code details_to_products} and {@code order_summary} stay current for
+ * reporting. Updates change the status and total amount of the document and keep the line item snapshot, later
+ * changes of the products do not alter placed orders.
+ */
+@Log4j2
+public class OrderDetailsDocumentDAOImpl implements OrderDetailsDAO {
+    public static final String STORAGE_MODE = "DOCUMENT";
+    private static final String ORDER_DOCUMENT = "jsonb_build_object('id', od.id, 'orderStatus', os.name, " +
+            "'products', COALESCE((SELECT jsonb_agg((" + ProductDAOImpl.PRODUCT_JSON + ")::jsonb ORDER BY p.id) " +
+            "FROM details_to_products dtp JOIN products p ON p.id = dtp.product_id " +
+            "WHERE dtp.order_details_id = od.id), '[]'::jsonb), " +
+            "'totalAmount', od.total_amount)";
+    private static final String INSERT_ORDER_DOCUMENTS = "INSERT INTO order_documents (order_details_id, document) " +
+            "SELECT od.id, " + ORDER_DOCUMENT + " FROM order_details od JOIN order_statuses os ON os.id = od.status_id ";
+    private static final String CREATE_ORDER_DOCUMENT = INSERT_ORDER_DOCUMENTS + "WHERE od.id = ? " +
+            "ON CONFLICT (order_details_id) DO UPDATE SET document = EXCLUDED.document RETURNING document";
+    private static final String UPDATE_ORDER_DOCUMENT = INSERT_ORDER_DOCUMENTS + "WHERE od.id = ? " +
+            "ON CONFLICT (order_details_id) DO UPDATE SET document = order_documents.document || " +
+            "jsonb_build_object('orderStatus', EXCLUDED.document -> 'orderStatus', " +
+            "'totalAmount', EXCLUDED.document -> 'totalAmount') RETURNING document";
+    private static final String CREATE_MISSING_ORDER_DOCUMENTS = INSERT_ORDER_DOCUMENTS +
+            "WHERE NOT EXISTS (SELECT 1 FROM order_documents d WHERE d.order_details_id = od.id)";
+    private static final String UPDATE_STALE_ORDER_DOCUMENTS = "UPDATE order_documents d SET document = d.document || " +
+            "jsonb_build_object('orderStatus', os.name, 'totalAmount', od.total_amount) " +
+            "FROM order_details od JOIN order_statuses os ON os.id = od.status_id " +
+            "WHERE od.id = d.order_details_id AND (d.document ->> 'orderStatus' IS DISTINCT FROM os.name " +
+            "OR d.document -> 'totalAmount' IS DISTINCT FROM to_jsonb(od.total_amount))";
+    private static final String FIND_ORDER_DOCUMENT_BY_ID = "SELECT document FROM order_documents " +
+            "WHERE order_details_id = ?";
+    private static final String FIND_ORDER_DOCUMENTS_BY_IDS = "SELECT document FROM order_documents " +
+            "WHERE order_details_id = ANY(?) ORDER BY order_details_id";
+    private static final String CURRENT_ORDER_DOCUMENTS = "FROM order_documents d " +
+            "JOIN order_details od ON od.id = d.order_details_id AND NOT od.archived ";
+    static final String FIND_ALL_ORDER_DOCUMENTS = "SELECT d.document " + CURRENT_ORDER_DOCUMENTS +
+            "ORDER BY d.order_details_id";
+    static final String FIND_ORDER_DOCUMENTS_PAGE = "SELECT d.document " + CURRENT_ORDER_DOCUMENTS +
+            "WHERE d.order_details_id > ? ORDER BY d.order_details_id LIMIT ?";
+    private static final String FIND_ORDER_DOCUMENTS_CREATED_BETWEEN = "SELECT d.document FROM order_documents d " +
+            "JOIN order_details od ON od.id = d.order_details_id " +
+            "WHERE od.created_at >= COALESCE(?::timestamptz, '-infinity') " +
+            "AND od.created_at < COALESCE(?::timestamptz, 'infinity') AND od.id > ? ORDER BY od.id LIMIT ?";
+    static final String FIND_ALL_ORDER_DOCUMENTS_AS_JSON = "SELECT COALESCE(jsonb_agg(d.document " +
+            "ORDER BY d.order_details_id), '[]'::jsonb)::text " + CURRENT_ORDER_DOCUMENTS;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private final int fetchSize = PropertyReader.getInstance().getFetchSize();
+    private final ConnectionUtil connectionUtil;
+    private final OrderDetailsDAO relationalDAO;
+
+    public OrderDetailsDocumentDAOImpl(ConnectionUtil connectionUtil) {
+        this(connectionUtil, new OrderDetailsDAOImpl(connectionUtil));
+    }
+
+    public OrderDetailsDocumentDAOImpl(ConnectionUtil connectionUtil, OrderDetailsDAO relationalDAO) {
+        this.connectionUtil = connectionUtil;
+        this.relationalDAO = relationalDAO;
+    }
+
+    /**
+     * Retrieves the document of the order details with the given ID by its primary key.
+     *
+     * @param id The ID of the order details to retrieve.
+     * @return The order details with their product snapshot, or empty order details if none exist.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public OrderDetails getById(Long id) {
+        log.debug("OrderDetailsDocumentDAOImpl.getById");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ORDER_DOCUMENT_BY_ID)) {
+            statement.setLong(1, id);
+            ResultSet resultSet = statement.executeQuery();
+            return resultSet.next() ? map(resultSet) : new OrderDetails();
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Retrieves the documents of all current order details ordered by ID, archived ones are left out.
+     *
+     * @return A list of all current order details with their product snapshots.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<OrderDetails> getAll() {
+        log.debug("OrderDetailsDocumentDAOImpl.getAll");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ALL_ORDER_DOCUMENTS)) {
+            return mapAll(statement.executeQuery());
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Retrieves the documents of several order details in a single query.
+     *
+     * @param ids The IDs of the order details to retrieve.
+     * @return The found order details ordered by ID. IDs without order details are skipped.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<OrderDetails> getByIds(Collection<Long> ids) {
+        log.debug("OrderDetailsDocumentDAOImpl.getByIds");
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ORDER_DOCUMENTS_BY_IDS)) {
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            return mapAll(statement.executeQuery());
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Retrieves one page of current order details documents ordered by ID.
+     *
+     * @param afterId The ID of the last order details of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of order details to return.
+     * @return The order details of the page.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<OrderDetails> getPage(long afterId, int limit) {
+        log.debug("OrderDetailsDocumentDAOImpl.getPage");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ORDER_DOCUMENTS_PAGE)) {
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            return mapAll(statement.executeQuery());
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Retrieves one page of the documents of order details created in the given time range ordered by ID.
+     * The creation time is kept on the relational row, so the range is resolved against its partitions.
+     *
+     * @param from    The inclusive start of the range, or null for no lower bound.
+     * @param to      The exclusive end of the range, or null for no upper bound.
+     * @param afterId The ID of the last order details of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of order details to return.
+     * @return The order details of the page.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<OrderDetails> getPageCreatedBetween(Instant from, Instant to, long afterId, int limit) {
+        log.debug("OrderDetailsDocumentDAOImpl.getPageCreatedBetween");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ORDER_DOCUMENTS_CREATED_BETWEEN)) {
+            statement.setTimestamp(1, from == null ? null : Timestamp.from(from));
+            statement.setTimestamp(2, to == null ? null : Timestamp.from(to));
+            statement.setLong(3, afterId);
+            statement.setInt(4, limit);
+            return mapAll(statement.executeQuery());
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Passes every current order details document to the consumer as it is read, in a read-only transaction with the
+     * configured fetch size.
+     *
+     * @param consumer Receives each order details record with its product snapshot.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public void streamAll(Consumer<OrderDetails> consumer) {
+        log.debug("OrderDetailsDocumentDAOImpl.streamAll");
+        UnitOfWork.readOnly(() -> {
+            try (Connection connection = connectionUtil.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(FIND_ALL_ORDER_DOCUMENTS)) {
+                statement.setFetchSize(fetchSize);
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    consumer.accept(map(resultSet));
+                }
+                return null;
+            } catch (SQLException e) {
+                throw new UnableToFindException(e);
+            }
+        });
+    }
+
+    /**
+     * Writes all current order details documents to the writer as one JSON array aggregated by PostgreSQL.
+     *
+     * @param writer Receives the JSON document.
+     * @throws UnableToFindException If an error occurs during the retrieval or while writing.
+     */
+    @Override
+    public void writeAllAsJson(Writer writer) {
+        log.debug("OrderDetailsDocumentDAOImpl.writeAllAsJson");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ALL_ORDER_DOCUMENTS_AS_JSON)) {
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            try (Reader json = resultSet.getCharacterStream(1)) {
+                json.transferTo(writer);
+            }
+        } catch (SQLException | IOException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * @return Always true, the documents hold the products with their categories.
+     */
+    @Override
+    public boolean readsProducts() {
+        return true;
+    }
+
+    /**
+     * Creates the relational rows of the order details and then its document with the snapshot of its products.
+     * Callers run it in a {@link UnitOfWork}, so both are written in one transaction.
+     *
+     * @param details The order details object to create.
+     * @return The created order details as stored in the document.
+     * @throws UnableToCreateException If an error occurs during the creation process.
+     */
+    @Override
+    public OrderDetails create(OrderDetails details) {
+        log.debug("OrderDetailsDocumentDAOImpl.create");
+        OrderDetails created = relationalDAO.create(details);
+        try {
+            return writeDocument(CREATE_ORDER_DOCUMENT, created.getId());
+        } catch (SQLException e) {
+            throw new UnableToCreateException(e);
+        }
+    }
+
+    /**
+     * Updates the relational row of the order details and then the status and total amount of its document.
+     * Callers run it in a {@link UnitOfWork}, so both are written in one transaction. The product snapshot of the
+     * document is kept.
+     *
+     * @param orderDetails The order details object to update.
+     * @return The updated order details as stored in the document.
+     * @throws UnableToUpdateException If the order details do not exist or an error occurs during the update process.
+     */
+    @Override
+    public OrderDetails update(OrderDetails orderDetails) {
+        log.debug("OrderDetailsDocumentDAOImpl.update");
+        OrderDetails updated = relationalDAO.update(orderDetails);
+        try {
+            return writeDocument(UPDATE_ORDER_DOCUMENT, updated.getId());
+        } catch (SQLException e) {
+            throw new UnableToUpdateException(e);
+        }
+    }
+
+    /**
+     * Deletes the order details through the relational DAO, which also deletes the document.
+     *
+     * @param id The ID of the order details to delete.
+     * @return True if the deletion was successful, false otherwise.
+     * @throws UnableToDeleteException If an error occurs during the deletion process.
+     */
+    @Override
+    public boolean deleteById(Long id) {
+        log.debug("OrderDetailsDocumentDAOImpl.deleteById");
+        return relationalDAO.deleteById(id);
+    }
+
+    /**
+     * Brings the documents in line with orders written while the relational storage mode was active: creates the
+     * missing documents and copies changed statuses and total amounts into the existing ones. Callers run it in a
+     * {@link UnitOfWork}.
+     *
+     * @return The number of documents created or updated.
+     * @throws UnableToUpdateException If an error occurs during the update process.
+     */
+    public int synchronize() {
+        log.debug("OrderDetailsDocumentDAOImpl.synchronize");
+        try (Connection connection = connectionUtil.getConnection();
+             Statement statement = connection.createStatement()) {
+            int created = statement.executeUpdate(CREATE_MISSING_ORDER_DOCUMENTS);
+            int updated = statement.executeUpdate(UPDATE_STALE_ORDER_DOCUMENTS);
+            log.info("Synchronized order documents : " + created + " created, " + updated + " updated");
+            return created + updated;
+        } catch (SQLException e) {
+            throw new UnableToUpdateException(e);
+        }
+    }
+
+    private OrderDetails writeDocument(String query, Long id) throws SQLException {
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, id);
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            return map(resultSet);
+        }
+    }
+
+    private List<OrderDetails> mapAll(ResultSet resultSet) throws SQLException {
+        List<OrderDetails> orderDetails = new ArrayList<>();
+        while (resultSet.next()) {
+            orderDetails.add(map(resultSet));
+        }
+        return orderDetails;
+    }
+
+    private OrderDetails map(ResultSet resultSet) throws SQLException {
+        try {
+            return OBJECT_MAPPER.readValue(resultSet.getString(1), OrderDetails.class);
+        } catch (JsonProcessingException e) {
+            throw new SQLException("Unreadable order document", e);
+        }
+    }
+}
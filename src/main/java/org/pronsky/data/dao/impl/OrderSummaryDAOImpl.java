@@ -0,0 +1,157 @@
+package org.pronsky.data.dao.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.UnitOfWork;
+import org.pronsky.data.dao.OrderSummaryDAO;
+import org.pronsky.data.entities.OrderSummary;
+import org.pronsky.data.entities.OrderSummaryRowMapper;
+import org.pronsky.data.mapper.RowMapper;
+import org.pronsky.exceptions.UnableToFindException;
+import org.pronsky.exceptions.UnableToUpdateException;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * DAO implementation for the order summary read model using JDBC.
+ * The {@code order_summary} table holds one denormalized row per order, so the order list is read with a single
+ * scan of its primary key. {@link OrderDetailsDAOImpl} and {@link ProductDAOImpl} refresh the affected rows on the
+ * connection of every write, inside the same transaction. Only current orders have a summary: deleted orders drop
+ * their row by cascade and archived ones when they are archived.
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class OrderSummaryDAOImpl implements OrderSummaryDAO {
+    private static final String SUMMARY_COLUMNS = "INSERT INTO order_summary " +
+            "(order_details_id, order_status, total_amount, item_count, product_names) ";
+    private static final String SUMMARY_SELECT = "SELECT od.id, os.name, od.total_amount, COUNT(p.id), " +
+            "COALESCE(array_agg(p.name ORDER BY p.name) FILTER (WHERE p.id IS NOT NULL), '{}') " +
+            "FROM order_details od JOIN order_statuses os ON os.id = od.status_id AND NOT od.archived " +
+            "LEFT JOIN details_to_products dtp ON dtp.order_details_id = od.id " +
+            "LEFT JOIN products p ON p.id = dtp.product_id ";
+    private static final String SUMMARY_UPSERT = " GROUP BY od.id, os.name " +
+            "ON CONFLICT (order_details_id) DO UPDATE SET order_status = EXCLUDED.order_status, " +
+            "total_amount = EXCLUDED.total_amount, item_count = EXCLUDED.item_count, " +
+            "product_names = EXCLUDED.product_names";
+    static final String REFRESH_ORDER_SUMMARIES = SUMMARY_COLUMNS + SUMMARY_SELECT +
+            "WHERE od.id = ANY(?)" + SUMMARY_UPSERT;
+    static final String REFRESH_ORDER_SUMMARIES_OF_PRODUCT = SUMMARY_COLUMNS + SUMMARY_SELECT +
+            "WHERE od.id IN (SELECT d.order_details_id FROM details_to_products d WHERE d.product_id = ?)" +
+            SUMMARY_UPSERT;
+    private static final String DELETE_ORDER_SUMMARIES = "DELETE FROM order_summary";
+    static final String REBUILD_ORDER_SUMMARIES = SUMMARY_COLUMNS + SUMMARY_SELECT + SUMMARY_UPSERT;
+    private static final String FIND_ALL_ORDER_SUMMARIES = "SELECT order_details_id AS id, order_status, " +
+            "total_amount, item_count, product_names FROM order_summary ORDER BY order_details_id";
+    private static final String FIND_ORDER_SUMMARIES_PAGE = "SELECT order_details_id AS id, order_status, " +
+            "total_amount, item_count, product_names FROM order_summary " +
+            "WHERE order_details_id > ? ORDER BY order_details_id LIMIT ?";
+    private final RowMapper<OrderSummary> rowMapper = new OrderSummaryRowMapper();
+    private final ConnectionUtil connectionUtil;
+
+    /**
+     * Retrieves the summaries of all orders ordered by order ID.
+     *
+     * @return A list of all order summaries.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<OrderSummary> getAll() {
+        log.debug("OrderSummaryDAOImpl.getAll");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ALL_ORDER_SUMMARIES)) {
+            return mapAll(statement.executeQuery());
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Retrieves one page of order summaries ordered by order ID.
+     *
+     * @param afterId The ID of the last order of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of summaries to return.
+     * @return The order summaries of the page.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<OrderSummary> getPage(long afterId, int limit) {
+        log.debug("OrderSummaryDAOImpl.getPage");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ORDER_SUMMARIES_PAGE)) {
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            return mapAll(statement.executeQuery());
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Recomputes every order summary from the order tables.
+     * Used to recover the read model after it was changed outside of the DAOs. Callers run it in a
+     * {@link UnitOfWork} so the delete and the insert commit together. The insert is an upsert, so an order created
+     * concurrently that writes its summary row between the two does not fail the rebuild.
+     *
+     * @return The number of summaries written.
+     * @throws UnableToUpdateException If an error occurs during the rebuild.
+     */
+    @Override
+    public int rebuild() {
+        log.debug("OrderSummaryDAOImpl.rebuild");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement delete = connection.prepareStatement(DELETE_ORDER_SUMMARIES);
+             PreparedStatement insert = connection.prepareStatement(REBUILD_ORDER_SUMMARIES)) {
+            delete.executeUpdate();
+            int rebuilt = insert.executeUpdate();
+            log.info("Rebuilt " + rebuilt + " order summaries");
+            return rebuilt;
+        } catch (SQLException e) {
+            throw new UnableToUpdateException(e);
+        }
+    }
+
+    /**
+     * Recomputes the summaries of the given orders on the connection of the calling write.
+     */
+    static void refresh(Connection connection, Collection<Long> orderIds) throws SQLException {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(REFRESH_ORDER_SUMMARIES)) {
+            statement.setArray(1, connection.createArrayOf("bigint", orderIds.toArray()));
+            statement.executeUpdate();
+        }
+    }
+
+    /**
+     * Recomputes the summaries of the orders containing the product on the connection of the calling write.
+     */
+    static void refreshByProduct(Connection connection, long productId) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(REFRESH_ORDER_SUMMARIES_OF_PRODUCT)) {
+            statement.setLong(1, productId);
+            statement.executeUpdate();
+        }
+    }
+
+    private List<OrderSummary> mapAll(ResultSet resultSet) throws SQLException {
+        List<OrderSummary> summaries = new ArrayList<>();
+        while (resultSet.next()) {
+            OrderSummary summary = rowMapper.map(resultSet);
+            Array names = resultSet.getArray("product_names");
+            if (names != null) {
+                summary.setProductNames(new ArrayList<>(Arrays.asList((String[]) names.getArray())));
+            }
+            summaries.add(summary);
+        }
+        return summaries;
+    }
+}
@@ -1,51 +1,82 @@
 package org.pronsky.data.dao.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.pronsky.data.connection.ConnectionUtil;
 import org.pronsky.data.dao.ProductCategoryDAO;
 import org.pronsky.data.entities.ProductCategory;
-import org.pronsky.data.entities.ProductCategory.CategoryType;
+import org.pronsky.data.entities.ProductCategoryRowMapper;
+import org.pronsky.data.mapper.RowMapper;
+import org.pronsky.data.reference.ReferenceData;
 import org.pronsky.exceptions.UnableToCreateException;
 import org.pronsky.exceptions.UnableToDeleteException;
 import org.pronsky.exceptions.UnableToFindException;
 import org.pronsky.exceptions.UnableToUpdateException;
+import org.pronsky.utils.PropertyReader;
 
 import java.sql.*;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * DAO implementation for the ProductCategory entity using JDBC.
  * This class provides methods for database operations related to product categories.
+ * Category types are read and written by ID through the {@link ReferenceData} registry, without joining
+ * {@code category_types}.
  */
 @Log4j2
-@RequiredArgsConstructor
 public class ProductCategoryDAOImpl implements ProductCategoryDAO {
-    private static final String CREATE_CATEGORY = "INSERT INTO product_categories (name, category_type) " +
-            "VALUES (?, ?)";
+    private static final String CREATE_CATEGORY = "INSERT INTO product_categories (name) " +
+            "VALUES (?) RETURNING id, name";
     private static final String CREATE_CATEGORY_TO_TYPE_RELATION = "INSERT INTO categories_to_types " +
             "(category_id, type_id) VALUES (?, ?)";
-    private static final String UPDATE_CATEGORY = "UPDATE product_categories SET name = ?, category_type = ? " +
-            "WHERE id = ?";
-    private static final String FIND_CATEGORY_BY_ID = "SELECT pc.id, pc.name, ct.name AS type_name " +
+    private static final String UPDATE_CATEGORY = "UPDATE product_categories SET name = ? " +
+            "WHERE id = ? RETURNING id, name";
+    private static final String FIND_CATEGORY_BY_ID = "SELECT pc.id, pc.name, ctt.type_id " +
             "FROM product_categories pc " +
-            "JOIN categories_to_types ctt ON ctt.category_id = pc.id " +
-            "JOIN category_types ct ON pc.id = ctt.category_id WHERE pc.id = ?";
-    private static final String FIND_ALL_BY_PRODUCT_ID = "SELECT pc.name, pc.id, ct.name AS type_name " +
+            "LEFT JOIN categories_to_types ctt ON ctt.category_id = pc.id " +
+            "WHERE pc.id = ?";
+    private static final String FIND_ALL_BY_PRODUCT_ID = "SELECT pc.name, pc.id, ctt.type_id " +
+            "FROM product_to_category ptc " +
+            "JOIN product_categories pc ON pc.id = ptc.category_id " +
+            "LEFT JOIN categories_to_types ctt ON ctt.category_id = pc.id " +
+            "WHERE ptc.product_id = ?";
+    private static final String FIND_ALL_BY_PRODUCT_IDS = "SELECT ptc.product_id, pc.id, pc.name, ctt.type_id " +
+            "FROM product_to_category ptc " +
+            "JOIN product_categories pc ON pc.id = ptc.category_id " +
+            "LEFT JOIN categories_to_types ctt ON ctt.category_id = pc.id " +
+            "WHERE ptc.product_id = ANY(?)";
+    private static final String FIND_CATEGORIES_BY_IDS = "SELECT pc.id, pc.name, ctt.type_id " +
             "FROM product_categories pc " +
-            "JOIN product_to_category ptc ON ptc.category_id = pc.id " +
-            "JOIN products p ON p.id = ptc.product_id " +
-            "JOIN categories_to_types ctt ON ptc.category_id = ctt.category_id " +
-            "JOIN category_types ct ON ct.id = ctt.type_id " +
-            "WHERE p.id = ?";
-    private static final String FIND_ALL_CATEGORIES = "SELECT pc.id, pc.name, ct.name AS type_name " +
+            "LEFT JOIN categories_to_types ctt ON ctt.category_id = pc.id " +
+            "WHERE pc.id = ANY(?) " +
+            "ORDER BY pc.id";
+    private static final String FIND_ALL_CATEGORIES = "SELECT pc.id, pc.name, ctt.type_id " +
             "FROM product_categories pc " +
-            "JOIN category_types ct ON ct.id = pc.category_type ";
+            "LEFT JOIN categories_to_types ctt ON ctt.category_id = pc.id " +
+            "ORDER BY pc.id";
     private static final String DELETE_CATEGORY = "DELETE FROM product_categories pc WHERE pc.id = ?";
-    private static final String COLUMN_ID = "id";
-    private static final String COLUMN_TYPE_NAME = "type_name";
-    private static final String COLUMN_NAME = "name";
+    private static final String COLUMN_TYPE_ID = "type_id";
+    private static final String COLUMN_PRODUCT_ID = "product_id";
+    private final int batchSize = PropertyReader.getInstance().getBatchSize();
+    private final RowMapper<ProductCategory> rowMapper = new ProductCategoryRowMapper();
     private final ConnectionUtil connectionUtil;
+    private final Supplier<ReferenceData> referenceData;
+
+    public ProductCategoryDAOImpl(ConnectionUtil connectionUtil) {
+        this(connectionUtil, ReferenceData::getInstance);
+    }
+
+    public ProductCategoryDAOImpl(ConnectionUtil connectionUtil, ReferenceData referenceData) {
+        this(connectionUtil, () -> referenceData);
+    }
+
+    /**
+     * @param referenceData Resolves the registry on first use, so constructing the DAO needs no database.
+     */
+    public ProductCategoryDAOImpl(ConnectionUtil connectionUtil, Supplier<ReferenceData> referenceData) {
+        this.connectionUtil = connectionUtil;
+        this.referenceData = referenceData;
+    }
 
     /**
      * Retrieves a product category by its ID from the database.
@@ -57,12 +88,15 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
     @Override
     public ProductCategory getById(Long id) {
         log.debug("ProductCategoryDAOImpl.getById");
-        ProductCategory productCategory = new ProductCategory();
         try (Connection connection = connectionUtil.getConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_CATEGORY_BY_ID)) {
             statement.setLong(1, id);
+            Map<Long, ProductCategory> categories = new HashMap<>();
             ResultSet result = statement.executeQuery();
-            setParameters(productCategory, result);
+            while (result.next()) {
+                addRow(categories, result);
+            }
+            ProductCategory productCategory = categories.getOrDefault(id, new ProductCategory());
             log.debug("fetched category : " + productCategory);
             return productCategory;
         } catch (SQLException e) {
@@ -71,7 +105,7 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
     }
 
     /**
-     * Retrieves all product categories from the database.
+     * Retrieves all product categories with their types from the database in a single query.
      *
      * @return A list of all product categories.
      * @throws UnableToFindException If an error occurs during the retrieval process.
@@ -79,17 +113,43 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
     @Override
     public List<ProductCategory> getAll() {
         log.debug("ProductCategoryDAOImpl.getAll");
-        List<ProductCategory> categories = new ArrayList<>();
+        Map<Long, ProductCategory> categories = new LinkedHashMap<>();
         try (Connection connection = connectionUtil.getConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_ALL_CATEGORIES)) {
             ResultSet result = statement.executeQuery();
             while (result.next()) {
-                long id = result.getLong(COLUMN_ID);
-                ProductCategory category = getById(id);
-                categories.add(category);
+                addRow(categories, result);
             }
-            log.debug("Fetched categories : " + categories);
-            return categories;
+            log.debug("Fetched categories : " + categories.values());
+            return new ArrayList<>(categories.values());
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Retrieves several product categories with their types by their IDs in a single query.
+     *
+     * @param ids The IDs of the product categories to retrieve.
+     * @return The found product categories ordered by ID. IDs without a category are skipped.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<ProductCategory> getByIds(Collection<Long> ids) {
+        log.debug("ProductCategoryDAOImpl.getByIds");
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ProductCategory> categories = new LinkedHashMap<>();
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_CATEGORIES_BY_IDS)) {
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            ResultSet result = statement.executeQuery();
+            while (result.next()) {
+                addRow(categories, result);
+            }
+            log.debug("Fetched categories : " + categories.values());
+            return new ArrayList<>(categories.values());
         } catch (SQLException e) {
             throw new UnableToFindException(e);
         }
@@ -97,6 +157,7 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
 
     /**
      * Creates a new product category record in the database.
+     * The stored row is returned by the insert statement itself.
      *
      * @param productCategory The product category object to create.
      * @return The created product category object with the generated ID.
@@ -106,15 +167,12 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
     public ProductCategory create(ProductCategory productCategory) {
         log.debug("ProductCategoryDAOImpl.create");
         try (Connection connection = connectionUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(CREATE_CATEGORY, Statement.RETURN_GENERATED_KEYS)) {
+             PreparedStatement statement = connection.prepareStatement(CREATE_CATEGORY)) {
             prepareStatementForCreate(productCategory, statement);
-            statement.executeUpdate();
-            ResultSet result = statement.getGeneratedKeys();
-            if (result.next()) {
-                productCategory.setId(result.getLong(COLUMN_ID));
-                createCategoryToTypeRelation(productCategory, connection);
-            }
-            return getById(result.getLong(COLUMN_ID));
+            ProductCategory created = mapSingle(statement.executeQuery());
+            created.setTypes(productCategory.getTypes());
+            createCategoryToTypeRelation(created, connection);
+            return created;
         } catch (SQLException e) {
             throw new UnableToCreateException(e);
         }
@@ -122,10 +180,11 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
 
     /**
      * Updates an existing product category record in the database.
+     * The stored row is returned by the update statement itself.
      *
      * @param productCategory The product category object to update.
      * @return The updated product category object.
-     * @throws UnableToUpdateException If an error occurs during the update process.
+     * @throws UnableToUpdateException If the category does not exist or an error occurs during the update process.
      */
     @Override
     public ProductCategory update(ProductCategory productCategory) {
@@ -133,8 +192,12 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
         try (Connection connection = connectionUtil.getConnection();
              PreparedStatement statement = connection.prepareStatement(UPDATE_CATEGORY)) {
             prepareStatementForUpdate(productCategory, statement);
-            statement.executeUpdate();
-            return getById(productCategory.getId());
+            ProductCategory updated = mapSingle(statement.executeQuery());
+            if (updated.getId() == null) {
+                throw new UnableToUpdateException("Category not found : " + productCategory.getId());
+            }
+            updated.setTypes(productCategory.getTypes());
+            return updated;
         } catch (SQLException e) {
             throw new UnableToUpdateException(e);
         }
@@ -175,18 +238,8 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
             Map<Long, ProductCategory> productCategoryMap = new HashMap<>();
             statement.setLong(1, productId);
             ResultSet resultSet = statement.executeQuery();
-            Set<CategoryType> types = new HashSet<>();
             while (resultSet.next()) {
-                Long categoryId = resultSet.getLong(COLUMN_ID);
-                String name = resultSet.getString(COLUMN_NAME);
-                String typeName = resultSet.getString(COLUMN_TYPE_NAME);
-                CategoryType categoryType = CategoryType.valueOf(typeName);
-                ProductCategory productCategory = new ProductCategory();
-                productCategory.setId(categoryId);
-                productCategory.setName(name);
-                types.add(categoryType);
-                productCategory.setTypes(types);
-                productCategoryMap.put(categoryId, productCategory);
+                addRow(productCategoryMap, resultSet);
             }
             log.debug("Fetched categories : " + productCategoryMap);
             return new HashSet<>(productCategoryMap.values());
@@ -195,22 +248,70 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
         }
     }
 
-    private void createCategoryToTypeRelation(ProductCategory category, Connection connection) throws SQLException {
-        for (CategoryType type : category.getTypes()) {
-            try (PreparedStatement statement = connection.prepareStatement(CREATE_CATEGORY_TO_TYPE_RELATION)) {
-                statement.setLong(1, category.getId());
-                statement.setLong(2, type.ordinal());
-            } catch (SQLException e) {
-                throw new UnableToCreateException("Unable to create relations", e);
+    /**
+     * Retrieves the categories of several products in a single query.
+     * A category shared by several of the products is returned as the same instance in each set.
+     *
+     * @param productIds The IDs of the products.
+     * @return The categories of each product keyed by product ID. Products without categories have no entry.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public Map<Long, Set<ProductCategory>> getAllByProductIds(Collection<Long> productIds) {
+        log.debug("ProductCategoryDAOImpl.getAllByProductIds");
+        Map<Long, Set<ProductCategory>> categoriesByProduct = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return categoriesByProduct;
+        }
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ALL_BY_PRODUCT_IDS)) {
+            statement.setArray(1, connection.createArrayOf("bigint", productIds.toArray()));
+            ResultSet resultSet = statement.executeQuery();
+            Map<Long, ProductCategory> categoriesById = new HashMap<>();
+            Map<Long, List<ProductCategory>> rowsByProduct = new HashMap<>();
+            while (resultSet.next()) {
+                ProductCategory category = addRow(categoriesById, resultSet);
+                rowsByProduct.computeIfAbsent(resultSet.getLong(COLUMN_PRODUCT_ID), id -> new ArrayList<>())
+                        .add(category);
             }
+            // categories hash by their types, so the sets are built only once all types are read
+            rowsByProduct.forEach((productId, categories) -> categoriesByProduct.put(productId, new HashSet<>(categories)));
+            return categoriesByProduct;
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
         }
     }
 
-    private void setParameters(ProductCategory productCategory, ResultSet result) throws SQLException {
-        while (result.next()) {
-            productCategory.setId(result.getLong(COLUMN_ID));
-            productCategory.setName(result.getString(COLUMN_NAME));
+    private void createCategoryToTypeRelation(ProductCategory category, Connection connection) {
+        if (category.getTypes() == null || category.getTypes().isEmpty()) {
+            return;
+        }
+        try {
+            BatchExecutor.executeBatch(connection, CREATE_CATEGORY_TO_TYPE_RELATION, category.getTypes(), batchSize,
+                    (statement, type) -> {
+                        statement.setLong(1, category.getId());
+                        statement.setLong(2, referenceData.get().idOf(type));
+                    });
+        } catch (SQLException e) {
+            throw new UnableToCreateException("Unable to create relations", e);
+        }
+    }
+
+    private ProductCategory mapSingle(ResultSet result) throws SQLException {
+        return result.next() ? rowMapper.map(result) : new ProductCategory();
+    }
+
+    private ProductCategory addRow(Map<Long, ProductCategory> categories, ResultSet result) throws SQLException {
+        ProductCategory row = rowMapper.map(result);
+        ProductCategory category = categories.computeIfAbsent(row.getId(), id -> {
+            row.setTypes(new HashSet<>());
+            return row;
+        });
+        long typeId = result.getLong(COLUMN_TYPE_ID);
+        if (!result.wasNull()) {
+            category.getTypes().add(referenceData.get().categoryType(typeId));
         }
+        return category;
     }
 
     private void prepareStatementForCreate(ProductCategory category, PreparedStatement statement) throws SQLException {
@@ -219,6 +320,6 @@ public class ProductCategoryDAOImpl implements ProductCategoryDAO {
 
     private void prepareStatementForUpdate(ProductCategory category, PreparedStatement statement) throws SQLException {
         statement.setString(1, category.getName());
-        statement.setLong(3, category.getId());
+        statement.setLong(2, category.getId());
     }
 }
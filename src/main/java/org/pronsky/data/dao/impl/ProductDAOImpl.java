@@ -1,53 +1,165 @@
 package org.pronsky.data.dao.impl;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.UnitOfWork;
+import org.postgresql.PGConnection;
+import org.pronsky.data.dao.IdGenerator;
 import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.entities.ImportReport;
 import org.pronsky.data.entities.Product;
 import org.pronsky.data.entities.ProductCategory;
+import org.pronsky.data.entities.ProductRowMapper;
+import org.pronsky.data.mapper.RowMapper;
 import org.pronsky.exceptions.UnableToCreateException;
 import org.pronsky.exceptions.UnableToDeleteException;
 import org.pronsky.exceptions.UnableToFindException;
 import org.pronsky.exceptions.UnableToUpdateException;
+import org.pronsky.utils.PropertyReader;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 
 /**
  * DAO implementation for the Product entity using JDBC.
  * This class provides methods for database operations related to products.
+ * Committed writes are mirrored into the shared in-memory name index that serves {@link #searchByName(String, int)}.
+ * New products take their IDs from an {@link IdGenerator}, so a product and its category relations are inserted by
+ * a single statement.
  */
 @Log4j2
-@RequiredArgsConstructor
 public class ProductDAOImpl implements ProductDAO {
 
-    private static final String CREATE_PRODUCT = "INSERT INTO products (name, price, quantity, available) " +
-            "VALUES (?, ?, ?, ?)";
-    private static final String CREATE_PRODUCT_TO_CATEGORY_RELATION = "INSERT INTO product_to_category " +
-            "(product_id, category_id) VALUES (?, ?)";
+    private static final String CREATE_PRODUCT = "WITH created AS (" +
+            "INSERT INTO products (id, name, price, quantity, available) VALUES (?, ?, ?, ?, ?)) " +
+            "INSERT INTO product_to_category (product_id, category_id) SELECT ?, unnest(?::bigint[])";
     private static final String UPDATE_PRODUCT = "UPDATE products SET name = ?, price = ?, quantity = ?, available = ? " +
-            "WHERE id = ?";
+            "WHERE id = ? RETURNING id, name, price, quantity, available";
     private static final String FIND_PRODUCT_BY_ID = "SELECT p.id, p.name, p.price, p.quantity, p.available " +
             "FROM products p WHERE p.id = ?";
+    private static final String FIND_PRODUCTS_BY_IDS = "SELECT p.id, p.name, p.price, p.quantity, p.available " +
+            "FROM products p WHERE p.id = ANY(?) ORDER BY p.id";
     private static final String FIND_ALL_PRODUCTS = "SELECT p.id, p.name, p.price, p.quantity, p.available " +
             "FROM products p";
+    private static final String FIND_PRODUCTS_PAGE = "SELECT p.id, p.name, p.price, p.quantity, p.available " +
+            "FROM products p WHERE p.id > ? ORDER BY p.id LIMIT ?";
+    /**
+     * Builds the JSON object of the product aliased {@code p} in the shape of {@code ProductDTO}.
+     */
+    static final String PRODUCT_JSON = "json_build_object(" +
+            "'id', p.id, 'name', p.name, 'price', p.price, 'quantity', p.quantity, " +
+            "'available', COALESCE(p.available, false), " +
+            "'productCategories', COALESCE((SELECT json_agg(json_build_object(" +
+            "'id', pc.id, 'name', pc.name, " +
+            "'types', COALESCE((SELECT json_agg(ct.name ORDER BY ct.id) FROM category_types ct " +
+            "WHERE ct.id IN (SELECT ctt.type_id FROM categories_to_types ctt WHERE ctt.category_id = pc.id)), " +
+            "'[]'::json)) ORDER BY pc.id) " +
+            "FROM product_categories pc " +
+            "WHERE pc.id IN (SELECT ptc.category_id FROM product_to_category ptc WHERE ptc.product_id = p.id)), " +
+            "'[]'::json))";
+    private static final String FIND_ALL_PRODUCTS_AS_JSON = "SELECT COALESCE(json_agg(" + PRODUCT_JSON +
+            " ORDER BY p.id), '[]'::json) FROM products p";
     private static final String FIND_ALL_BY_ORDER_ID = "SELECT p.id, p.name, p.price, p.quantity, p.available " +
             "FROM products p " +
             "JOIN details_to_products dtp on p.id = dtp.product_id " +
-            "WHERE dtp.order_details_id = ?";
+            "WHERE dtp.order_details_id = ? ORDER BY p.id";
+    private static final String FIND_ALL_BY_ORDER_IDS = "SELECT dtp.order_details_id, " +
+            "p.id, p.name, p.price, p.quantity, p.available " +
+            "FROM details_to_products dtp " +
+            "JOIN products p ON p.id = dtp.product_id " +
+            "WHERE dtp.order_details_id = ANY(?) ORDER BY dtp.order_details_id, p.id";
     private static final String DELETE_PRODUCT = "DELETE FROM products p WHERE p.id = ?";
     private static final String DELETE_PRODUCT_TO_CATEGORY_RELATIONS = "DELETE FROM product_to_category ptc " +
             "WHERE ptc.product_id = ?";
     private static final String DELETE_DETAILS_TO_PRODUCT_RELATIONS = "DELETE FROM details_to_products dtp " +
-            "WHERE dtp.product_id = ?";
-    private static final String COLUMN_ID = "id";
+            "WHERE dtp.product_id = ? RETURNING dtp.order_details_id";
+    private static final String TRUNCATE_IMPORT_STAGING = "TRUNCATE product_import_staging RESTART IDENTITY";
+    private static final String COPY_TO_IMPORT_STAGING = "COPY product_import_staging " +
+            "(name, price, quantity, available, categories) FROM STDIN WITH (FORMAT csv, HEADER true)";
+    private static final String REJECT_INVALID_IMPORT_ROWS = "UPDATE product_import_staging s SET reject_reason = v.reason " +
+            "FROM (SELECT row_no, CASE " +
+            "WHEN NULLIF(btrim(name), '') IS NULL THEN 'name is missing' " +
+            "WHEN length(btrim(name)) > 64 THEN 'name is longer than 64 characters' " +
+            "WHEN btrim(price) !~ '^[+-]?[0-9]+([.][0-9]+)?$' OR price IS NULL THEN 'price is not a number' " +
+            "WHEN btrim(price)::numeric <= 0 THEN 'price must be positive' " +
+            "WHEN btrim(quantity) !~ '^[+-]?[0-9]{1,9}$' OR quantity IS NULL THEN 'quantity is not an integer' " +
+            "WHEN btrim(quantity)::integer <= 0 THEN 'quantity must be positive' " +
+            "WHEN lower(NULLIF(btrim(available), '')) NOT IN ('true', 'false', 't', 'f', 'yes', 'no', '1', '0') " +
+            "THEN 'available is not a boolean' " +
+            "WHEN EXISTS (SELECT 1 FROM unnest(string_to_array(categories, '|')) c WHERE length(btrim(c)) > 64) " +
+            "THEN 'category name is longer than 64 characters' " +
+            "END AS reason FROM product_import_staging) v " +
+            "WHERE v.row_no = s.row_no AND v.reason IS NOT NULL";
+    private static final String REJECT_DUPLICATE_IMPORT_ROWS = "UPDATE product_import_staging s " +
+            "SET reject_reason = 'duplicate name, a later row wins' " +
+            "FROM (SELECT row_no, row_number() OVER (PARTITION BY btrim(name) ORDER BY row_no DESC) AS rank " +
+            "FROM product_import_staging WHERE reject_reason IS NULL) d " +
+            "WHERE d.row_no = s.row_no AND d.rank > 1";
+    private static final String MERGE_IMPORTED_PRODUCTS = "WITH merged AS (" +
+            "INSERT INTO products (name, price, quantity, available) " +
+            "SELECT btrim(name), btrim(price)::numeric, btrim(quantity)::integer, " +
+            "COALESCE(lower(NULLIF(btrim(available), '')) IN ('true', 't', 'yes', '1'), true) " +
+            "FROM product_import_staging WHERE reject_reason IS NULL " +
+            "ON CONFLICT (name) DO UPDATE SET price = EXCLUDED.price, quantity = EXCLUDED.quantity, " +
+            "available = EXCLUDED.available " +
+            "RETURNING (xmax = 0) AS inserted) " +
+            "SELECT count(*) FILTER (WHERE inserted) AS inserted, count(*) FILTER (WHERE NOT inserted) AS updated " +
+            "FROM merged";
+    private static final String MERGE_IMPORTED_CATEGORIES = "INSERT INTO product_categories (name) " +
+            "SELECT DISTINCT btrim(c.name) FROM product_import_staging s " +
+            "CROSS JOIN LATERAL unnest(string_to_array(s.categories, '|')) AS c(name) " +
+            "WHERE s.reject_reason IS NULL AND btrim(c.name) <> '' " +
+            "ON CONFLICT (name) DO NOTHING";
+    private static final String MERGE_IMPORTED_CATEGORY_RELATIONS = "INSERT INTO product_to_category " +
+            "(product_id, category_id) " +
+            "SELECT DISTINCT p.id, pc.id FROM product_import_staging s " +
+            "CROSS JOIN LATERAL unnest(string_to_array(s.categories, '|')) AS c(name) " +
+            "JOIN products p ON p.name = btrim(s.name) " +
+            "JOIN product_categories pc ON pc.name = btrim(c.name) " +
+            "WHERE s.reject_reason IS NULL AND NOT EXISTS (SELECT 1 FROM product_to_category ptc " +
+            "WHERE ptc.product_id = p.id AND ptc.category_id = pc.id)";
+    private static final String COUNT_IMPORT_REJECTIONS = "SELECT count(*) FROM product_import_staging " +
+            "WHERE reject_reason IS NOT NULL";
+    private static final String FIND_IMPORT_REJECTIONS = "SELECT row_no, name, reject_reason " +
+            "FROM product_import_staging WHERE reject_reason IS NOT NULL ORDER BY row_no LIMIT ?";
     private static final String COLUMN_NAME = "name";
-    private static final String COLUMN_PRICE = "price";
-    private static final String COLUMN_QUANTITY = "quantity";
-    private static final String COLUMN_AVAILABLE = "available";
+    private static final String COLUMN_ORDER_DETAILS_ID = "order_details_id";
+    private static final String ID_SEQUENCE = "products_id_seq";
+    private final int fetchSize = PropertyReader.getInstance().getFetchSize();
+    private final int rejectSampleSize = PropertyReader.getInstance().getImportRejectSampleSize();
+    private final RowMapper<Product> rowMapper = new ProductRowMapper();
+    private static final ProductNameIndex SHARED_NAME_INDEX = new ProductNameIndex();
     private final ConnectionUtil connectionUtil;
+    private final ProductNameIndex nameIndex;
+    private final IdGenerator idGenerator;
+
+    public ProductDAOImpl(ConnectionUtil connectionUtil) {
+        this(connectionUtil, SHARED_NAME_INDEX);
+    }
+
+    public ProductDAOImpl(ConnectionUtil connectionUtil, IdGenerator idGenerator) {
+        this(connectionUtil, SHARED_NAME_INDEX, idGenerator);
+    }
+
+    ProductDAOImpl(ConnectionUtil connectionUtil, ProductNameIndex nameIndex) {
+        this(connectionUtil, nameIndex, SequenceBlockIdGenerator.shared(connectionUtil, ID_SEQUENCE));
+    }
+
+    ProductDAOImpl(ConnectionUtil connectionUtil, ProductNameIndex nameIndex, IdGenerator idGenerator) {
+        this.connectionUtil = connectionUtil;
+        this.nameIndex = nameIndex;
+        this.idGenerator = idGenerator;
+    }
 
     /**
      * Retrieves a product by its ID from the database.
@@ -59,17 +171,12 @@ public class ProductDAOImpl implements ProductDAO {
     @Override
     public Product getById(Long id) {
         log.debug("ProductDAOImpl.getById");
-        Product product = new Product();
         try (Connection connection = connectionUtil.getConnection();
              PreparedStatement statement = connection.prepareStatement(FIND_PRODUCT_BY_ID)) {
             statement.setLong(1, id);
             ResultSet resultSet = statement.executeQuery();
             resultSet.next();
-            product.setId(resultSet.getLong(COLUMN_ID));
-            product.setName(resultSet.getString(COLUMN_NAME));
-            product.setPrice(resultSet.getBigDecimal(COLUMN_PRICE));
-            product.setQuantity(resultSet.getInt(COLUMN_QUANTITY));
-            product.setAvailable(resultSet.getBoolean(COLUMN_AVAILABLE));
+            Product product = rowMapper.map(resultSet);
             log.debug("Fetched product : " + product);
             return product;
         } catch (SQLException e) {
@@ -91,9 +198,7 @@ public class ProductDAOImpl implements ProductDAO {
              PreparedStatement statement = connection.prepareStatement(FIND_ALL_PRODUCTS)) {
             ResultSet result = statement.executeQuery();
             while (result.next()) {
-                long id = result.getLong(COLUMN_ID);
-                Product product = getById(id);
-                products.add(product);
+                products.add(rowMapper.map(result));
             }
             log.debug("Fetched products : " + products);
             return products;
@@ -103,7 +208,129 @@ public class ProductDAOImpl implements ProductDAO {
     }
 
     /**
-     * Creates a new product record in the database.
+     * Retrieves several products by their IDs in a single query.
+     *
+     * @param ids The IDs of the products to retrieve.
+     * @return The found products ordered by ID. IDs without a product are skipped.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<Product> getByIds(Collection<Long> ids) {
+        log.debug("ProductDAOImpl.getByIds");
+        List<Product> products = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return products;
+        }
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_PRODUCTS_BY_IDS)) {
+            statement.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                products.add(rowMapper.map(resultSet));
+            }
+            log.debug("Fetched products : " + products);
+            return products;
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Retrieves one page of products ordered by ID.
+     * The page starts right after the given ID, so the primary key index serves every page at the same cost.
+     *
+     * @param afterId The ID of the last product of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of products to return.
+     * @return The products of the page.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public List<Product> getPage(long afterId, int limit) {
+        log.debug("ProductDAOImpl.getPage");
+        List<Product> products = new ArrayList<>();
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_PRODUCTS_PAGE)) {
+            statement.setLong(1, afterId);
+            statement.setInt(2, limit);
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                products.add(rowMapper.map(resultSet));
+            }
+            return products;
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Finds products by the words of their names as they are typed, without a database round trip.
+     * Every query word must be a prefix of a word of the name, or one edit away from such a prefix.
+     * The in-memory name index is loaded from the database on the first search.
+     *
+     * @param query The typed text.
+     * @param limit The maximum number of products to return.
+     * @return The best matching products without categories, best first.
+     * @throws UnableToFindException If the index cannot be loaded.
+     */
+    @Override
+    public List<Product> searchByName(String query, int limit) {
+        log.debug("ProductDAOImpl.searchByName");
+        nameIndex.ensureBuilt(this::getAll);
+        return nameIndex.search(query, limit);
+    }
+
+    /**
+     * Passes every product to the consumer as it is read, without categories.
+     * The query runs in a read-only transaction with the configured fetch size, so the driver reads the rows
+     * through a server-side cursor and only one fetch is held in memory at a time.
+     *
+     * @param consumer Receives each product.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public void streamAll(Consumer<Product> consumer) {
+        log.debug("ProductDAOImpl.streamAll");
+        UnitOfWork.readOnly(() -> {
+            try (Connection connection = connectionUtil.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(FIND_ALL_PRODUCTS)) {
+                statement.setFetchSize(fetchSize);
+                ResultSet resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    consumer.accept(rowMapper.map(resultSet));
+                }
+                return null;
+            } catch (SQLException e) {
+                throw new UnableToFindException(e);
+            }
+        });
+    }
+
+    /**
+     * Writes all products with their categories to the writer as a JSON array in the shape of {@code ProductDTO}.
+     * The document is built by PostgreSQL in a single query, so no entities or DTOs are created.
+     *
+     * @param writer Receives the JSON document.
+     * @throws UnableToFindException If an error occurs during the retrieval or while writing.
+     */
+    @Override
+    public void writeAllAsJson(Writer writer) {
+        log.debug("ProductDAOImpl.writeAllAsJson");
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ALL_PRODUCTS_AS_JSON)) {
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            try (Reader json = resultSet.getCharacterStream(1)) {
+                json.transferTo(writer);
+            }
+        } catch (SQLException | IOException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Creates a new product record with its category relations in the database.
+     * The ID is assigned by the {@link IdGenerator} beforehand, so one statement inserts the product and its
+     * category relations.
      *
      * @param product The product object to create.
      * @return The created product object with the generated ID.
@@ -113,15 +340,18 @@ public class ProductDAOImpl implements ProductDAO {
     public Product create(Product product) {
         log.debug("ProductDAOImpl.create");
         try (Connection connection = connectionUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(CREATE_PRODUCT, Statement.RETURN_GENERATED_KEYS)) {
-            prepareStatementForCreate(product, statement);
+             PreparedStatement statement = connection.prepareStatement(CREATE_PRODUCT)) {
+            Product created = new Product();
+            created.setId(idGenerator.nextId());
+            created.setName(product.getName());
+            created.setPrice(product.getPrice());
+            created.setQuantity(product.getQuantity());
+            created.setAvailable(product.isAvailable());
+            created.setProductCategories(product.getProductCategories());
+            prepareStatementForCreate(created, statement, connection);
             statement.executeUpdate();
-            ResultSet result = statement.getGeneratedKeys();
-            if (result.next()) {
-                product.setId(result.getLong(COLUMN_ID));
-                setProductToCategoryRelations(product);
-            }
-            return product;
+            UnitOfWork.afterCommit(() -> nameIndex.put(created));
+            return created;
         } catch (SQLException e) {
             throw new UnableToCreateException(e);
         }
@@ -129,10 +359,11 @@ public class ProductDAOImpl implements ProductDAO {
 
     /**
      * Updates an existing product record in the database.
+     * The stored row is returned by the update statement itself.
      *
      * @param product The product object to update.
      * @return The updated product object.
-     * @throws UnableToUpdateException If an error occurs during the update process.
+     * @throws UnableToUpdateException If the product does not exist or an error occurs during the update process.
      */
     @Override
     public Product update(Product product) {
@@ -140,8 +371,15 @@ public class ProductDAOImpl implements ProductDAO {
         try (Connection connection = connectionUtil.getConnection();
              PreparedStatement statement = connection.prepareStatement(UPDATE_PRODUCT)) {
             prepareStatementForUpdate(product, statement);
-            statement.executeUpdate();
-            return product;
+            ResultSet result = statement.executeQuery();
+            if (!result.next()) {
+                throw new UnableToUpdateException("Product not found : " + product.getId());
+            }
+            Product updated = rowMapper.map(result);
+            updated.setProductCategories(product.getProductCategories());
+            OrderSummaryDAOImpl.refreshByProduct(connection, updated.getId());
+            UnitOfWork.afterCommit(() -> nameIndex.put(updated));
+            return updated;
         } catch (SQLException e) {
             throw new UnableToUpdateException(e);
         }
@@ -159,10 +397,13 @@ public class ProductDAOImpl implements ProductDAO {
         log.debug("ProductDAOImpl.deleteById");
         try (Connection connection = connectionUtil.getConnection();
              PreparedStatement statement = connection.prepareStatement(DELETE_PRODUCT)) {
-            boolean categoryRelationsAreDeleted = deleteProductToCategoryRelations(id);
-            boolean detailRelationsAreDeleted = deleteDetailsToProductRelations(id);
+            boolean categoryRelationsAreDeleted = deleteProductToCategoryRelations(id, connection);
+            Set<Long> orderIds = deleteDetailsToProductRelations(id, connection);
+            boolean detailRelationsAreDeleted = !orderIds.isEmpty();
+            OrderSummaryDAOImpl.refresh(connection, orderIds);
             statement.setLong(1, id);
             int affectedRows = statement.executeUpdate();
+            UnitOfWork.afterCommit(() -> nameIndex.remove(id));
             return (affectedRows == 1 && detailRelationsAreDeleted && categoryRelationsAreDeleted);
         } catch (SQLException e) {
             throw new UnableToDeleteException(e);
@@ -185,13 +426,7 @@ public class ProductDAOImpl implements ProductDAO {
             statement.setLong(1, orderId);
             ResultSet resultSet = statement.executeQuery();
             while (resultSet.next()) {
-                Product product = new Product();
-                product.setId(resultSet.getLong(COLUMN_ID));
-                product.setName(resultSet.getString(COLUMN_NAME));
-                product.setPrice(resultSet.getBigDecimal(COLUMN_PRICE));
-                product.setQuantity(resultSet.getInt(COLUMN_QUANTITY));
-                product.setAvailable(resultSet.getBoolean(COLUMN_AVAILABLE));
-                products.add(product);
+                products.add(rowMapper.map(resultSet));
             }
             return products;
         } catch (SQLException e) {
@@ -199,11 +434,113 @@ public class ProductDAOImpl implements ProductDAO {
         }
     }
 
-    private void prepareStatementForCreate(Product product, PreparedStatement statement) throws SQLException {
-        statement.setString(1, product.getName());
-        statement.setBigDecimal(2, product.getPrice());
-        statement.setInt(3, product.getQuantity());
-        statement.setBoolean(4, product.isAvailable());
+    /**
+     * Retrieves the products of several orders in a single query.
+     * A product that belongs to several of the orders is returned as the same instance in each list.
+     *
+     * @param orderIds The IDs of the orders.
+     * @return The products of each order keyed by order ID. Orders without products have no entry.
+     * @throws UnableToFindException If an error occurs during the retrieval process.
+     */
+    @Override
+    public Map<Long, List<Product>> getAllByOrderIds(Collection<Long> orderIds) {
+        log.debug("ProductDAOImpl.getAllByOrderIds");
+        Map<Long, List<Product>> productsByOrder = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return productsByOrder;
+        }
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FIND_ALL_BY_ORDER_IDS)) {
+            statement.setArray(1, connection.createArrayOf("bigint", orderIds.toArray()));
+            ResultSet resultSet = statement.executeQuery();
+            Map<Long, Product> productsById = new HashMap<>();
+            while (resultSet.next()) {
+                Product row = rowMapper.map(resultSet);
+                Product product = productsById.computeIfAbsent(row.getId(), id -> row);
+                productsByOrder.computeIfAbsent(resultSet.getLong(COLUMN_ORDER_DETAILS_ID), id -> new ArrayList<>())
+                        .add(product);
+            }
+            return productsByOrder;
+        } catch (SQLException e) {
+            throw new UnableToFindException(e);
+        }
+    }
+
+    /**
+     * Imports products from a CSV stream with the columns {@code name, price, quantity, available, categories}
+     * and a header row. Categories are separated by {@code |}.
+     * The stream is copied into an unlogged staging table with {@code COPY}, so memory use does not depend on the
+     * file size. Invalid rows are marked as rejected there. The remaining rows are merged into {@code products}
+     * by name with set-based statements. Missing categories are created and product-to-category links are added.
+     * Truncating the staging table locks it until the transaction ends, so concurrent imports run one after another.
+     *
+     * @param csv The CSV content.
+     * @return The import report with row counts and a sample of rejected rows.
+     * @throws UnableToCreateException If the CSV cannot be read or an error occurs during the import.
+     */
+    @Override
+    public ImportReport importCsv(Reader csv) {
+        log.debug("ProductDAOImpl.importCsv");
+        ImportReport report = new ImportReport();
+        try (Connection connection = connectionUtil.getConnection()) {
+            executeUpdate(connection, TRUNCATE_IMPORT_STAGING);
+            report.setReceived(connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_TO_IMPORT_STAGING, csv));
+            executeUpdate(connection, REJECT_INVALID_IMPORT_ROWS);
+            executeUpdate(connection, REJECT_DUPLICATE_IMPORT_ROWS);
+            try (PreparedStatement statement = connection.prepareStatement(MERGE_IMPORTED_PRODUCTS)) {
+                ResultSet resultSet = statement.executeQuery();
+                resultSet.next();
+                report.setInserted(resultSet.getLong("inserted"));
+                report.setUpdated(resultSet.getLong("updated"));
+            }
+            executeUpdate(connection, MERGE_IMPORTED_CATEGORIES);
+            report.setCategoryLinks(executeUpdate(connection, MERGE_IMPORTED_CATEGORY_RELATIONS));
+            setRejections(report, connection);
+            executeUpdate(connection, TRUNCATE_IMPORT_STAGING);
+            UnitOfWork.afterCommit(nameIndex::invalidate);
+            log.debug("Import report : " + report);
+            return report;
+        } catch (SQLException | IOException e) {
+            throw new UnableToCreateException("Unable to import products", e);
+        }
+    }
+
+    private void setRejections(ImportReport report, Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(COUNT_IMPORT_REJECTIONS)) {
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            report.setRejected(resultSet.getLong(1));
+        }
+        try (PreparedStatement statement = connection.prepareStatement(FIND_IMPORT_REJECTIONS)) {
+            statement.setInt(1, rejectSampleSize);
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                ImportReport.Rejection rejection = new ImportReport.Rejection();
+                rejection.setRow(resultSet.getLong("row_no"));
+                rejection.setName(resultSet.getString(COLUMN_NAME));
+                rejection.setReason(resultSet.getString("reject_reason"));
+                report.getRejections().add(rejection);
+            }
+        }
+    }
+
+    private int executeUpdate(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            return statement.executeUpdate();
+        }
+    }
+
+    private void prepareStatementForCreate(Product product, PreparedStatement statement, Connection connection)
+            throws SQLException {
+        Object[] categoryIds = product.getProductCategories() == null ? new Object[0]
+                : product.getProductCategories().stream().map(ProductCategory::getId).toArray();
+        statement.setLong(1, product.getId());
+        statement.setString(2, product.getName());
+        statement.setBigDecimal(3, product.getPrice());
+        statement.setInt(4, product.getQuantity());
+        statement.setBoolean(5, product.isAvailable());
+        statement.setLong(6, product.getId());
+        statement.setArray(7, connection.createArrayOf("bigint", categoryIds));
     }
 
     private void prepareStatementForUpdate(Product product, PreparedStatement statement) throws SQLException {
@@ -214,34 +551,23 @@ public class ProductDAOImpl implements ProductDAO {
         statement.setLong(5, product.getId());
     }
 
-    private void setProductToCategoryRelations(Product product) throws SQLException {
-        for (ProductCategory category : product.getProductCategories()) {
-            try (Connection connection = connectionUtil.getConnection();
-                 PreparedStatement statement = connection.prepareStatement(CREATE_PRODUCT_TO_CATEGORY_RELATION)) {
-                statement.setLong(1, product.getId());
-                statement.setLong(2, category.getId());
-                statement.executeUpdate();
-            } catch (SQLException e) {
-                throw new UnableToCreateException("Unable to create relations", e);
-            }
-        }
-    }
-
-    private boolean deleteProductToCategoryRelations(Long id) throws SQLException {
-        try (Connection connection = connectionUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(DELETE_PRODUCT_TO_CATEGORY_RELATIONS)) {
+    private boolean deleteProductToCategoryRelations(Long id, Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_PRODUCT_TO_CATEGORY_RELATIONS)) {
             statement.setLong(1, id);
             int affectedRows = statement.executeUpdate();
             return affectedRows >= 1;
         }
     }
 
-    private boolean deleteDetailsToProductRelations(Long id) throws SQLException {
-        try (Connection connection = connectionUtil.getConnection();
-             PreparedStatement statement = connection.prepareStatement(DELETE_DETAILS_TO_PRODUCT_RELATIONS)) {
+    private Set<Long> deleteDetailsToProductRelations(Long id, Connection connection) throws SQLException {
+        Set<Long> orderIds = new LinkedHashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(DELETE_DETAILS_TO_PRODUCT_RELATIONS)) {
             statement.setLong(1, id);
-            int affectedRows = statement.executeUpdate();
-            return affectedRows >= 1;
+            ResultSet resultSet = statement.executeQuery();
+            while (resultSet.next()) {
+                orderIds.add(resultSet.getLong(1));
+            }
+            return orderIds;
         }
     }
 }
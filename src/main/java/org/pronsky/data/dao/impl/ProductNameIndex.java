@@ -0,0 +1,530 @@
+package org.pronsky.data.dao.impl;
+
+import org.pronsky.data.entities.Product;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory typeahead index over product names.
+ * Names are split into lower-case words kept in a sorted array with the postings of each word, so a prefix lookup is
+ * a binary search for a range of words. Tolerant matches look up every single-character edit of a typed word as a
+ * prefix, taking inserted and replacing characters from the indexed words that share the unchanged part of the edit.
+ * Each posting keeps its products sorted by rank, split by whether the name starts with the word, so a one-word
+ * search merges postings in rank order and stops after the requested number of products. A search of several
+ * words walks the candidates of its most selective word only and scores the other words against their names.
+ * Words too short for tolerant matching have exact candidate counts, so the typo edits of the longer words are
+ * only looked up when no short word narrows the search to a few candidates.
+ * Lookups run without locks on copy-on-write arrays; updates are serialized and applied after the writing
+ * transaction commits.
+ */
+final class ProductNameIndex {
+    private static final int EXACT_SCORE = 3;
+    private static final int PREFIX_SCORE = 2;
+    private static final int TOLERANT_SCORE = 1;
+    private static final int MIN_TOLERANT_LENGTH = 3;
+    private static final int SELECTIVE_CANDIDATES = 1_000;
+    private static final String END = String.valueOf(Character.MAX_VALUE);
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+    private static final Comparator<Entry> BY_NAME = ProductNameIndex::compareByName;
+    private final Map<Long, Entry> entriesById = new ConcurrentHashMap<>();
+    private final LongAdder examined = new LongAdder();
+    private final Object writeLock = new Object();
+    private volatile Vocabulary vocabulary = Vocabulary.EMPTY;
+    private volatile boolean built;
+
+    boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * @return The number of candidate products the searches of this index have looked at so far.
+     */
+    long candidatesExamined() {
+        return examined.sum();
+    }
+
+    /**
+     * Builds the index from the loaded products unless it is already built.
+     *
+     * @param loader Loads all products.
+     */
+    void ensureBuilt(Supplier<List<Product>> loader) {
+        if (built) {
+            return;
+        }
+        synchronized (writeLock) {
+            if (!built) {
+                entriesById.clear();
+                TreeMap<String, List<Entry>> entriesByWord = new TreeMap<>();
+                for (Product product : loader.get()) {
+                    Entry entry = entry(product);
+                    entriesById.put(entry.id(), entry);
+                    for (String word : new LinkedHashSet<>(entry.words())) {
+                        entriesByWord.computeIfAbsent(word, key -> new ArrayList<>()).add(entry);
+                    }
+                }
+                String[] words = entriesByWord.keySet().toArray(String[]::new);
+                Postings[] postings = new Postings[words.length];
+                for (int i = 0; i < words.length; i++) {
+                    String word = words[i];
+                    Map<Boolean, List<Entry>> byLeading = entriesByWord.get(word).stream()
+                            .collect(Collectors.partitioningBy(entry -> entry.normalizedName().startsWith(word)));
+                    postings[i] = new Postings(sorted(byLeading.get(true)), sorted(byLeading.get(false)));
+                }
+                vocabulary = new Vocabulary(words, postings);
+                built = true;
+            }
+        }
+    }
+
+    /**
+     * Drops the indexed names, the next search rebuilds the index from the database.
+     */
+    void invalidate() {
+        synchronized (writeLock) {
+            built = false;
+            vocabulary = Vocabulary.EMPTY;
+            entriesById.clear();
+        }
+    }
+
+    /**
+     * Adds a product or replaces the indexed name of a product with the same ID.
+     *
+     * @param product The product to index, its categories are not kept.
+     */
+    void put(Product product) {
+        synchronized (writeLock) {
+            if (built) {
+                unindex(product.getId());
+                index(product);
+            }
+        }
+    }
+
+    /**
+     * @param id The ID of the product to remove.
+     */
+    void remove(Long id) {
+        synchronized (writeLock) {
+            unindex(id);
+        }
+    }
+
+    /**
+     * Finds the products whose names contain a word starting with every word of the query, or with a word one edit
+     * away from it. Exact words rank before prefixes and prefixes before tolerant matches; names starting with the
+     * query and shorter names rank first among equal scores.
+     *
+     * @param query The typed text.
+     * @param limit The maximum number of products to return.
+     * @return The best matching products, best first.
+     */
+    List<Product> search(String query, int limit) {
+        List<String> words = words(query);
+        if (words.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        Vocabulary current = vocabulary;
+        if (words.size() == 1) {
+            return searchWord(current, words.get(0), limit);
+        }
+        return searchWords(current, words, String.join(" ", words), limit);
+    }
+
+    private List<Product> searchWord(Vocabulary current, String word, int limit) {
+        List<Product> found = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        int exact = Arrays.binarySearch(current.words(), word);
+        if (exact >= 0) {
+            Postings postings = current.postings()[exact];
+            merge(List.<Entry[]>of(postings.leading()), limit, seen, found);
+            merge(List.<Entry[]>of(postings.others()), limit, seen, found);
+        }
+        List<Postings> prefixes = prefixPostings(current, word, false);
+        merge(prefixes.stream().map(Postings::leading).toList(), limit, seen, found);
+        merge(prefixes.stream().map(Postings::others).toList(), limit, seen, found);
+        if (found.size() < limit && word.length() >= MIN_TOLERANT_LENGTH) {
+            List<Entry[]> tolerant = new ArrayList<>();
+            for (Postings postings : tolerantPostings(current, word)) {
+                tolerant.add(postings.leading());
+                tolerant.add(postings.others());
+            }
+            merge(tolerant, limit, seen, found);
+        }
+        return found;
+    }
+
+    private void merge(List<Entry[]> sources, int limit, Set<Long> seen, List<Product> found) {
+        if (found.size() >= limit) {
+            return;
+        }
+        PriorityQueue<Cursor> cursors = new PriorityQueue<>((left, right) -> compareByName(left.head(), right.head()));
+        for (Entry[] source : sources) {
+            if (source.length > 0) {
+                cursors.add(new Cursor(source, 0));
+            }
+        }
+        while (!cursors.isEmpty() && found.size() < limit) {
+            Cursor cursor = cursors.poll();
+            examined.increment();
+            if (seen.add(cursor.head().id())) {
+                found.add(cursor.head().product());
+            }
+            if (cursor.position() + 1 < cursor.source().length) {
+                cursors.add(new Cursor(cursor.source(), cursor.position() + 1));
+            }
+        }
+    }
+
+    private List<Product> searchWords(Vocabulary current, List<String> words, String normalizedQuery, int limit) {
+        List<Postings> driver = null;
+        long driverSize = Long.MAX_VALUE;
+        for (String word : words) {
+            if (word.length() < MIN_TOLERANT_LENGTH) {
+                List<Postings> candidates = prefixPostings(current, word, true);
+                long size = candidates.stream().mapToLong(Postings::size).sum();
+                if (size < driverSize) {
+                    driver = candidates;
+                    driverSize = size;
+                }
+            }
+        }
+        if (driverSize > SELECTIVE_CANDIDATES) {
+            for (String word : words) {
+                if (word.length() >= MIN_TOLERANT_LENGTH) {
+                    List<Postings> candidates = prefixPostings(current, word, true);
+                    candidates.addAll(tolerantPostings(current, word));
+                    long size = candidates.stream().mapToLong(Postings::size).sum();
+                    if (size < driverSize) {
+                        driver = candidates;
+                        driverSize = size;
+                    }
+                }
+            }
+        }
+        Comparator<Scored> ranking = ProductNameIndex::compareByRank;
+        PriorityQueue<Scored> best = new PriorityQueue<>(ranking.reversed());
+        Set<Long> seen = new HashSet<>();
+        for (Postings postings : driver) {
+            for (Entry[] source : List.of(postings.leading(), postings.others())) {
+                for (Entry entry : source) {
+                    if (!seen.add(entry.id())) {
+                        continue;
+                    }
+                    examined.increment();
+                    int score = score(entry, words);
+                    if (score > 0) {
+                        best.offer(new Scored(entry, score, entry.normalizedName().startsWith(normalizedQuery)));
+                        if (best.size() > limit) {
+                            best.poll();
+                        }
+                    }
+                }
+            }
+        }
+        List<Scored> ranked = new ArrayList<>(best);
+        ranked.sort(ranking);
+        return ranked.stream().map(scored -> scored.entry().product()).toList();
+    }
+
+    private static int compareByRank(Scored left, Scored right) {
+        if (left.score() != right.score()) {
+            return Integer.compare(right.score(), left.score());
+        }
+        if (left.leading() != right.leading()) {
+            return left.leading() ? -1 : 1;
+        }
+        return compareByName(left.entry(), right.entry());
+    }
+
+    private static int compareByName(Entry left, Entry right) {
+        int byLength = Integer.compare(left.name().length(), right.name().length());
+        if (byLength != 0) {
+            return byLength;
+        }
+        int byName = left.name().compareTo(right.name());
+        return byName != 0 ? byName : Long.compare(left.id(), right.id());
+    }
+
+    private static int score(Entry entry, List<String> words) {
+        int total = 0;
+        for (String word : words) {
+            int best = 0;
+            for (String nameWord : entry.words()) {
+                best = Math.max(best, score(word, nameWord));
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int score(String typed, String nameWord) {
+        if (nameWord.equals(typed)) {
+            return EXACT_SCORE;
+        }
+        if (nameWord.startsWith(typed)) {
+            return PREFIX_SCORE;
+        }
+        return typed.length() >= MIN_TOLERANT_LENGTH && startsWithOneEdit(nameWord, typed) ? TOLERANT_SCORE : 0;
+    }
+
+    /**
+     * Checks whether the word starts with a single deletion, transposition, replacement or insertion of the typed
+     * text. Only the first position where the two differ needs to be tried.
+     */
+    private static boolean startsWithOneEdit(String word, String typed) {
+        int length = typed.length();
+        int diff = 0;
+        while (diff < length && diff < word.length() && word.charAt(diff) == typed.charAt(diff)) {
+            diff++;
+        }
+        if (diff >= length - 1) {
+            return true;
+        }
+        boolean deletion = word.regionMatches(diff, typed, diff + 1, length - diff - 1);
+        boolean replacement = word.length() >= length && word.regionMatches(diff + 1, typed, diff + 1, length - diff - 1);
+        boolean insertion = word.length() > length && word.regionMatches(diff + 1, typed, diff, length - diff);
+        boolean transposition = word.length() >= length && word.charAt(diff) == typed.charAt(diff + 1)
+                && word.charAt(diff + 1) == typed.charAt(diff)
+                && word.regionMatches(diff + 2, typed, diff + 2, length - diff - 2);
+        return deletion || replacement || insertion || transposition;
+    }
+
+    private static List<Postings> prefixPostings(Vocabulary current, String prefix, boolean inclusive) {
+        String[] words = current.words();
+        int from = lowerBound(words, prefix, 0, words.length);
+        int to = lowerBound(words, prefix + END, from, words.length);
+        List<Postings> postings = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            if (inclusive || !words[i].equals(prefix)) {
+                postings.add(current.postings()[i]);
+            }
+        }
+        return postings;
+    }
+
+    /**
+     * Collects the postings of the indexed words that start with a single deletion, transposition, replacement or
+     * insertion of the typed word but not with the word itself. Replacing and inserted characters are only taken
+     * from the words that share the unchanged prefix, so each edit is a binary search within a narrow range.
+     */
+    private static List<Postings> tolerantPostings(Vocabulary current, String word) {
+        String[] words = current.words();
+        Set<Integer> matches = new LinkedHashSet<>();
+        for (int i = 0; i < word.length(); i++) {
+            String head = word.substring(0, i);
+            int from = lowerBound(words, head, 0, words.length);
+            int to = lowerBound(words, head + END, from, words.length);
+            addPrefixed(words, head + word.substring(i + 1), word, 0, words.length, matches);
+            if (i + 1 < word.length()) {
+                addPrefixed(words, head + word.charAt(i + 1) + word.charAt(i) + word.substring(i + 2), word, from, to,
+                        matches);
+            }
+            int next = from;
+            while (next < to) {
+                if (words[next].length() == i) {
+                    next++;
+                    continue;
+                }
+                String edited = head + words[next].charAt(i);
+                int end = lowerBound(words, edited + END, next, to);
+                addPrefixed(words, edited + word.substring(i + 1), word, next, end, matches);
+                addPrefixed(words, edited + word.substring(i), word, next, end, matches);
+                next = end;
+            }
+        }
+        List<Postings> postings = new ArrayList<>(matches.size());
+        matches.forEach(index -> postings.add(current.postings()[index]));
+        return postings;
+    }
+
+    private static void addPrefixed(String[] words, String prefix, String typed, int from, int to,
+                                    Set<Integer> matches) {
+        for (int i = lowerBound(words, prefix, from, to); i < to && words[i].startsWith(prefix); i++) {
+            if (!words[i].startsWith(typed)) {
+                matches.add(i);
+            }
+        }
+    }
+
+    private static int lowerBound(String[] words, String key, int from, int to) {
+        int low = from;
+        int high = to;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (words[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void index(Product product) {
+        Entry entry = entry(product);
+        entriesById.put(entry.id(), entry);
+        for (String word : new LinkedHashSet<>(entry.words())) {
+            boolean leads = entry.normalizedName().startsWith(word);
+            Vocabulary current = vocabulary;
+            int position = Arrays.binarySearch(current.words(), word);
+            if (position >= 0) {
+                current.postings()[position] = current.postings()[position].with(entry, leads);
+            } else {
+                vocabulary = current.with(-position - 1, word, new Postings(NO_ENTRIES, NO_ENTRIES).with(entry, leads));
+            }
+        }
+    }
+
+    private void unindex(Long id) {
+        Entry removed = entriesById.remove(id);
+        if (removed == null) {
+            return;
+        }
+        for (String word : new LinkedHashSet<>(removed.words())) {
+            Vocabulary current = vocabulary;
+            int position = Arrays.binarySearch(current.words(), word);
+            if (position < 0) {
+                continue;
+            }
+            Postings remaining = current.postings()[position].without(removed);
+            if (remaining.size() == 0) {
+                vocabulary = current.without(position);
+            } else {
+                current.postings()[position] = remaining;
+            }
+        }
+    }
+
+    private static Entry entry(Product product) {
+        Product snapshot = new Product();
+        snapshot.setId(product.getId());
+        snapshot.setName(product.getName());
+        snapshot.setPrice(product.getPrice());
+        snapshot.setQuantity(product.getQuantity());
+        snapshot.setAvailable(product.isAvailable());
+        String normalizedName = snapshot.getName() == null ? "" : normalize(snapshot.getName());
+        return new Entry(snapshot, snapshot.getId(), snapshot.getName(), normalizedName, words(snapshot.getName()));
+    }
+
+    private static Entry[] sorted(List<Entry> entries) {
+        Entry[] sorted = entries.toArray(NO_ENTRIES);
+        Arrays.sort(sorted, BY_NAME);
+        return sorted;
+    }
+
+    private static List<String> words(String text) {
+        if (text == null) {
+            return new ArrayList<>();
+        }
+        return Arrays.stream(normalize(text).split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .toList();
+    }
+
+    private static String normalize(String text) {
+        return text.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(Product product, long id, String name, String normalizedName, List<String> words) {
+    }
+
+    private record Cursor(Entry[] source, int position) {
+        Entry head() {
+            return source[position];
+        }
+    }
+
+    private record Scored(Entry entry, int score, boolean leading) {
+    }
+
+    /**
+     * The products of one word sorted by rank, those whose names start with the word apart from the others.
+     * Never changed once published, updates replace it.
+     */
+    private record Postings(Entry[] leading, Entry[] others) {
+        int size() {
+            return leading.length + others.length;
+        }
+
+        Postings with(Entry entry, boolean leads) {
+            return leads ? new Postings(inserted(leading, entry), others) : new Postings(leading, inserted(others, entry));
+        }
+
+        Postings without(Entry entry) {
+            return new Postings(removed(leading, entry), removed(others, entry));
+        }
+
+        private static Entry[] inserted(Entry[] entries, Entry entry) {
+            int position = Arrays.binarySearch(entries, entry, BY_NAME);
+            if (position >= 0) {
+                return entries;
+            }
+            int insertAt = -position - 1;
+            Entry[] updated = new Entry[entries.length + 1];
+            System.arraycopy(entries, 0, updated, 0, insertAt);
+            updated[insertAt] = entry;
+            System.arraycopy(entries, insertAt, updated, insertAt + 1, entries.length - insertAt);
+            return updated;
+        }
+
+        private static Entry[] removed(Entry[] entries, Entry entry) {
+            int position = Arrays.binarySearch(entries, entry, BY_NAME);
+            if (position < 0) {
+                return entries;
+            }
+            Entry[] updated = new Entry[entries.length - 1];
+            System.arraycopy(entries, 0, updated, 0, position);
+            System.arraycopy(entries, position + 1, updated, position, entries.length - position - 1);
+            return updated;
+        }
+    }
+
+    /**
+     * The sorted indexed words with the postings at the same positions.
+     * Adding or removing a word publishes a new vocabulary; replacing the postings of a word writes the array slot.
+     */
+    private record Vocabulary(String[] words, Postings[] postings) {
+        private static final Vocabulary EMPTY = new Vocabulary(new String[0], new Postings[0]);
+
+        Vocabulary with(int position, String word, Postings wordPostings) {
+            String[] updatedWords = new String[words.length + 1];
+            Postings[] updatedPostings = new Postings[postings.length + 1];
+            System.arraycopy(words, 0, updatedWords, 0, position);
+            System.arraycopy(postings, 0, updatedPostings, 0, position);
+            updatedWords[position] = word;
+            updatedPostings[position] = wordPostings;
+            System.arraycopy(words, position, updatedWords, position + 1, words.length - position);
+            System.arraycopy(postings, position, updatedPostings, position + 1, postings.length - position);
+            return new Vocabulary(updatedWords, updatedPostings);
+        }
+
+        Vocabulary without(int position) {
+            String[] updatedWords = new String[words.length - 1];
+            Postings[] updatedPostings = new Postings[postings.length - 1];
+            System.arraycopy(words, 0, updatedWords, 0, position);
+            System.arraycopy(postings, 0, updatedPostings, 0, position);
+            System.arraycopy(words, position + 1, updatedWords, position, words.length - position - 1);
+            System.arraycopy(postings, position + 1, updatedPostings, position, postings.length - position - 1);
+            return new Vocabulary(updatedWords, updatedPostings);
+        }
+    }
+}
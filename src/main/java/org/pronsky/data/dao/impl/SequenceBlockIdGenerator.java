@@ -0,0 +1,101 @@
+package org.pronsky.data.dao.impl;
+
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.dao.IdGenerator;
+import org.pronsky.exceptions.UnableToCreateException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hi-lo ID generator reserving blocks of IDs from a database sequence.
+ * The sequence increments by the block size, so every {@code nextval} reserves the whole block starting at the
+ * returned value for this node alone and IDs stay unique across application nodes. IDs of the current block are
+ * handed out without locking through an {@link AtomicLong}; only the thread that exhausts a block reserves the next.
+ * The block size is read from the sequence itself. Rows inserted with the column default also take a whole block,
+ * which leaves gaps but no duplicates. DAOs take their generator from {@link #shared}, so every instance drawing from
+ * a sequence of the same database shares one block instead of each reserving and abandoning its own.
+ */
+@Log4j2
+public class SequenceBlockIdGenerator implements IdGenerator {
+    private static final String RESERVE_BLOCK = "SELECT nextval(?::regclass), increment_by FROM pg_sequences " +
+            "WHERE schemaname = current_schema() AND sequencename = ?";
+    private static final Map<SharedKey, SequenceBlockIdGenerator> SHARED = new ConcurrentHashMap<>();
+    private final ConnectionUtil connectionUtil;
+    private final String sequence;
+    private volatile Block block;
+
+    public SequenceBlockIdGenerator(ConnectionUtil connectionUtil, String sequence) {
+        this.connectionUtil = connectionUtil;
+        this.sequence = sequence;
+    }
+
+    /**
+     * @return The generator shared by all callers reserving IDs from the sequence through the data source of the
+     * given connection utility; the first caller's utility is used to reserve blocks.
+     */
+    public static SequenceBlockIdGenerator shared(ConnectionUtil connectionUtil, String sequence) {
+        return SHARED.computeIfAbsent(new SharedKey(connectionUtil.getDataSource(), sequence),
+                key -> new SequenceBlockIdGenerator(connectionUtil, sequence));
+    }
+
+    /**
+     * @return The next ID of the current block, reserving a new block when the current one is used up.
+     * @throws UnableToCreateException If a new block can not be reserved.
+     */
+    @Override
+    public long nextId() {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long id = current.next.getAndIncrement();
+                if (id < current.end) {
+                    return id;
+                }
+            }
+            synchronized (this) {
+                if (block == current) {
+                    block = reserve();
+                }
+            }
+        }
+    }
+
+    private Block reserve() {
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(RESERVE_BLOCK)) {
+            statement.setString(1, sequence);
+            statement.setString(2, sequence);
+            ResultSet resultSet = statement.executeQuery();
+            if (!resultSet.next()) {
+                throw new UnableToCreateException("Sequence not found : " + sequence);
+            }
+            long start = resultSet.getLong(1);
+            long size = resultSet.getLong(2);
+            log.debug("Reserved IDs " + start + " to " + (start + size - 1) + " from " + sequence);
+            return new Block(start, start + size);
+        } catch (SQLException e) {
+            throw new UnableToCreateException(e);
+        }
+    }
+
+    private record SharedKey(DataSource dataSource, String sequence) {
+    }
+
+    private static final class Block {
+        private final long end;
+        private final AtomicLong next;
+
+        private Block(long start, long end) {
+            this.end = end;
+            this.next = new AtomicLong(start);
+        }
+    }
+}
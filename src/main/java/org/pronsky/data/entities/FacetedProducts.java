@@ -0,0 +1,16 @@
+package org.pronsky.data.entities;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Data
+public class FacetedProducts {
+    private List<Product> products = new ArrayList<>();
+    private Map<String, Integer> categoryCounts = new TreeMap<>();
+    private Map<String, Integer> typeCounts = new TreeMap<>();
+    private Map<String, Integer> availabilityCounts = new TreeMap<>();
+}
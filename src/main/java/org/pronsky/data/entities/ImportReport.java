@@ -0,0 +1,23 @@
+package org.pronsky.data.entities;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportReport {
+    private long received;
+    private long inserted;
+    private long updated;
+    private long rejected;
+    private long categoryLinks;
+    private List<Rejection> rejections = new ArrayList<>();
+
+    @Data
+    public static class Rejection {
+        private long row;
+        private String name;
+        private String reason;
+    }
+}
@@ -1,11 +1,13 @@
 package org.pronsky.data.entities;
 
 import lombok.Data;
+import org.pronsky.data.mapper.RowMapped;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 @Data
+@RowMapped
 public class OrderDetails {
     private Long id;
     private OrderStatus orderStatus;
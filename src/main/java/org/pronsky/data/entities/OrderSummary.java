@@ -0,0 +1,18 @@
+package org.pronsky.data.entities;
+
+import lombok.Data;
+import org.pronsky.data.mapper.RowMapped;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@RowMapped
+public class OrderSummary {
+    private Long id;
+    private OrderDetails.OrderStatus orderStatus;
+    private BigDecimal totalAmount;
+    private int itemCount;
+    private List<String> productNames = new ArrayList<>();
+}
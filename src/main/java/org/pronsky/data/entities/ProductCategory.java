@@ -1,10 +1,12 @@
 package org.pronsky.data.entities;
 
 import lombok.Data;
+import org.pronsky.data.mapper.RowMapped;
 
 import java.util.Set;
 
 @Data
+@RowMapped
 public class ProductCategory {
     private Long id;
     private String name;
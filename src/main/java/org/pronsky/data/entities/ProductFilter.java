@@ -0,0 +1,14 @@
+package org.pronsky.data.entities;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ProductFilter {
+    private String category;
+    private ProductCategory.CategoryType type;
+    private Boolean available;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
@@ -0,0 +1,45 @@
+package org.pronsky.data.mapper;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Positions of the mapped columns in one result set, resolved once from its {@link ResultSetMetaData}.
+ * Used by the generated row mappers so the read loop accesses columns by index instead of by label.
+ */
+public final class ColumnIndex {
+    private final ResultSetMetaData metaData;
+    private final int[] positions;
+
+    private ColumnIndex(ResultSetMetaData metaData, int[] positions) {
+        this.metaData = metaData;
+        this.positions = positions;
+    }
+
+    /**
+     * @param metaData The metadata of the result set.
+     * @param columns  The column labels in the order the mapper reads them.
+     * @return The positions of the columns, zero for columns the result set does not have.
+     */
+    public static ColumnIndex resolve(ResultSetMetaData metaData, String[] columns) throws SQLException {
+        Map<String, Integer> byLabel = new HashMap<>();
+        for (int i = metaData.getColumnCount(); i >= 1; i--) {
+            byLabel.put(metaData.getColumnLabel(i).toLowerCase(), i);
+        }
+        int[] positions = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            positions[i] = byLabel.getOrDefault(columns[i], 0);
+        }
+        return new ColumnIndex(metaData, positions);
+    }
+
+    public boolean isFor(ResultSetMetaData metaData) {
+        return this.metaData == metaData;
+    }
+
+    public int get(int column) {
+        return positions[column];
+    }
+}
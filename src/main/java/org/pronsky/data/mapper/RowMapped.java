@@ -0,0 +1,16 @@
+package org.pronsky.data.mapper;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an entity for which a {@link RowMapper} named {@code <Entity>RowMapper} is generated at compile time.
+ * Every non-static field that is not a collection is read from the column named after the field in snake case,
+ * for example {@code totalAmount} from {@code total_amount}. Columns missing from a result set are skipped.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface RowMapped {
+}
@@ -0,0 +1,13 @@
+package org.pronsky.data.mapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a result set to an entity.
+ *
+ * @param <T> The entity type.
+ */
+public interface RowMapper<T> {
+    T map(ResultSet resultSet) throws SQLException;
+}
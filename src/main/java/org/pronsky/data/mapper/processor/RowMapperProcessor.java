@@ -0,0 +1,188 @@
+package org.pronsky.data.mapper.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Entity>RowMapper} for every class annotated with {@code @RowMapped}.
+ * The generated mapper resolves the column positions once per result set metadata and reads every column by index
+ * with the getter matching the field type.
+ */
+@SupportedAnnotationTypes(RowMapperProcessor.ROW_MAPPED)
+public class RowMapperProcessor extends AbstractProcessor {
+    static final String ROW_MAPPED = "org.pronsky.data.mapper.RowMapped";
+    private static final String MAPPER_SUFFIX = "RowMapper";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement rowMapped = processingEnv.getElementUtils().getTypeElement(ROW_MAPPED);
+        if (rowMapped == null) {
+            return false;
+        }
+        for (Element element : roundEnv.getElementsAnnotatedWith(rowMapped)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "@RowMapped is only supported on classes", element);
+                continue;
+            }
+            try {
+                generate((TypeElement) element);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Unable to generate row mapper: " + e.getMessage(), element);
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement entity) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName().toString();
+        String entityName = entity.getSimpleName().toString();
+        String mapperName = entityName + MAPPER_SUFFIX;
+        List<VariableElement> fields = mappedFields(entity);
+
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(packageName).append(";\n\n")
+                .append("import org.pronsky.data.mapper.ColumnIndex;\n")
+                .append("import org.pronsky.data.mapper.RowMapper;\n\n")
+                .append("import javax.annotation.processing.Generated;\n")
+                .append("import java.sql.ResultSet;\n")
+                .append("import java.sql.ResultSetMetaData;\n")
+                .append("import java.sql.SQLException;\n\n")
+                .append("@Generated(\"").append(RowMapperProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(mapperName).append(" implements RowMapper<")
+                .append(entityName).append("> {\n")
+                .append("    private static final String[] COLUMNS = {");
+        for (int i = 0; i < fields.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append('"').append(columnName(fields.get(i))).append('"');
+        }
+        source.append("};\n")
+                .append("    private volatile ColumnIndex columnIndex;\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(entityName).append(" map(ResultSet resultSet) throws SQLException {\n")
+                .append("        ResultSetMetaData metaData = resultSet.getMetaData();\n")
+                .append("        ColumnIndex index = columnIndex;\n")
+                .append("        if (index == null || !index.isFor(metaData)) {\n")
+                .append("            index = ColumnIndex.resolve(metaData, COLUMNS);\n")
+                .append("            columnIndex = index;\n")
+                .append("        }\n")
+                .append("        ").append(entityName).append(" entity = new ").append(entityName).append("();\n")
+                .append("        int column;\n");
+        for (int i = 0; i < fields.size(); i++) {
+            source.append("        if ((column = index.get(").append(i).append(")) > 0) {\n")
+                    .append(readField(fields.get(i)))
+                    .append("        }\n");
+        }
+        source.append("        return entity;\n")
+                .append("    }\n")
+                .append("}\n");
+
+        try (Writer writer = processingEnv.getFiler()
+                .createSourceFile(packageName + "." + mapperName, entity).openWriter()) {
+            writer.write(source.toString());
+        }
+    }
+
+    private List<VariableElement> mappedFields(TypeElement entity) {
+        TypeMirror collection = processingEnv.getTypeUtils().erasure(
+                processingEnv.getElementUtils().getTypeElement("java.util.Collection").asType());
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+            Set<Modifier> modifiers = field.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+            if (processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(field.asType()),
+                    collection)) {
+                continue;
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private String readField(VariableElement field) {
+        String setter = "entity.set" + capitalize(field.getSimpleName().toString());
+        TypeMirror type = field.asType();
+        if (type.getKind().isPrimitive()) {
+            return "            " + setter + "(resultSet." + getter(type.toString()) + "(column));\n";
+        }
+        String typeName = processingEnv.getTypeUtils().erasure(type).toString();
+        String boxedGetter = switch (typeName) {
+            case "java.lang.Long" -> "getLong";
+            case "java.lang.Integer" -> "getInt";
+            case "java.lang.Short" -> "getShort";
+            case "java.lang.Double" -> "getDouble";
+            case "java.lang.Float" -> "getFloat";
+            case "java.lang.Boolean" -> "getBoolean";
+            default -> null;
+        };
+        if (boxedGetter != null) {
+            return "            " + simpleBoxed(typeName) + " value = resultSet." + boxedGetter + "(column);\n"
+                    + "            " + setter + "(resultSet.wasNull() ? null : value);\n";
+        }
+        if ("java.lang.String".equals(typeName)) {
+            return "            " + setter + "(resultSet.getString(column));\n";
+        }
+        if ("java.math.BigDecimal".equals(typeName)) {
+            return "            " + setter + "(resultSet.getBigDecimal(column));\n";
+        }
+        if (isEnum(type)) {
+            return "            String value = resultSet.getString(column);\n"
+                    + "            " + setter + "(value == null ? null : " + typeName + ".valueOf(value));\n";
+        }
+        return "            " + setter + "(resultSet.getObject(column, " + typeName + ".class));\n";
+    }
+
+    private boolean isEnum(TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+                && ((DeclaredType) type).asElement().getKind() == ElementKind.ENUM;
+    }
+
+    private static String getter(String primitive) {
+        return "get" + capitalize(primitive);
+    }
+
+    private static String simpleBoxed(String typeName) {
+        return typeName.substring(typeName.lastIndexOf('.') + 1);
+    }
+
+    private static String columnName(VariableElement field) {
+        String name = field.getSimpleName().toString();
+        StringBuilder column = new StringBuilder();
+        for (char c : name.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                column.append('_').append(Character.toLowerCase(c));
+            } else {
+                column.append(c);
+            }
+        }
+        return column.toString();
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+}
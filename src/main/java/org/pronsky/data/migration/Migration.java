@@ -0,0 +1,14 @@
+package org.pronsky.data.migration;
+
+import lombok.Data;
+
+/**
+ * One versioned schema migration script.
+ */
+@Data
+public class Migration {
+    private final int version;
+    private final String description;
+    private final String script;
+    private final long checksum;
+}
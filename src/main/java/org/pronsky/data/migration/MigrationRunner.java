@@ -0,0 +1,187 @@
+package org.pronsky.data.migration;
+
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.exceptions.MigrationException;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Applies the versioned migration scripts listed in {@code db/migration/migrations.txt} on the classpath.
+ * Scripts are named {@code V<version>__<description>.sql}. Each script runs in its own transaction together with
+ * its row in the {@code schema_history} table, so a failed script leaves no trace and is retried on the next start.
+ * The history keeps the checksum of every applied script; a script edited after it was applied stops the run.
+ * A PostgreSQL advisory lock keeps several application instances starting at once from migrating concurrently.
+ */
+@Log4j2
+public class MigrationRunner {
+    public static final String DEFAULT_LOCATION = "db/migration";
+    private static final String INDEX_FILE = "migrations.txt";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(\\w+)\\.sql");
+    private static final long LOCK_KEY = 0x52455354_4D494752L;
+    private static final String CREATE_HISTORY = "CREATE TABLE IF NOT EXISTS schema_history " +
+            "(version INTEGER PRIMARY KEY, description VARCHAR(200) NOT NULL, checksum BIGINT NOT NULL, " +
+            "installed_on TIMESTAMP NOT NULL DEFAULT now(), execution_time_ms BIGINT NOT NULL)";
+    private static final String FIND_APPLIED = "SELECT version, checksum FROM schema_history";
+    private static final String RECORD_APPLIED = "INSERT INTO schema_history " +
+            "(version, description, checksum, execution_time_ms) VALUES (?, ?, ?, ?)";
+    private static final String LOCK = "SELECT pg_advisory_lock(?)";
+    private static final String UNLOCK = "SELECT pg_advisory_unlock(?)";
+    private final DataSource dataSource;
+    private final String location;
+
+    public MigrationRunner(DataSource dataSource) {
+        this(dataSource, DEFAULT_LOCATION);
+    }
+
+    public MigrationRunner(DataSource dataSource, String location) {
+        this.dataSource = dataSource;
+        this.location = location;
+    }
+
+    /**
+     * Applies every migration that is not in the schema history yet, in version order.
+     *
+     * @return The number of applied migrations.
+     * @throws MigrationException If a script cannot be read or fails, or an applied script has changed.
+     */
+    public int migrate() {
+        List<Migration> migrations = loadMigrations(location);
+        try (Connection connection = dataSource.getConnection()) {
+            lock(connection, LOCK);
+            try {
+                return apply(connection, migrations);
+            } finally {
+                lock(connection, UNLOCK);
+            }
+        } catch (SQLException e) {
+            log.error(e.getMessage(), e);
+            throw new MigrationException("Unable to migrate database schema", e);
+        }
+    }
+
+    private int apply(Connection connection, List<Migration> migrations) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_HISTORY);
+        }
+        Map<Integer, Long> applied = findApplied(connection);
+        int count = 0;
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.getVersion());
+            if (checksum != null) {
+                if (checksum != migration.getChecksum()) {
+                    throw new MigrationException("Migration V" + migration.getVersion() + " was changed after it " +
+                            "was applied, expected checksum " + checksum + " but was " + migration.getChecksum());
+                }
+                continue;
+            }
+            applyOne(connection, migration);
+            count++;
+        }
+        log.info("Database schema is up to date, applied " + count + " migration(s)");
+        return count;
+    }
+
+    private void applyOne(Connection connection, Migration migration) throws SQLException {
+        log.info("Applying migration V" + migration.getVersion() + " " + migration.getDescription());
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement();
+             PreparedStatement record = connection.prepareStatement(RECORD_APPLIED)) {
+            statement.execute(migration.getScript());
+            record.setInt(1, migration.getVersion());
+            record.setString(2, migration.getDescription());
+            record.setLong(3, migration.getChecksum());
+            record.setLong(4, (System.nanoTime() - start) / 1_000_000);
+            record.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new MigrationException("Migration V" + migration.getVersion() + " failed", e);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private Map<Integer, Long> findApplied(Connection connection) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(FIND_APPLIED)) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt("version"), resultSet.getLong("checksum"));
+            }
+        }
+        return applied;
+    }
+
+    private void lock(Connection connection, String query) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setLong(1, LOCK_KEY);
+            statement.execute();
+        }
+    }
+
+    /**
+     * Reads the scripts listed in the index file of the location, ordered by version.
+     *
+     * @param location The classpath directory holding the index file and the scripts.
+     * @return The migrations with their checksums.
+     * @throws MigrationException If the index or a script is missing, misnamed or a version is listed twice.
+     */
+    static List<Migration> loadMigrations(String location) {
+        List<Migration> migrations = new ArrayList<>();
+        List<String> names = readResource(location + "/" + INDEX_FILE).lines()
+                .map(String::strip)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .toList();
+        for (String name : names) {
+            Matcher matcher = SCRIPT_NAME.matcher(name);
+            if (!matcher.matches()) {
+                throw new MigrationException("Invalid migration name : " + name);
+            }
+            String script = readResource(location + "/" + name);
+            migrations.add(new Migration(Integer.parseInt(matcher.group(1)), matcher.group(2).replace('_', ' '),
+                    script, checksum(script)));
+        }
+        migrations.sort(Comparator.comparingInt(Migration::getVersion));
+        for (int i = 1; i < migrations.size(); i++) {
+            if (migrations.get(i).getVersion() == migrations.get(i - 1).getVersion()) {
+                throw new MigrationException("Duplicate migration version : " + migrations.get(i).getVersion());
+            }
+        }
+        return migrations;
+    }
+
+    private static long checksum(String script) {
+        CRC32 crc = new CRC32();
+        crc.update(script.getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+
+    private static String readResource(String resource) {
+        try (InputStream input = MigrationRunner.class.getClassLoader().getResourceAsStream(resource)) {
+            if (input == null) {
+                throw new MigrationException("Migration resource not found : " + resource);
+            }
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new MigrationException("Unable to read migration resource : " + resource, e);
+        }
+    }
+}
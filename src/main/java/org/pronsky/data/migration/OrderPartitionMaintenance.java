@@ -0,0 +1,117 @@
+package org.pronsky.data.migration;
+
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.entities.OrderDetails.OrderStatus;
+import org.pronsky.data.reference.ReferenceData;
+import org.pronsky.exceptions.UnableToUpdateException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduled upkeep of the partitioned {@code order_details} table.
+ * Every run creates the monthly partitions of current orders ahead of time, so new orders never land in the default
+ * partition, and moves COMPLETED and CANCELLED orders older than the configured age to the archive partition.
+ * Archived orders leave the order summary; they stay readable by ID and by creation time.
+ */
+@Log4j2
+public class OrderPartitionMaintenance implements AutoCloseable {
+    private static final String CREATE_PARTITIONS = "SELECT create_order_partitions(?)";
+    static final String ARCHIVE_CLOSED_ORDERS = "WITH archived AS (" +
+            "UPDATE order_details SET archived = true " +
+            "WHERE NOT archived AND status_id = ANY(?) AND created_at < ? RETURNING id), " +
+            "dropped AS (DELETE FROM order_summary s USING archived a WHERE s.order_details_id = a.id) " +
+            "SELECT count(*) FROM archived";
+    private final ConnectionUtil connectionUtil;
+    private final ReferenceData referenceData;
+    private final int monthsAhead;
+    private final Duration archiveAfter;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "order-partition-maintenance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public OrderPartitionMaintenance(ConnectionUtil connectionUtil, ReferenceData referenceData, int monthsAhead,
+                                     Duration archiveAfter) {
+        this.connectionUtil = connectionUtil;
+        this.referenceData = referenceData;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfter = archiveAfter;
+    }
+
+    /**
+     * Runs the maintenance right away and then with the given delay between the end of a run and the next one.
+     *
+     * @param periodMillis The delay between runs in milliseconds.
+     */
+    public void start(long periodMillis) {
+        scheduler.scheduleWithFixedDelay(this::runSafely, 0, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates the monthly partitions of current orders up to the configured number of months ahead.
+     *
+     * @return The number of partitions created.
+     * @throws UnableToUpdateException If the partitions can not be created.
+     */
+    public int createPartitions() {
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(CREATE_PARTITIONS)) {
+            statement.setInt(1, monthsAhead);
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getInt(1);
+        } catch (SQLException e) {
+            throw new UnableToUpdateException(e);
+        }
+    }
+
+    /**
+     * Moves the COMPLETED and CANCELLED orders created before the configured age to the archive partition and drops
+     * their summary rows, in one statement.
+     *
+     * @param now The current time the age is counted from.
+     * @return The number of archived orders.
+     * @throws UnableToUpdateException If the orders can not be archived.
+     */
+    public int archiveClosedOrders(Instant now) {
+        try (Connection connection = connectionUtil.getConnection();
+             PreparedStatement statement = connection.prepareStatement(ARCHIVE_CLOSED_ORDERS)) {
+            Object[] closedStatusIds = {referenceData.idOf(OrderStatus.COMPLETED),
+                    referenceData.idOf(OrderStatus.CANCELLED)};
+            statement.setArray(1, connection.createArrayOf("bigint", closedStatusIds));
+            statement.setTimestamp(2, Timestamp.from(now.minus(archiveAfter)));
+            ResultSet resultSet = statement.executeQuery();
+            resultSet.next();
+            return resultSet.getInt(1);
+        } catch (SQLException e) {
+            throw new UnableToUpdateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void runSafely() {
+        try {
+            int created = createPartitions();
+            int archived = archiveClosedOrders(Instant.now());
+            log.info("Order partition maintenance : " + created + " partition(s) created, "
+                    + archived + " order(s) archived");
+        } catch (RuntimeException e) {
+            log.error("Order partition maintenance failed", e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package org.pronsky.data.reference;
+
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.entities.OrderDetails.OrderStatus;
+import org.pronsky.data.entities.ProductCategory.CategoryType;
+import org.pronsky.exceptions.ReferenceDataException;
+
+import java.lang.reflect.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of the {@code order_statuses} and {@code category_types} rows, read once and kept in memory.
+ * IDs map to enum constants through arrays indexed by ID, and constants map to IDs through arrays indexed
+ * by ordinal, so DAOs need neither a join to read a status or type nor an assumption about the IDs to write one.
+ * Loading fails unless the rows and the enums agree name for name.
+ */
+@Log4j2
+public final class ReferenceData {
+    private static final String FIND_ORDER_STATUSES = "SELECT id, name FROM order_statuses";
+    private static final String FIND_CATEGORY_TYPES = "SELECT id, name FROM category_types";
+    private static volatile ReferenceData instance;
+    private final OrderStatus[] statusesById;
+    private final long[] statusIds;
+    private final CategoryType[] typesById;
+    private final long[] typeIds;
+
+    private ReferenceData(Map<Long, OrderStatus> statuses, Map<Long, CategoryType> types) {
+        List<String> mismatches = new ArrayList<>();
+        statusesById = byId(statuses, OrderStatus.class);
+        statusIds = idsByOrdinal(statuses, OrderStatus.values(), "order_statuses", mismatches);
+        typesById = byId(types, CategoryType.class);
+        typeIds = idsByOrdinal(types, CategoryType.values(), "category_types", mismatches);
+        if (!mismatches.isEmpty()) {
+            throw new ReferenceDataException("Reference data does not match the enums : " + mismatches);
+        }
+    }
+
+    /**
+     * Returns the application-wide registry, loading it from the primary database on first use.
+     */
+    public static ReferenceData getInstance() {
+        ReferenceData loaded = instance;
+        if (loaded == null) {
+            synchronized (ReferenceData.class) {
+                loaded = instance;
+                if (loaded == null) {
+                    loaded = load(new ConnectionUtil());
+                    instance = loaded;
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Reads and validates the reference rows.
+     *
+     * @param connectionUtil The source of the connection to read with.
+     * @return The loaded registry.
+     * @throws ReferenceDataException If the rows cannot be read or do not match the enums.
+     */
+    public static ReferenceData load(ConnectionUtil connectionUtil) {
+        try (Connection connection = connectionUtil.getConnection()) {
+            ReferenceData referenceData = new ReferenceData(readRows(connection, FIND_ORDER_STATUSES, OrderStatus.class),
+                    readRows(connection, FIND_CATEGORY_TYPES, CategoryType.class));
+            log.info("Loaded reference data for " + OrderStatus.values().length + " order statuses and "
+                    + CategoryType.values().length + " category types");
+            return referenceData;
+        } catch (SQLException e) {
+            throw new ReferenceDataException("Unable to load reference data", e);
+        }
+    }
+
+    /**
+     * Builds a registry from known rows.
+     *
+     * @param statuses The order statuses keyed by ID.
+     * @param types    The category types keyed by ID.
+     * @return The registry.
+     * @throws ReferenceDataException If the rows do not cover every enum constant exactly once.
+     */
+    public static ReferenceData of(Map<Long, OrderStatus> statuses, Map<Long, CategoryType> types) {
+        return new ReferenceData(statuses, types);
+    }
+
+    /**
+     * @throws ReferenceDataException If no order status has the ID.
+     */
+    public OrderStatus orderStatus(long id) {
+        return lookup(statusesById, id, "order status");
+    }
+
+    public long idOf(OrderStatus status) {
+        return statusIds[status.ordinal()];
+    }
+
+    /**
+     * @throws ReferenceDataException If no category type has the ID.
+     */
+    public CategoryType categoryType(long id) {
+        return lookup(typesById, id, "category type");
+    }
+
+    public long idOf(CategoryType type) {
+        return typeIds[type.ordinal()];
+    }
+
+    private static <E extends Enum<E>> E lookup(E[] byId, long id, String kind) {
+        E value = id >= 0 && id < byId.length ? byId[(int) id] : null;
+        if (value == null) {
+            throw new ReferenceDataException("Unknown " + kind + " ID : " + id);
+        }
+        return value;
+    }
+
+    private static <E extends Enum<E>> Map<Long, E> readRows(Connection connection, String query, Class<E> type)
+            throws SQLException {
+        Map<Long, E> rows = new LinkedHashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(query);
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                String name = resultSet.getString("name");
+                E value = Arrays.stream(type.getEnumConstants())
+                        .filter(constant -> constant.name().equals(name))
+                        .findFirst()
+                        .orElseThrow(() -> new ReferenceDataException("No " + type.getSimpleName()
+                                + " constant for the row " + name));
+                rows.put(resultSet.getLong("id"), value);
+            }
+        }
+        return rows;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Enum<E>> E[] byId(Map<Long, E> rows, Class<E> type) {
+        long maxId = rows.keySet().stream().mapToLong(Long::longValue).max().orElse(0);
+        if (maxId > Integer.MAX_VALUE - 1) {
+            throw new ReferenceDataException("Reference data ID out of range : " + maxId);
+        }
+        E[] byId = (E[]) Array.newInstance(type, (int) maxId + 1);
+        rows.forEach((id, value) -> byId[id.intValue()] = value);
+        return byId;
+    }
+
+    private static <E extends Enum<E>> long[] idsByOrdinal(Map<Long, E> rows, E[] constants, String table,
+                                                           List<String> mismatches) {
+        long[] ids = new long[constants.length];
+        Arrays.fill(ids, -1);
+        rows.forEach((id, value) -> {
+            if (ids[value.ordinal()] != -1) {
+                mismatches.add(table + " has " + value + " twice");
+            }
+            ids[value.ordinal()] = id;
+        });
+        for (E constant : constants) {
+            if (ids[constant.ordinal()] == -1) {
+                mismatches.add(table + " has no row for " + constant);
+            }
+        }
+        return ids;
+    }
+}
@@ -1,5 +1,6 @@
 package org.pronsky.data.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface AbstractRepository<K, T> {
@@ -7,6 +8,8 @@ public interface AbstractRepository<K, T> {
 
     List<T> findAll();
 
+    List<T> findByIds(Collection<K> ids);
+
     T save(T entity);
 
     void delete(K id);
@@ -0,0 +1,18 @@
+package org.pronsky.data.repository;
+
+/**
+ * How much of the order graph a read loads. Associations left out of the plan are never queried.
+ */
+public enum FetchPlan {
+    ORDER,
+    PRODUCTS,
+    PRODUCTS_WITH_CATEGORIES;
+
+    public boolean includesProducts() {
+        return this != ORDER;
+    }
+
+    public boolean includesCategories() {
+        return this == PRODUCTS_WITH_CATEGORIES;
+    }
+}
@@ -2,6 +2,23 @@ package org.pronsky.data.repository;
 
 import org.pronsky.data.entities.OrderDetails;
 
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 public interface OrderDetailRepository extends AbstractRepository<Long, OrderDetails> {
+    OrderDetails findById(Long id, FetchPlan plan);
+
+    List<OrderDetails> findAll(FetchPlan plan);
+
+    List<OrderDetails> findByIds(Collection<Long> ids, FetchPlan plan);
+
+    List<OrderDetails> findPage(long afterId, int limit);
+
+    List<OrderDetails> findPage(long afterId, int limit, FetchPlan plan);
+
+    List<OrderDetails> findPageCreatedBetween(Instant from, Instant to, long afterId, int limit, FetchPlan plan);
 
+    void writeAllAsJson(Writer writer);
 }
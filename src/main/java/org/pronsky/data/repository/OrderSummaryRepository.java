@@ -0,0 +1,13 @@
+package org.pronsky.data.repository;
+
+import org.pronsky.data.entities.OrderSummary;
+
+import java.util.List;
+
+public interface OrderSummaryRepository {
+    List<OrderSummary> findAll();
+
+    List<OrderSummary> findPage(long afterId, int limit);
+
+    int rebuild();
+}
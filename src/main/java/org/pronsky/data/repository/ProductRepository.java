@@ -1,7 +1,22 @@
 package org.pronsky.data.repository;
 
+import org.pronsky.data.entities.FacetedProducts;
+import org.pronsky.data.entities.ImportReport;
 import org.pronsky.data.entities.Product;
+import org.pronsky.data.entities.ProductFilter;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
 
 public interface ProductRepository extends AbstractRepository<Long, Product> {
+    List<Product> findPage(long afterId, int limit);
+
+    FacetedProducts findByFilter(ProductFilter filter);
+
+    List<Product> searchByName(String query, int limit);
+
+    ImportReport importCsv(Reader csv);
 
+    void writeAllAsJson(Writer writer);
 }
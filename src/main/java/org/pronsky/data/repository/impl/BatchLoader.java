@@ -0,0 +1,79 @@
+package org.pronsky.data.repository.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces lookups by key into batched queries.
+ * Keys requested with {@link #load(Object)} are queued and deduplicated; {@link #dispatch()} resolves every queued
+ * key with one call to the batch function and completes the returned futures on the calling thread.
+ * Resolved keys are remembered, so asking for the same key again does not reach the database.
+ * A loader is meant to live for a single repository call and is not thread-safe.
+ *
+ * @param <K> The key type.
+ * @param <V> The value type.
+ */
+final class BatchLoader<K, V> {
+    private final Function<Collection<K>, Map<K, V>> batchFunction;
+    private final Supplier<V> missingValue;
+    private final Map<K, CompletableFuture<V>> loaded = new HashMap<>();
+    private final Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    /**
+     * @param batchFunction Loads the values of several keys at once. Keys without a value may be left out.
+     * @param missingValue  Supplies the value of a key the batch function did not return.
+     */
+    BatchLoader(Function<Collection<K>, Map<K, V>> batchFunction, Supplier<V> missingValue) {
+        this.batchFunction = batchFunction;
+        this.missingValue = missingValue;
+    }
+
+    /**
+     * Queues a key for the next dispatch.
+     *
+     * @param key The key to load.
+     * @return A future completed with the value of the key once it is dispatched.
+     */
+    CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future = loaded.get(key);
+        if (future != null) {
+            return future;
+        }
+        return pending.computeIfAbsent(key, k -> new CompletableFuture<>());
+    }
+
+    /**
+     * Loads all queued keys with a single call to the batch function.
+     * Keys queued by callbacks of the completed futures are loaded by a further call, so a dispatch returns
+     * only when no key is left in the queue.
+     *
+     * @throws RuntimeException The exception of the batch function. The pending futures fail with it as well.
+     */
+    void dispatch() {
+        while (!pending.isEmpty()) {
+            Map<K, CompletableFuture<V>> batch = new LinkedHashMap<>(pending);
+            pending.clear();
+            loaded.putAll(batch);
+            List<K> keys = new ArrayList<>(batch.keySet());
+            Map<K, V> values;
+            try {
+                values = batchFunction.apply(keys);
+            } catch (RuntimeException e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+                keys.forEach(loaded::remove);
+                throw e;
+            }
+            batch.forEach((key, future) -> {
+                V value = values.get(key);
+                future.complete(value != null ? value : missingValue.get());
+            });
+        }
+    }
+}
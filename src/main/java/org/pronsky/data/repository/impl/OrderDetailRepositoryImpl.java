@@ -2,14 +2,23 @@ package org.pronsky.data.repository.impl;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.UnitOfWork;
 import org.pronsky.data.dao.OrderDetailsDAO;
 import org.pronsky.data.dao.ProductCategoryDAO;
 import org.pronsky.data.dao.ProductDAO;
 import org.pronsky.data.entities.OrderDetails;
 import org.pronsky.data.entities.Product;
+import org.pronsky.data.entities.ProductCategory;
+import org.pronsky.data.repository.FetchPlan;
 import org.pronsky.data.repository.OrderDetailRepository;
 
+import java.io.Writer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Implementation of the OrderDetailRepository interface.
@@ -24,64 +33,213 @@ public class OrderDetailRepositoryImpl implements OrderDetailRepository {
     private final ProductCategoryDAO productCategoryDAO;
 
     /**
-     * Finds an OrderDetails instance by its ID.
+     * Finds an OrderDetails instance by its ID with its products and their categories in three queries.
      *
      * @param id the ID of the OrderDetails instance to find
      * @return the found OrderDetails instance
      */
     @Override
     public OrderDetails findById(Long id) {
-        OrderDetails orderDetails = orderDetailsDAO.getById(id);
-        List<Product> products = productDAO.getAllByOrderId(id);
-        products.forEach(product -> product.setProductCategories(productCategoryDAO.getAllByProductId(product.getId())));
-        orderDetails.setProducts(products);
+        return findById(id, FetchPlan.PRODUCTS_WITH_CATEGORIES);
+    }
+
+    /**
+     * Finds an OrderDetails instance by its ID with the associations of the fetch plan.
+     *
+     * @param id   the ID of the OrderDetails instance to find
+     * @param plan the associations to load, the others are left null
+     * @return the found OrderDetails instance
+     */
+    @Override
+    public OrderDetails findById(Long id, FetchPlan plan) {
+        OrderDetails orderDetails = UnitOfWork.readOnly(() -> {
+            OrderDetails details = orderDetailsDAO.getById(id);
+            loadGraph(List.of(details), plan);
+            return details;
+        });
         log.debug("OrderDetailRepositoryImpl: got order details: " + orderDetails);
         return orderDetails;
     }
 
     /**
-     * Finds all OrderDetails instances.
+     * Finds all OrderDetails instances with their products and the products' categories in three queries.
      *
      * @return a list of all OrderDetails instances
      */
     @Override
     public List<OrderDetails> findAll() {
-        List<OrderDetails> detailsList = orderDetailsDAO.getAll();
-        detailsList.forEach(orderDetails -> {
-            List<Product> products = productDAO.getAllByOrderId(orderDetails.getId());
-            products.forEach(product -> product.setProductCategories(productCategoryDAO.getAllByProductId(product.getId())));
-            orderDetails.setProducts(products);
+        return findAll(FetchPlan.PRODUCTS_WITH_CATEGORIES);
+    }
+
+    /**
+     * Finds all OrderDetails instances with the associations of the fetch plan.
+     *
+     * @param plan the associations to load, the others are left null
+     * @return a list of all OrderDetails instances
+     */
+    @Override
+    public List<OrderDetails> findAll(FetchPlan plan) {
+        List<OrderDetails> detailsList = UnitOfWork.readOnly(() -> {
+            List<OrderDetails> all = orderDetailsDAO.getAll();
+            loadGraph(all, plan);
+            return all;
         });
         log.debug("OrderDetailRepositoryImpl: got order details: " + detailsList);
         return detailsList;
     }
 
     /**
-     * Saves an OrderDetails instance.
+     * Finds the OrderDetails instances with the given IDs with their products and the products' categories
+     * in three queries.
+     *
+     * @param ids the IDs of the OrderDetails instances to find
+     * @return the found OrderDetails instances, IDs without order details are skipped
+     */
+    @Override
+    public List<OrderDetails> findByIds(Collection<Long> ids) {
+        return findByIds(ids, FetchPlan.PRODUCTS_WITH_CATEGORIES);
+    }
+
+    /**
+     * Finds the OrderDetails instances with the given IDs with the associations of the fetch plan.
+     *
+     * @param ids  the IDs of the OrderDetails instances to find
+     * @param plan the associations to load, the others are left null
+     * @return the found OrderDetails instances, IDs without order details are skipped
+     */
+    @Override
+    public List<OrderDetails> findByIds(Collection<Long> ids, FetchPlan plan) {
+        List<OrderDetails> detailsList = UnitOfWork.readOnly(() -> {
+            List<OrderDetails> found = orderDetailsDAO.getByIds(ids);
+            loadGraph(found, plan);
+            return found;
+        });
+        log.debug("OrderDetailRepositoryImpl: got order details: " + detailsList);
+        return detailsList;
+    }
+
+    /**
+     * Finds one page of OrderDetails instances ordered by ID with their products and the products' categories
+     * in three queries.
+     *
+     * @param afterId the ID of the last OrderDetails instance of the previous page, or 0 for the first page
+     * @param limit   the maximum number of OrderDetails instances to return
+     * @return the OrderDetails instances of the page
+     */
+    @Override
+    public List<OrderDetails> findPage(long afterId, int limit) {
+        return findPage(afterId, limit, FetchPlan.PRODUCTS_WITH_CATEGORIES);
+    }
+
+    /**
+     * Finds one page of OrderDetails instances ordered by ID with the associations of the fetch plan.
+     *
+     * @param afterId the ID of the last OrderDetails instance of the previous page, or 0 for the first page
+     * @param limit   the maximum number of OrderDetails instances to return
+     * @param plan    the associations to load, the others are left null
+     * @return the OrderDetails instances of the page
+     */
+    @Override
+    public List<OrderDetails> findPage(long afterId, int limit, FetchPlan plan) {
+        List<OrderDetails> detailsList = UnitOfWork.readOnly(() -> {
+            List<OrderDetails> page = orderDetailsDAO.getPage(afterId, limit);
+            loadGraph(page, plan);
+            return page;
+        });
+        log.debug("OrderDetailRepositoryImpl: got order details page: " + detailsList);
+        return detailsList;
+    }
+
+    /**
+     * Finds one page of OrderDetails instances created in the given time range, archived ones included, ordered by ID
+     * with the associations of the fetch plan.
+     *
+     * @param from    the inclusive start of the range, or null for no lower bound
+     * @param to      the exclusive end of the range, or null for no upper bound
+     * @param afterId the ID of the last OrderDetails instance of the previous page, or 0 for the first page
+     * @param limit   the maximum number of OrderDetails instances to return
+     * @param plan    the associations to load, the others are left null
+     * @return the OrderDetails instances of the page
+     */
+    @Override
+    public List<OrderDetails> findPageCreatedBetween(Instant from, Instant to, long afterId, int limit,
+                                                     FetchPlan plan) {
+        List<OrderDetails> detailsList = UnitOfWork.readOnly(() -> {
+            List<OrderDetails> page = orderDetailsDAO.getPageCreatedBetween(from, to, afterId, limit);
+            loadGraph(page, plan);
+            return page;
+        });
+        log.debug("OrderDetailRepositoryImpl: got order details created between " + from + " and " + to + ": "
+                + detailsList);
+        return detailsList;
+    }
+
+    /**
+     * Writes all OrderDetails instances with their products and the products' categories to the writer
+     * as JSON built by the database.
+     *
+     * @param writer the writer receiving the JSON array
+     */
+    @Override
+    public void writeAllAsJson(Writer writer) {
+        UnitOfWork.readOnly(() -> {
+            orderDetailsDAO.writeAllAsJson(writer);
+            return null;
+        });
+        log.debug("OrderDetailRepositoryImpl: wrote order details as JSON");
+    }
+
+    /**
+     * Saves an OrderDetails instance in a single transaction.
      *
      * @param orderDetails the OrderDetails instance to save
      * @return the saved OrderDetails instance
      */
     @Override
     public OrderDetails save(OrderDetails orderDetails) {
-        OrderDetails saved;
-        if (orderDetails.getId() == null) {
-            saved = orderDetailsDAO.create(orderDetails);
-        } else {
-            saved = orderDetailsDAO.update(orderDetails);
-        }
+        OrderDetails saved = UnitOfWork.execute(() -> {
+            if (orderDetails.getId() == null) {
+                return orderDetailsDAO.create(orderDetails);
+            }
+            return orderDetailsDAO.update(orderDetails);
+        });
         log.debug("OrderDetailRepositoryImpl: saved order details: " + saved);
         return saved;
     }
 
     /**
-     * Deletes an OrderDetails instance by its ID.
+     * Deletes an OrderDetails instance by its ID in a single transaction.
      *
      * @param id the ID of the OrderDetails instance to delete
      */
     @Override
     public void delete(Long id) {
-        orderDetailsDAO.deleteById(id);
+        UnitOfWork.run(() -> orderDetailsDAO.deleteById(id));
         log.debug("OrderDetailRepositoryImpl: deleted order details: " + id);
     }
+
+    /**
+     * Loads the products of all given orders with one query and the categories of all those products with another,
+     * skipping the queries the fetch plan leaves out.
+     * The loaders deduplicate the keys, so a product shared by several orders is looked up once. Nothing is loaded
+     * when the DAO reads the products with the orders.
+     */
+    private void loadGraph(List<OrderDetails> orders, FetchPlan plan) {
+        if (!plan.includesProducts() || orderDetailsDAO.readsProducts()) {
+            return;
+        }
+        BatchLoader<Long, List<Product>> productLoader =
+                new BatchLoader<>(productDAO::getAllByOrderIds, ArrayList::new);
+        BatchLoader<Long, Set<ProductCategory>> categoryLoader =
+                new BatchLoader<>(productCategoryDAO::getAllByProductIds, HashSet::new);
+        orders.forEach(order -> productLoader.load(order.getId()).thenAccept(products -> {
+            order.setProducts(products);
+            if (plan.includesCategories()) {
+                products.forEach(product ->
+                        categoryLoader.load(product.getId()).thenAccept(product::setProductCategories));
+            }
+        }));
+        productLoader.dispatch();
+        categoryLoader.dispatch();
+    }
 }
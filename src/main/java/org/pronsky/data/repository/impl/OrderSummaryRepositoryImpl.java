@@ -0,0 +1,57 @@
+package org.pronsky.data.repository.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.UnitOfWork;
+import org.pronsky.data.dao.OrderSummaryDAO;
+import org.pronsky.data.entities.OrderSummary;
+import org.pronsky.data.repository.OrderSummaryRepository;
+
+import java.util.List;
+
+/**
+ * Implementation of the OrderSummaryRepository interface.
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class OrderSummaryRepositoryImpl implements OrderSummaryRepository {
+    private final OrderSummaryDAO orderSummaryDAO;
+
+    /**
+     * Finds the summaries of all orders with a single scan of the read model.
+     *
+     * @return a list of all OrderSummary instances ordered by order ID
+     */
+    @Override
+    public List<OrderSummary> findAll() {
+        List<OrderSummary> summaries = UnitOfWork.readOnly(orderSummaryDAO::getAll);
+        log.debug("OrderSummaryRepositoryImpl: got order summaries: " + summaries.size());
+        return summaries;
+    }
+
+    /**
+     * Finds one page of order summaries ordered by order ID.
+     *
+     * @param afterId the ID of the last order of the previous page, or 0 for the first page
+     * @param limit   the maximum number of OrderSummary instances to return
+     * @return the OrderSummary instances of the page
+     */
+    @Override
+    public List<OrderSummary> findPage(long afterId, int limit) {
+        List<OrderSummary> summaries = UnitOfWork.readOnly(() -> orderSummaryDAO.getPage(afterId, limit));
+        log.debug("OrderSummaryRepositoryImpl: got order summaries page: " + summaries.size());
+        return summaries;
+    }
+
+    /**
+     * Recomputes the whole read model from the order tables in a single transaction.
+     *
+     * @return the number of rebuilt OrderSummary instances
+     */
+    @Override
+    public int rebuild() {
+        int rebuilt = UnitOfWork.execute(orderSummaryDAO::rebuild);
+        log.debug("OrderSummaryRepositoryImpl: rebuilt order summaries: " + rebuilt);
+        return rebuilt;
+    }
+}
@@ -0,0 +1,250 @@
+package org.pronsky.data.repository.impl;
+
+import org.pronsky.data.entities.FacetedProducts;
+import org.pronsky.data.entities.Product;
+import org.pronsky.data.entities.ProductCategory;
+import org.pronsky.data.entities.ProductCategory.CategoryType;
+import org.pronsky.data.entities.ProductFilter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory facet index over all products.
+ * Every product owns a dense slot number. Each category name, each category type and the availability flag keep a
+ * bitmap of slots, and prices map to slot bitmaps in a sorted map, so a filter is answered by intersecting bitmaps
+ * and facet counts are bitmap cardinalities.
+ * The index is built from the database on first use and then kept current by {@link #put(Product)} and
+ * {@link #remove(Long)}. Slots of removed products are reused, so the bitmaps stay as dense as the product table.
+ */
+final class ProductFacetIndex {
+    private static final BitSet NONE = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotsById = new HashMap<>();
+    private final List<Product> productsBySlot = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final BitSet available = new BitSet();
+    private final Map<String, BitSet> byCategory = new HashMap<>();
+    private final Map<CategoryType, BitSet> byType = new EnumMap<>(CategoryType.class);
+    private final NavigableMap<BigDecimal, BitSet> byPrice = new TreeMap<>();
+    private volatile boolean built;
+
+    boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Builds the index from the loaded products unless it is already built.
+     * Updates wait while the products are loaded, so none of them is lost.
+     *
+     * @param loader Loads all products with their categories.
+     */
+    void ensureBuilt(Supplier<List<Product>> loader) {
+        if (built) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                clear();
+                loader.get().forEach(this::index);
+                built = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the indexed products, the next filter rebuilds the index from the database.
+     */
+    void invalidate() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a product or replaces the indexed state of a product with the same ID.
+     *
+     * @param product The product with its categories.
+     */
+    void put(Product product) {
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                index(product);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id The ID of the product to remove.
+     */
+    void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotsById.remove(id);
+            if (slot != null) {
+                unindex(slot);
+                productsBySlot.set(slot, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param filter The filter, unset criteria match every product.
+     * @return The matching products ordered by ID with category, type and availability counts over them.
+     */
+    FacetedProducts filter(ProductFilter filter) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+            if (filter.getCategory() != null) {
+                matches.and(byCategory.getOrDefault(filter.getCategory(), NONE));
+            }
+            if (filter.getType() != null) {
+                matches.and(byType.getOrDefault(filter.getType(), NONE));
+            }
+            if (Boolean.TRUE.equals(filter.getAvailable())) {
+                matches.and(available);
+            } else if (Boolean.FALSE.equals(filter.getAvailable())) {
+                matches.andNot(available);
+            }
+            if (filter.getMinPrice() != null || filter.getMaxPrice() != null) {
+                matches.and(priceRange(filter.getMinPrice(), filter.getMaxPrice()));
+            }
+            return collect(matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private FacetedProducts collect(BitSet matches) {
+        FacetedProducts result = new FacetedProducts();
+        matches.stream()
+                .mapToObj(productsBySlot::get)
+                .sorted(Comparator.comparing(Product::getId))
+                .forEach(result.getProducts()::add);
+        byCategory.forEach((name, slots) -> count(result.getCategoryCounts(), name, slots, matches));
+        byType.forEach((type, slots) -> count(result.getTypeCounts(), type.name(), slots, matches));
+        int availableCount = count(result.getAvailabilityCounts(), Boolean.TRUE.toString(), available, matches);
+        int unavailableCount = matches.cardinality() - availableCount;
+        if (unavailableCount > 0) {
+            result.getAvailabilityCounts().put(Boolean.FALSE.toString(), unavailableCount);
+        }
+        return result;
+    }
+
+    private int count(Map<String, Integer> counts, String key, BitSet slots, BitSet matches) {
+        BitSet intersection = (BitSet) slots.clone();
+        intersection.and(matches);
+        int cardinality = intersection.cardinality();
+        if (cardinality > 0) {
+            counts.put(key, cardinality);
+        }
+        return cardinality;
+    }
+
+    private BitSet priceRange(BigDecimal minPrice, BigDecimal maxPrice) {
+        NavigableMap<BigDecimal, BitSet> range = byPrice;
+        if (minPrice != null) {
+            range = range.tailMap(minPrice, true);
+        }
+        if (maxPrice != null) {
+            range = range.headMap(maxPrice, true);
+        }
+        BitSet slots = new BitSet();
+        range.values().forEach(slots::or);
+        return slots;
+    }
+
+    private void index(Product product) {
+        Integer existing = slotsById.get(product.getId());
+        if (existing != null) {
+            unindex(existing);
+        }
+        int slot = existing != null ? existing : nextFreeSlot();
+        slotsById.put(product.getId(), slot);
+        productsBySlot.set(slot, product);
+        live.set(slot);
+        if (product.isAvailable()) {
+            available.set(slot);
+        }
+        if (product.getPrice() != null) {
+            byPrice.computeIfAbsent(product.getPrice(), price -> new BitSet()).set(slot);
+        }
+        if (product.getProductCategories() != null) {
+            for (ProductCategory category : product.getProductCategories()) {
+                byCategory.computeIfAbsent(category.getName(), name -> new BitSet()).set(slot);
+                if (category.getTypes() != null) {
+                    category.getTypes().forEach(type -> byType.computeIfAbsent(type, t -> new BitSet()).set(slot));
+                }
+            }
+        }
+    }
+
+    private void unindex(int slot) {
+        Product product = productsBySlot.get(slot);
+        live.clear(slot);
+        available.clear(slot);
+        if (product.getPrice() != null) {
+            clear(byPrice, product.getPrice(), slot);
+        }
+        if (product.getProductCategories() != null) {
+            for (ProductCategory category : product.getProductCategories()) {
+                clear(byCategory, category.getName(), slot);
+                if (category.getTypes() != null) {
+                    category.getTypes().forEach(type -> clear(byType, type, slot));
+                }
+            }
+        }
+    }
+
+    private <K> void clear(Map<K, BitSet> bitmaps, K key, int slot) {
+        BitSet slots = bitmaps.get(key);
+        if (slots != null) {
+            slots.clear(slot);
+            if (slots.isEmpty()) {
+                bitmaps.remove(key);
+            }
+        }
+    }
+
+    private int nextFreeSlot() {
+        int slot = live.nextClearBit(0);
+        if (slot == productsBySlot.size()) {
+            productsBySlot.add(null);
+        }
+        return slot;
+    }
+
+    private void clear() {
+        slotsById.clear();
+        productsBySlot.clear();
+        live.clear();
+        available.clear();
+        byCategory.clear();
+        byType.clear();
+        byPrice.clear();
+    }
+}
@@ -1,25 +1,43 @@
 package org.pronsky.data.repository.impl;
 
+import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.UnitOfWork;
 import org.pronsky.data.dao.ProductCategoryDAO;
 import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.entities.FacetedProducts;
+import org.pronsky.data.entities.ImportReport;
 import org.pronsky.data.entities.Product;
+import org.pronsky.data.entities.ProductCategory;
+import org.pronsky.data.entities.ProductFilter;
 import org.pronsky.data.repository.ProductRepository;
 
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 
 /**
  * Implementation of the ProductRepository interface.
+ * All instances share one facet index, which is updated once the writing unit of work commits.
  *
  * @author [Andrei Pronsky]
  */
 @Log4j2
-@RequiredArgsConstructor
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class ProductRepositoryImpl implements ProductRepository {
+    private static final ProductFacetIndex SHARED_FACET_INDEX = new ProductFacetIndex();
     private final ProductDAO productDAO;
     private final ProductCategoryDAO categoryDAO;
+    private final ProductFacetIndex facetIndex;
+
+    public ProductRepositoryImpl(ProductDAO productDAO, ProductCategoryDAO categoryDAO) {
+        this(productDAO, categoryDAO, SHARED_FACET_INDEX);
+    }
 
     /**
      * Finds a Product instance by its ID.
@@ -29,51 +47,183 @@ public class ProductRepositoryImpl implements ProductRepository {
      */
     @Override
     public Product findById(Long id) {
-        Product product = productDAO.getById(id);
-        product.setProductCategories(categoryDAO.getAllByProductId(id));
+        Product product = UnitOfWork.readOnly(() -> {
+            Product found = productDAO.getById(id);
+            found.setProductCategories(categoryDAO.getAllByProductId(id));
+            return found;
+        });
         log.debug("ProductRepositoryImpl : got product: " + product);
         return product;
     }
 
     /**
-     * Finds all Product instances.
+     * Finds all Product instances with their categories in two queries.
      *
      * @return a list of all Product instances
      */
     @Override
     public List<Product> findAll() {
-        List<Product> products = productDAO.getAll();
-        products.forEach(product -> product.setProductCategories(categoryDAO.getAllByProductId(product.getId())));
+        List<Product> products = UnitOfWork.readOnly(() -> {
+            List<Product> all = productDAO.getAll();
+            loadCategories(all);
+            return all;
+        });
         log.debug("ProductRepositoryImpl : got products: " + products);
         return products;
     }
 
     /**
-     * Saves a Product instance.
+     * Finds the Product instances with the given IDs and their categories in two queries.
+     *
+     * @param ids the IDs of the Product instances to find
+     * @return the found Product instances, IDs without a product are skipped
+     */
+    @Override
+    public List<Product> findByIds(Collection<Long> ids) {
+        List<Product> products = UnitOfWork.readOnly(() -> {
+            List<Product> found = productDAO.getByIds(ids);
+            loadCategories(found);
+            return found;
+        });
+        log.debug("ProductRepositoryImpl : got products: " + products);
+        return products;
+    }
+
+    /**
+     * Finds one page of Product instances ordered by ID with their categories in two queries.
+     *
+     * @param afterId the ID of the last Product instance of the previous page, or 0 for the first page
+     * @param limit   the maximum number of Product instances to return
+     * @return the Product instances of the page
+     */
+    @Override
+    public List<Product> findPage(long afterId, int limit) {
+        List<Product> products = UnitOfWork.readOnly(() -> {
+            List<Product> page = productDAO.getPage(afterId, limit);
+            loadCategories(page);
+            return page;
+        });
+        log.debug("ProductRepositoryImpl : got products page: " + products);
+        return products;
+    }
+
+    /**
+     * Writes all Product instances with their categories to the writer as JSON built by the database.
+     *
+     * @param writer the writer receiving the JSON array
+     */
+    @Override
+    public void writeAllAsJson(Writer writer) {
+        UnitOfWork.readOnly(() -> {
+            productDAO.writeAllAsJson(writer);
+            return null;
+        });
+        log.debug("ProductRepositoryImpl : wrote products as JSON");
+    }
+
+    /**
+     * Finds the Product instances matching the filter together with facet counts over them.
+     * The filter is answered by the in-memory facet index, which is loaded from the primary database on first use.
+     *
+     * @param filter the filter criteria
+     * @return the matching Product instances and their category, type and availability counts
+     */
+    @Override
+    public FacetedProducts findByFilter(ProductFilter filter) {
+        facetIndex.ensureBuilt(this::findAllOnPrimary);
+        FacetedProducts result = facetIndex.filter(filter);
+        log.debug("ProductRepositoryImpl : filtered products: " + result);
+        return result;
+    }
+
+    /**
+     * Finds Product instances by name as it is typed. Only the first search reads from the database.
+     *
+     * @param query the typed text
+     * @param limit the maximum number of Product instances to return
+     * @return the best matching Product instances without categories, best first
+     */
+    @Override
+    public List<Product> searchByName(String query, int limit) {
+        List<Product> products = UnitOfWork.readOnly(() -> productDAO.searchByName(query, limit));
+        log.debug("ProductRepositoryImpl : found products by name: " + products);
+        return products;
+    }
+
+    /**
+     * Saves a Product instance in a single transaction and updates the facet index once it is committed.
      *
      * @param product the Product instance to save
      * @return the saved Product instance
      */
     @Override
     public Product save(Product product) {
-        Product saved;
-        if (product.getId() != null) {
-            saved = productDAO.update(product);
-        } else {
-            saved = productDAO.create(product);
-        }
+        Product saved = UnitOfWork.execute(() -> {
+            Product written = product.getId() != null ? productDAO.update(product) : productDAO.create(product);
+            UnitOfWork.afterCommit(() -> facetIndex.put(findByIdOnPrimary(written.getId())));
+            return written;
+        });
         log.debug("ProductRepositoryImpl : saved product: " + saved);
         return saved;
     }
 
     /**
-     * Deletes a Product instance by its ID.
+     * Deletes a Product instance by its ID in a single transaction and removes it from the facet index once it is
+     * committed.
      *
      * @param id the ID of the Product instance to delete
      */
     @Override
     public void delete(Long id) {
-        productDAO.deleteById(id);
+        UnitOfWork.run(() -> {
+            productDAO.deleteById(id);
+            UnitOfWork.afterCommit(() -> facetIndex.remove(id));
+        });
         log.debug("ProductRepositoryImpl : deleted product: " + id);
     }
+
+    /**
+     * Imports products from a CSV stream in a single transaction.
+     * The facet index is dropped once the import is committed and rebuilt on the next filter.
+     *
+     * @param csv the CSV content with a header row
+     * @return the import report
+     */
+    @Override
+    public ImportReport importCsv(Reader csv) {
+        ImportReport report = UnitOfWork.execute(() -> {
+            ImportReport imported = productDAO.importCsv(csv);
+            UnitOfWork.afterCommit(facetIndex::invalidate);
+            return imported;
+        });
+        log.debug("ProductRepositoryImpl : imported products: " + report);
+        return report;
+    }
+
+    /**
+     * The facet index is built and updated from the primary, a lagging replica could miss committed writes.
+     */
+    private List<Product> findAllOnPrimary() {
+        return UnitOfWork.execute(() -> {
+            List<Product> all = productDAO.getAll();
+            loadCategories(all);
+            return all;
+        });
+    }
+
+    private Product findByIdOnPrimary(Long id) {
+        return UnitOfWork.execute(() -> {
+            Product found = productDAO.getById(id);
+            found.setProductCategories(categoryDAO.getAllByProductId(id));
+            return found;
+        });
+    }
+
+    private void loadCategories(List<Product> products) {
+        BatchLoader<Long, Set<ProductCategory>> categoryLoader =
+                new BatchLoader<>(categoryDAO::getAllByProductIds, HashSet::new);
+        products.forEach(product ->
+                categoryLoader.load(product.getId()).thenAccept(product::setProductCategories));
+        categoryLoader.dispatch();
+    }
 }
@@ -0,0 +1,23 @@
+package org.pronsky.exceptions;
+
+public class DeadlineExceededException extends ApplicationException {
+    public DeadlineExceededException() {
+        super();
+    }
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public DeadlineExceededException(Exception e) {
+        super(e);
+    }
+
+    public DeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public DeadlineExceededException(Throwable cause) {
+        super(cause);
+    }
+}
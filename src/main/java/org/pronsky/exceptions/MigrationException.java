@@ -0,0 +1,23 @@
+package org.pronsky.exceptions;
+
+public class MigrationException extends ApplicationException {
+    public MigrationException() {
+        super();
+    }
+
+    public MigrationException(String message) {
+        super(message);
+    }
+
+    public MigrationException(Exception e) {
+        super(e);
+    }
+
+    public MigrationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public MigrationException(Throwable cause) {
+        super(cause);
+    }
+}
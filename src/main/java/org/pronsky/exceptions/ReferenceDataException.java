@@ -0,0 +1,23 @@
+package org.pronsky.exceptions;
+
+public class ReferenceDataException extends ApplicationException {
+    public ReferenceDataException() {
+        super();
+    }
+
+    public ReferenceDataException(String message) {
+        super(message);
+    }
+
+    public ReferenceDataException(Exception e) {
+        super(e);
+    }
+
+    public ReferenceDataException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+    public ReferenceDataException(Throwable cause) {
+        super(cause);
+    }
+}
@@ -1,5 +1,6 @@
 package org.pronsky.service;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface AbstractService<K, T> {
@@ -7,6 +8,8 @@ public interface AbstractService<K, T> {
 
     List<T> getAll();
 
+    List<T> getByIds(Collection<K> ids);
+
     T save(T t);
 
     void delete(K id);
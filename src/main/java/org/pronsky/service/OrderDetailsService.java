@@ -1,6 +1,25 @@
 package org.pronsky.service;
 
+import org.pronsky.data.repository.FetchPlan;
 import org.pronsky.service.dto.OrderDetailsDTO;
 
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 public interface OrderDetailsService extends AbstractService<Long, OrderDetailsDTO> {
+    OrderDetailsDTO getById(Long id, FetchPlan plan);
+
+    List<OrderDetailsDTO> getAll(FetchPlan plan);
+
+    List<OrderDetailsDTO> getByIds(Collection<Long> ids, FetchPlan plan);
+
+    List<OrderDetailsDTO> getPage(long afterId, int limit);
+
+    List<OrderDetailsDTO> getPage(long afterId, int limit, FetchPlan plan);
+
+    List<OrderDetailsDTO> getPageCreatedBetween(Instant from, Instant to, long afterId, int limit, FetchPlan plan);
+
+    void writeAllAsJson(Writer writer);
 }
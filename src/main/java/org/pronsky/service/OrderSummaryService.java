@@ -0,0 +1,13 @@
+package org.pronsky.service;
+
+import org.pronsky.service.dto.OrderSummaryDTO;
+
+import java.util.List;
+
+public interface OrderSummaryService {
+    List<OrderSummaryDTO> getAll();
+
+    List<OrderSummaryDTO> getPage(long afterId, int limit);
+
+    int rebuild();
+}
@@ -1,6 +1,22 @@
 package org.pronsky.service;
 
+import org.pronsky.service.dto.FacetedProductsDTO;
+import org.pronsky.service.dto.ImportReportDTO;
 import org.pronsky.service.dto.ProductDTO;
+import org.pronsky.service.dto.ProductFilterDTO;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
 
 public interface ProductService extends AbstractService<Long, ProductDTO> {
+    List<ProductDTO> getPage(long afterId, int limit);
+
+    FacetedProductsDTO filter(ProductFilterDTO filter);
+
+    List<ProductDTO> search(String query, int limit);
+
+    ImportReportDTO importCsv(Reader csv);
+
+    void writeAllAsJson(Writer writer);
 }
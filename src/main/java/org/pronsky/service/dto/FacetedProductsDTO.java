@@ -0,0 +1,23 @@
+package org.pronsky.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class FacetedProductsDTO {
+
+    @JsonProperty("products")
+    private List<ProductDTO> products;
+
+    @JsonProperty("categoryCounts")
+    private Map<String, Integer> categoryCounts;
+
+    @JsonProperty("typeCounts")
+    private Map<String, Integer> typeCounts;
+
+    @JsonProperty("availabilityCounts")
+    private Map<String, Integer> availabilityCounts;
+}
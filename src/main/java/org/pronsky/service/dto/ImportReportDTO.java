@@ -0,0 +1,41 @@
+package org.pronsky.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ImportReportDTO {
+
+    @JsonProperty("received")
+    private long received;
+
+    @JsonProperty("inserted")
+    private long inserted;
+
+    @JsonProperty("updated")
+    private long updated;
+
+    @JsonProperty("rejected")
+    private long rejected;
+
+    @JsonProperty("categoryLinks")
+    private long categoryLinks;
+
+    @JsonProperty("rejections")
+    private List<RejectionDTO> rejections;
+
+    @Data
+    public static class RejectionDTO {
+
+        @JsonProperty("row")
+        private long row;
+
+        @JsonProperty("name")
+        private String name;
+
+        @JsonProperty("reason")
+        private String reason;
+    }
+}
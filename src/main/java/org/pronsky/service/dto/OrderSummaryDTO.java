@@ -0,0 +1,26 @@
+package org.pronsky.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class OrderSummaryDTO {
+
+    @JsonProperty("id")
+    private Long id;
+
+    @JsonProperty("orderStatus")
+    private OrderDetailsDTO.OrderStatus orderStatus;
+
+    @JsonProperty("totalAmount")
+    private BigDecimal totalAmount;
+
+    @JsonProperty("itemCount")
+    private int itemCount;
+
+    @JsonProperty("productNames")
+    private List<String> productNames;
+}
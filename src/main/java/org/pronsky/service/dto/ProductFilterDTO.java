@@ -0,0 +1,25 @@
+package org.pronsky.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class ProductFilterDTO {
+
+    @JsonProperty("category")
+    private String category;
+
+    @JsonProperty("type")
+    private ProductCategoryDTO.CategoryType type;
+
+    @JsonProperty("available")
+    private Boolean available;
+
+    @JsonProperty("minPrice")
+    private BigDecimal minPrice;
+
+    @JsonProperty("maxPrice")
+    private BigDecimal maxPrice;
+}
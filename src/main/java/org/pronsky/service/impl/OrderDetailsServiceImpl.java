@@ -1,12 +1,16 @@
 package org.pronsky.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.pronsky.data.repository.FetchPlan;
 import org.pronsky.data.repository.OrderDetailRepository;
 import org.pronsky.service.OrderDetailsService;
 import org.pronsky.service.dto.OrderDetailsDTO;
 import org.pronsky.service.mapper.Mapper;
 
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -29,6 +33,18 @@ public class OrderDetailsServiceImpl implements OrderDetailsService {
         return mapper.toDto(repository.findById(id));
     }
 
+    /**
+     * Retrieves order details by its ID with the associations of the fetch plan.
+     *
+     * @param id   The ID of the order details to retrieve.
+     * @param plan The associations to load, the others are left null.
+     * @return The order details with the specified ID.
+     */
+    @Override
+    public OrderDetailsDTO getById(Long id, FetchPlan plan) {
+        return mapper.toDto(repository.findById(id, plan));
+    }
+
     /**
      * Retrieves all order details.
      *
@@ -42,6 +58,111 @@ public class OrderDetailsServiceImpl implements OrderDetailsService {
                 .toList();
     }
 
+    /**
+     * Retrieves all order details with the associations of the fetch plan.
+     *
+     * @param plan The associations to load, the others are left null.
+     * @return A list of all order details.
+     */
+    @Override
+    public List<OrderDetailsDTO> getAll(FetchPlan plan) {
+        return repository.findAll(plan)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves several order details by their IDs.
+     *
+     * @param ids The IDs of the order details to retrieve.
+     * @return The found order details. IDs that do not exist are skipped.
+     */
+    @Override
+    public List<OrderDetailsDTO> getByIds(Collection<Long> ids) {
+        return repository.findByIds(ids)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves several order details by their IDs with the associations of the fetch plan.
+     *
+     * @param ids  The IDs of the order details to retrieve.
+     * @param plan The associations to load, the others are left null.
+     * @return The found order details. IDs that do not exist are skipped.
+     */
+    @Override
+    public List<OrderDetailsDTO> getByIds(Collection<Long> ids, FetchPlan plan) {
+        return repository.findByIds(ids, plan)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves one page of order details ordered by ID.
+     *
+     * @param afterId The ID of the last entry of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of order details to return.
+     * @return The order details of the page.
+     */
+    @Override
+    public List<OrderDetailsDTO> getPage(long afterId, int limit) {
+        return repository.findPage(afterId, limit)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves one page of order details ordered by ID with the associations of the fetch plan.
+     *
+     * @param afterId The ID of the last entry of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of order details to return.
+     * @param plan    The associations to load, the others are left null.
+     * @return The order details of the page.
+     */
+    @Override
+    public List<OrderDetailsDTO> getPage(long afterId, int limit, FetchPlan plan) {
+        return repository.findPage(afterId, limit, plan)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves one page of the order details created in the given time range ordered by ID, archived ones included,
+     * with the associations of the fetch plan.
+     *
+     * @param from    The inclusive start of the range, or null for no lower bound.
+     * @param to      The exclusive end of the range, or null for no upper bound.
+     * @param afterId The ID of the last entry of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of order details to return.
+     * @param plan    The associations to load, the others are left null.
+     * @return The order details of the page.
+     */
+    @Override
+    public List<OrderDetailsDTO> getPageCreatedBetween(Instant from, Instant to, long afterId, int limit,
+                                                       FetchPlan plan) {
+        return repository.findPageCreatedBetween(from, to, afterId, limit, plan)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Writes all order details to the writer as a JSON array built by the database.
+     * The document has the same shape as the serialized DTOs.
+     *
+     * @param writer The writer receiving the JSON array.
+     */
+    @Override
+    public void writeAllAsJson(Writer writer) {
+        repository.writeAllAsJson(writer);
+    }
+
     /**
      * Saves new order details or updates an existing one.
      * This method also calculates the total amount of the order details
@@ -0,0 +1,57 @@
+package org.pronsky.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.pronsky.data.repository.OrderSummaryRepository;
+import org.pronsky.service.OrderSummaryService;
+import org.pronsky.service.dto.OrderSummaryDTO;
+import org.pronsky.service.mapper.Mapper;
+
+import java.util.List;
+
+/**
+ * Implementation of the {@link OrderSummaryService} interface.
+ * This class serves the order list from the order summary read model.
+ */
+@RequiredArgsConstructor
+public class OrderSummaryServiceImpl implements OrderSummaryService {
+    private final Mapper mapper;
+    private final OrderSummaryRepository repository;
+
+    /**
+     * Retrieves the summaries of all orders.
+     *
+     * @return A list of all order summaries ordered by order ID.
+     */
+    @Override
+    public List<OrderSummaryDTO> getAll() {
+        return repository.findAll()
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves one page of order summaries ordered by order ID.
+     *
+     * @param afterId The ID of the last order of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of summaries to return.
+     * @return The order summaries of the page.
+     */
+    @Override
+    public List<OrderSummaryDTO> getPage(long afterId, int limit) {
+        return repository.findPage(afterId, limit)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Rebuilds the order summaries from the orders, for recovery after the read model drifted.
+     *
+     * @return The number of rebuilt summaries.
+     */
+    @Override
+    public int rebuild() {
+        return repository.rebuild();
+    }
+}
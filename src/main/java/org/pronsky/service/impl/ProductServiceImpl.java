@@ -3,9 +3,15 @@ package org.pronsky.service.impl;
 import lombok.RequiredArgsConstructor;
 import org.pronsky.data.repository.ProductRepository;
 import org.pronsky.service.ProductService;
+import org.pronsky.service.dto.FacetedProductsDTO;
+import org.pronsky.service.dto.ImportReportDTO;
 import org.pronsky.service.dto.ProductDTO;
+import org.pronsky.service.dto.ProductFilterDTO;
 import org.pronsky.service.mapper.Mapper;
 
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -41,6 +47,72 @@ public class ProductServiceImpl implements ProductService {
                 .toList();
     }
 
+    /**
+     * Retrieves several products by their IDs.
+     *
+     * @param ids The IDs of the products to retrieve.
+     * @return The found products. IDs that do not exist are skipped.
+     */
+    @Override
+    public List<ProductDTO> getByIds(Collection<Long> ids) {
+        return repository.findByIds(ids)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves one page of products ordered by ID.
+     *
+     * @param afterId The ID of the last entry of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of products to return.
+     * @return The products of the page.
+     */
+    @Override
+    public List<ProductDTO> getPage(long afterId, int limit) {
+        return repository.findPage(afterId, limit)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Retrieves the products matching the filter with facet counts over the matches.
+     *
+     * @param filter The filter criteria, unset criteria match every product.
+     * @return The matching products with category, type and availability counts.
+     */
+    @Override
+    public FacetedProductsDTO filter(ProductFilterDTO filter) {
+        return mapper.toDto(repository.findByFilter(mapper.toEntity(filter)));
+    }
+
+    /**
+     * Finds products by name as it is typed, tolerating one typo per word.
+     *
+     * @param query The typed text.
+     * @param limit The maximum number of products to return.
+     * @return The best matching products without categories, best first.
+     */
+    @Override
+    public List<ProductDTO> search(String query, int limit) {
+        return repository.searchByName(query, limit)
+                .stream()
+                .map(mapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Writes all products to the writer as a JSON array built by the database.
+     * The document has the same shape as the serialized DTOs.
+     *
+     * @param writer The writer receiving the JSON array.
+     */
+    @Override
+    public void writeAllAsJson(Writer writer) {
+        repository.writeAllAsJson(writer);
+    }
+
     /**
      * Saves a new product or updates an existing one.
      *
@@ -61,4 +133,15 @@ public class ProductServiceImpl implements ProductService {
     public void delete(Long id) {
         repository.delete(id);
     }
+
+    /**
+     * Imports products from a CSV stream.
+     *
+     * @param csv The CSV content with a header row.
+     * @return The import report with row counts and a sample of rejected rows.
+     */
+    @Override
+    public ImportReportDTO importCsv(Reader csv) {
+        return mapper.toDto(repository.importCsv(csv));
+    }
 }
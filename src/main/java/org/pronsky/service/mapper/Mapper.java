@@ -1,9 +1,17 @@
 package org.pronsky.service.mapper;
 
+import org.pronsky.data.entities.FacetedProducts;
+import org.pronsky.data.entities.ImportReport;
 import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.data.entities.OrderSummary;
 import org.pronsky.data.entities.Product;
+import org.pronsky.data.entities.ProductFilter;
+import org.pronsky.service.dto.FacetedProductsDTO;
+import org.pronsky.service.dto.ImportReportDTO;
 import org.pronsky.service.dto.OrderDetailsDTO;
+import org.pronsky.service.dto.OrderSummaryDTO;
 import org.pronsky.service.dto.ProductDTO;
+import org.pronsky.service.dto.ProductFilterDTO;
 
 @org.mapstruct.Mapper
 public interface Mapper {
@@ -14,4 +22,12 @@ public interface Mapper {
     ProductDTO toDto(Product entity);
 
     Product toEntity(ProductDTO dto);
+
+    ImportReportDTO toDto(ImportReport entity);
+
+    ProductFilter toEntity(ProductFilterDTO dto);
+
+    FacetedProductsDTO toDto(FacetedProducts entity);
+
+    OrderSummaryDTO toDto(OrderSummary entity);
 }
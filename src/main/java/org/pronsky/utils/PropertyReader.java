@@ -5,6 +5,10 @@ import lombok.extern.log4j.Log4j2;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 
 @Log4j2
@@ -14,6 +18,35 @@ public class PropertyReader {
     private final String url;
     private final String user;
     private final String password;
+    private final String driver;
+    private final int poolMinSize;
+    private final int poolMaxSize;
+    private final long poolConnectionTimeout;
+    private final long poolIdleTimeout;
+    private final long poolValidationTimeout;
+    private final long poolLeakDetectionThreshold;
+    private final int poolStatementCacheSize;
+    private final int prepareThreshold;
+    private final int batchSize;
+    private final int fetchSize;
+    private final int importRejectSampleSize;
+    private final boolean migrationEnabled;
+    private final String orderStorage;
+    private final boolean partitionMaintenanceEnabled;
+    private final int partitionMonthsAhead;
+    private final long partitionMaintenancePeriod;
+    private final int archiveClosedOrderAgeDays;
+    private final List<String> replicaUrls;
+    private final String replicaStrategy;
+    private final long replicaHealthCheckPeriod;
+    private final long defaultRequestTimeout;
+    private final boolean jsonPassthrough;
+    private final int pageDefaultLimit;
+    private final int pageMaxLimit;
+    private final int searchDefaultLimit;
+    private final int searchMaxLimit;
+    private final Map<String, Long> requestTimeouts = new HashMap<>();
+    private static final String REQUEST_TIMEOUT_PREFIX = "request.timeout.";
     private static final String PATH_TO_PROPS = "/connection-config.properties";
 
     private PropertyReader() {
@@ -26,6 +59,51 @@ public class PropertyReader {
         url = properties.getProperty("db.url");
         user = properties.getProperty("db.user");
         password = properties.getProperty("db.password");
+        driver = properties.getProperty("db.driver", "org.postgresql.Driver");
+        poolMinSize = Integer.parseInt(properties.getProperty("db.pool.minSize", "2"));
+        poolMaxSize = Integer.parseInt(properties.getProperty("db.pool.maxSize", "10"));
+        poolConnectionTimeout = Long.parseLong(properties.getProperty("db.pool.connectionTimeout", "30000"));
+        poolIdleTimeout = Long.parseLong(properties.getProperty("db.pool.idleTimeout", "600000"));
+        poolValidationTimeout = Long.parseLong(properties.getProperty("db.pool.validationTimeout", "5000"));
+        poolLeakDetectionThreshold = Long.parseLong(properties.getProperty("db.pool.leakDetectionThreshold", "0"));
+        poolStatementCacheSize = Integer.parseInt(properties.getProperty("db.pool.statementCacheSize", "64"));
+        prepareThreshold = Integer.parseInt(properties.getProperty("db.prepareThreshold", "1"));
+        batchSize = Integer.parseInt(properties.getProperty("db.batchSize", "100"));
+        fetchSize = Integer.parseInt(properties.getProperty("db.fetchSize", "500"));
+        importRejectSampleSize = Integer.parseInt(properties.getProperty("db.import.rejectSampleSize", "100"));
+        migrationEnabled = Boolean.parseBoolean(properties.getProperty("db.migration.enabled", "true"));
+        orderStorage = properties.getProperty("db.orderStorage", "RELATIONAL");
+        partitionMaintenanceEnabled = Boolean.parseBoolean(properties.getProperty("db.partition.maintenanceEnabled",
+                String.valueOf(migrationEnabled)));
+        partitionMonthsAhead = Integer.parseInt(properties.getProperty("db.partition.monthsAhead", "3"));
+        partitionMaintenancePeriod = Long.parseLong(properties.getProperty("db.partition.maintenancePeriod", "3600000"));
+        archiveClosedOrderAgeDays = Integer.parseInt(properties.getProperty("db.archive.closedOrderAgeDays", "90"));
+        replicaUrls = Arrays.stream(properties.getProperty("db.replica.urls", "").split(","))
+                .map(String::trim)
+                .filter(replicaUrl -> !replicaUrl.isEmpty())
+                .toList();
+        replicaStrategy = properties.getProperty("db.replica.strategy", "ROUND_ROBIN");
+        replicaHealthCheckPeriod = Long.parseLong(properties.getProperty("db.replica.healthCheckPeriod", "10000"));
+        jsonPassthrough = Boolean.parseBoolean(properties.getProperty("web.jsonPassthrough", "false"));
+        pageDefaultLimit = Integer.parseInt(properties.getProperty("web.page.defaultLimit", "100"));
+        pageMaxLimit = Integer.parseInt(properties.getProperty("web.page.maxLimit", "1000"));
+        searchDefaultLimit = Integer.parseInt(properties.getProperty("web.search.defaultLimit", "10"));
+        searchMaxLimit = Integer.parseInt(properties.getProperty("web.search.maxLimit", "50"));
+        defaultRequestTimeout = Long.parseLong(properties.getProperty(REQUEST_TIMEOUT_PREFIX + "default", "30000"));
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(REQUEST_TIMEOUT_PREFIX + "/")) {
+                requestTimeouts.put(key.substring(REQUEST_TIMEOUT_PREFIX.length()),
+                        Long.parseLong(properties.getProperty(key)));
+            }
+        }
+    }
+
+    /**
+     * @param path The servlet path of the endpoint.
+     * @return The request timeout configured for the endpoint in milliseconds, or the default one.
+     */
+    public long getRequestTimeout(String path) {
+        return requestTimeouts.getOrDefault(path, defaultRequestTimeout);
     }
 
     public static PropertyReader getInstance() {
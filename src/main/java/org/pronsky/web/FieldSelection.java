@@ -0,0 +1,114 @@
+package org.pronsky.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.pronsky.data.repository.FetchPlan;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Sparse fieldset and expansion requested with the {@code fields} and {@code expand} parameters of an order
+ * details read. The selection decides the fetch plan, so associations that are not requested are never queried,
+ * and trims the serialized orders to the requested properties.
+ * Without both parameters the full order graph is returned, as before the parameters existed.
+ */
+final class FieldSelection {
+    static final Set<String> ORDER_FIELDS = Set.of("id", "orderStatus", "products", "totalAmount");
+    private static final String PRODUCTS = "products";
+    private static final String PRODUCT_CATEGORIES = "products.categories";
+    private static final String PRODUCT_CATEGORIES_PROPERTY = "productCategories";
+    private final Set<String> fields;
+    private final FetchPlan plan;
+
+    private FieldSelection(Set<String> fields, FetchPlan plan) {
+        this.fields = fields;
+        this.plan = plan;
+    }
+
+    /**
+     * @param rawFields The comma-separated order properties to return, may be null for all of them.
+     * @param rawExpand The comma-separated associations to load, may be null for the whole graph.
+     * @return The parsed selection.
+     * @throws IllegalArgumentException If a field or an association is unknown.
+     */
+    static FieldSelection parse(String rawFields, String rawExpand) {
+        Set<String> fields = rawFields == null ? null : split(rawFields);
+        if (fields != null) {
+            for (String field : fields) {
+                if (!ORDER_FIELDS.contains(field)) {
+                    throw new IllegalArgumentException("Unknown field : " + field);
+                }
+            }
+        }
+        FetchPlan plan = rawExpand == null ? FetchPlan.PRODUCTS_WITH_CATEGORIES : parseExpand(rawExpand);
+        if (fields != null && !fields.contains(PRODUCTS)) {
+            plan = FetchPlan.ORDER;
+        }
+        return new FieldSelection(fields, plan);
+    }
+
+    FetchPlan getPlan() {
+        return plan;
+    }
+
+    /**
+     * @return Whether the selection returns the full order graph, the response needs no trimming then.
+     */
+    boolean isFull() {
+        return fields == null && plan == FetchPlan.PRODUCTS_WITH_CATEGORIES;
+    }
+
+    /**
+     * Removes the properties that were not requested from a serialized order or array of orders.
+     *
+     * @param node The serialized order or orders.
+     * @return The same node, trimmed.
+     */
+    JsonNode apply(JsonNode node) {
+        if (node.isArray()) {
+            node.forEach(this::applyToOrder);
+        } else if (node.isObject()) {
+            applyToOrder(node);
+        }
+        return node;
+    }
+
+    private void applyToOrder(JsonNode node) {
+        ObjectNode order = (ObjectNode) node;
+        if (fields != null) {
+            order.retain(fields);
+        }
+        if (!plan.includesProducts()) {
+            order.remove(PRODUCTS);
+        } else if (!plan.includesCategories() && order.get(PRODUCTS) != null) {
+            order.get(PRODUCTS).forEach(product -> ((ObjectNode) product).remove(PRODUCT_CATEGORIES_PROPERTY));
+        }
+    }
+
+    private static FetchPlan parseExpand(String rawExpand) {
+        FetchPlan plan = FetchPlan.ORDER;
+        for (String association : split(rawExpand)) {
+            if (PRODUCT_CATEGORIES.equals(association)) {
+                plan = FetchPlan.PRODUCTS_WITH_CATEGORIES;
+            } else if (PRODUCTS.equals(association)) {
+                if (plan == FetchPlan.ORDER) {
+                    plan = FetchPlan.PRODUCTS;
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown expansion : " + association);
+            }
+        }
+        return plan;
+    }
+
+    private static Set<String> split(String raw) {
+        Set<String> values = new LinkedHashSet<>();
+        for (String value : raw.split(",")) {
+            if (!value.isBlank()) {
+                values.add(value.strip());
+            }
+        }
+        return values;
+    }
+}
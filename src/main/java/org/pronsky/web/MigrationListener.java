@@ -0,0 +1,26 @@
+package org.pronsky.web;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.ConnectionPool;
+import org.pronsky.data.migration.MigrationRunner;
+import org.pronsky.utils.PropertyReader;
+
+/**
+ * Brings the database schema up to date before the servlets take requests. A failed migration fails the deployment,
+ * so the application never runs against a schema it does not expect.
+ * Runs first in {@link StartupListener}; the other startup listeners rely on the migrated schema.
+ */
+@Log4j2
+public class MigrationListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        if (PropertyReader.getInstance().isMigrationEnabled()) {
+            new MigrationRunner(ConnectionPool.getInstance()).migrate();
+        } else {
+            log.info("Database migrations are disabled");
+        }
+    }
+}
@@ -13,17 +13,22 @@ import org.pronsky.data.dao.OrderDetailsDAO;
 import org.pronsky.data.dao.ProductCategoryDAO;
 import org.pronsky.data.dao.ProductDAO;
 import org.pronsky.data.dao.impl.OrderDetailsDAOImpl;
+import org.pronsky.data.dao.impl.OrderDetailsDocumentDAOImpl;
 import org.pronsky.data.dao.impl.ProductCategoryDAOImpl;
 import org.pronsky.data.dao.impl.ProductDAOImpl;
 import org.pronsky.data.repository.OrderDetailRepository;
 import org.pronsky.data.repository.impl.OrderDetailRepositoryImpl;
+import org.pronsky.exceptions.DeadlineExceededException;
 import org.pronsky.service.OrderDetailsService;
 import org.pronsky.service.dto.OrderDetailsDTO;
 import org.pronsky.service.impl.OrderDetailsServiceImpl;
 import org.pronsky.service.mapper.Mapper;
+import org.pronsky.utils.PropertyReader;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @Log4j2
@@ -36,19 +41,46 @@ public class OrderDetailsServlet extends HttpServlet {
     private final ConnectionUtil connectionUtil = new ConnectionUtil();
     private final ProductDAO productDAO = new ProductDAOImpl(connectionUtil);
     private final ProductCategoryDAO productCategoryDAO = new ProductCategoryDAOImpl(connectionUtil);
-    private final OrderDetailsDAO orderDetailsDAO = new OrderDetailsDAOImpl(connectionUtil);
+    private final OrderDetailsDAO orderDetailsDAO = OrderDetailsDocumentDAOImpl.STORAGE_MODE
+            .equalsIgnoreCase(PropertyReader.getInstance().getOrderStorage())
+            ? new OrderDetailsDocumentDAOImpl(connectionUtil)
+            : new OrderDetailsDAOImpl(connectionUtil);
     private final OrderDetailRepository orderDetailRepository = new OrderDetailRepositoryImpl(orderDetailsDAO, productDAO, productCategoryDAO);
     private final OrderDetailsService orderDetailsService = new OrderDetailsServiceImpl(Mappers.getMapper(Mapper.class), orderDetailRepository);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean jsonPassthrough = PropertyReader.getInstance().isJsonPassthrough();
+    private final int pageDefaultLimit = PropertyReader.getInstance().getPageDefaultLimit();
+    private final int pageMaxLimit = PropertyReader.getInstance().getPageMaxLimit();
 
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp) {
         log.debug("Got request type GET : " + req.getRequestURI());
+        FieldSelection selection;
+        try {
+            selection = FieldSelection.parse(req.getParameter("fields"), req.getParameter("expand"));
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        String rawIds = req.getParameter("ids");
+        if (rawIds != null) {
+            getMany(rawIds, selection, resp);
+            return;
+        }
+        if (req.getParameter("from") != null || req.getParameter("to") != null) {
+            getPageCreatedBetween(req, selection, resp);
+            return;
+        }
+        if (req.getParameter("after") != null || req.getParameter("limit") != null) {
+            getPage(req.getParameter("after"), req.getParameter("limit"), selection, resp);
+            return;
+        }
         Long id = processParams(req);
         if (id == null) {
-            getAll(resp);
+            getAll(selection, resp);
         } else {
-            getOne(id, resp);
+            getOne(id, selection, resp);
         }
     }
 
@@ -60,6 +92,9 @@ public class OrderDetailsServlet extends HttpServlet {
             OrderDetailsDTO orderDetailsDTO = objectMapper.readValue(payload, OrderDetailsDTO.class);
             orderDetailsService.save(orderDetailsDTO);
             resp.setStatus(HttpServletResponse.SC_ACCEPTED);
+        } catch (DeadlineExceededException e) {
+            log.warn(e.getMessage());
+            resp.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
@@ -99,13 +134,13 @@ public class OrderDetailsServlet extends HttpServlet {
         } else return null;
     }
 
-    private void getOne(Long id, HttpServletResponse resp) {
+    private void getOne(Long id, FieldSelection selection, HttpServletResponse resp) {
         try {
-            OrderDetailsDTO orderDetailsDTO = orderDetailsService.getById(id);
+            OrderDetailsDTO orderDetailsDTO = orderDetailsService.getById(id, selection.getPlan());
             resp.setContentType(CONTENT_TYPE);
             resp.setCharacterEncoding(CHARSET);
             resp.setStatus(HttpServletResponse.SC_OK);
-            objectMapper.writeValue(resp.getWriter(), orderDetailsDTO);
+            writeJson(resp, orderDetailsDTO, selection);
         } catch (NumberFormatException e) {
             resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
         } catch (IOException e) {
@@ -113,18 +148,106 @@ public class OrderDetailsServlet extends HttpServlet {
         }
     }
 
-    private void getAll(HttpServletResponse resp) {
+    private void getMany(String rawIds, FieldSelection selection, HttpServletResponse resp) {
         try {
-            List<OrderDetailsDTO> orderDetails = orderDetailsService.getAll();
+            List<OrderDetailsDTO> orderDetails =
+                    orderDetailsService.getByIds(PageRequests.parseIds(rawIds), selection.getPlan());
             resp.setContentType(CONTENT_TYPE);
             resp.setCharacterEncoding(CHARSET);
             resp.setStatus(HttpServletResponse.SC_OK);
-            objectMapper.writeValue(resp.getWriter(), orderDetails);
+            writeJson(resp, orderDetails, selection);
+        } catch (NumberFormatException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
         } catch (IOException e) {
+            log.error(e.getMessage(), e);
             resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
         }
     }
 
+    private void getPage(String cursor, String rawLimit, FieldSelection selection, HttpServletResponse resp) {
+        try {
+            int limit = PageRequests.parseLimit(rawLimit, pageDefaultLimit, pageMaxLimit);
+            List<OrderDetailsDTO> orderDetails =
+                    orderDetailsService.getPage(PageCursor.decode(cursor), limit + 1, selection.getPlan());
+            writePage(orderDetails, limit, selection, resp);
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Serves the orders created in the {@code [from, to)} range given as ISO-8601 instants, archived ones included,
+     * in pages like the plain listing.
+     */
+    private void getPageCreatedBetween(HttpServletRequest req, FieldSelection selection, HttpServletResponse resp) {
+        try {
+            Instant from = parseInstant(req.getParameter("from"));
+            Instant to = parseInstant(req.getParameter("to"));
+            int limit = PageRequests.parseLimit(req.getParameter("limit"), pageDefaultLimit, pageMaxLimit);
+            List<OrderDetailsDTO> orderDetails = orderDetailsService.getPageCreatedBetween(from, to,
+                    PageCursor.decode(req.getParameter("after")), limit + 1, selection.getPlan());
+            writePage(orderDetails, limit, selection, resp);
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void writePage(List<OrderDetailsDTO> orderDetails, int limit, FieldSelection selection,
+                           HttpServletResponse resp) throws IOException {
+        orderDetails = PageRequests.toPage(orderDetails, limit, OrderDetailsDTO::getId, resp);
+        resp.setContentType(CONTENT_TYPE);
+        resp.setCharacterEncoding(CHARSET);
+        resp.setStatus(HttpServletResponse.SC_OK);
+        writeJson(resp, orderDetails, selection);
+    }
+
+    private Instant parseInstant(String rawInstant) {
+        if (rawInstant == null) {
+            return null;
+        }
+        try {
+            return Instant.parse(rawInstant.strip());
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid instant : " + rawInstant, e);
+        }
+    }
+
+    private void getAll(FieldSelection selection, HttpServletResponse resp) {
+        try {
+            if (jsonPassthrough && selection.isFull()) {
+                resp.setContentType(CONTENT_TYPE);
+                resp.setCharacterEncoding(CHARSET);
+                resp.setStatus(HttpServletResponse.SC_OK);
+                orderDetailsService.writeAllAsJson(resp.getWriter());
+                return;
+            }
+            List<OrderDetailsDTO> orderDetails = orderDetailsService.getAll(selection.getPlan());
+            resp.setContentType(CONTENT_TYPE);
+            resp.setCharacterEncoding(CHARSET);
+            resp.setStatus(HttpServletResponse.SC_OK);
+            writeJson(resp, orderDetails, selection);
+        } catch (IOException e) {
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void writeJson(HttpServletResponse resp, Object value, FieldSelection selection) throws IOException {
+        if (selection.isFull()) {
+            objectMapper.writeValue(resp.getWriter(), value);
+        } else {
+            objectMapper.writeValue(resp.getWriter(), selection.apply(objectMapper.valueToTree(value)));
+        }
+    }
+
     private String getPayload(BufferedReader reader) throws IOException {
         StringBuilder buffer = new StringBuilder();
         String line;
@@ -0,0 +1,22 @@
+package org.pronsky.web;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.UnitOfWork;
+import org.pronsky.data.dao.impl.OrderDetailsDocumentDAOImpl;
+import org.pronsky.utils.PropertyReader;
+
+/**
+ * In the document order storage mode synchronizes the order documents with orders written in the relational mode
+ * before the servlets take requests.
+ */
+public class OrderDocumentSyncListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        if (OrderDetailsDocumentDAOImpl.STORAGE_MODE.equalsIgnoreCase(PropertyReader.getInstance().getOrderStorage())) {
+            UnitOfWork.execute(new OrderDetailsDocumentDAOImpl(new ConnectionUtil())::synchronize);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.pronsky.web;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.migration.OrderPartitionMaintenance;
+import org.pronsky.data.reference.ReferenceData;
+import org.pronsky.utils.PropertyReader;
+
+import java.time.Duration;
+
+/**
+ * Schedules the order partition maintenance unless it is disabled, by default together with the migrations that
+ * create the partitioned schema. The maintenance stops with the application.
+ */
+@Log4j2
+public class OrderPartitionMaintenanceListener implements ServletContextListener {
+    private OrderPartitionMaintenance partitionMaintenance;
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        PropertyReader propertyReader = PropertyReader.getInstance();
+        if (!propertyReader.isPartitionMaintenanceEnabled()) {
+            log.info("Order partition maintenance is disabled");
+            return;
+        }
+        partitionMaintenance = new OrderPartitionMaintenance(new ConnectionUtil(), ReferenceData.getInstance(),
+                propertyReader.getPartitionMonthsAhead(), Duration.ofDays(propertyReader.getArchiveClosedOrderAgeDays()));
+        partitionMaintenance.start(propertyReader.getPartitionMaintenancePeriod());
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        if (partitionMaintenance != null) {
+            partitionMaintenance.close();
+        }
+    }
+}
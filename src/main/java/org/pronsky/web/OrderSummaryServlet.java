@@ -0,0 +1,98 @@
+package org.pronsky.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.mapstruct.factory.Mappers;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.dao.OrderSummaryDAO;
+import org.pronsky.data.dao.impl.OrderSummaryDAOImpl;
+import org.pronsky.data.repository.OrderSummaryRepository;
+import org.pronsky.data.repository.impl.OrderSummaryRepositoryImpl;
+import org.pronsky.exceptions.UnableToUpdateException;
+import org.pronsky.service.OrderSummaryService;
+import org.pronsky.service.dto.OrderSummaryDTO;
+import org.pronsky.service.impl.OrderSummaryServiceImpl;
+import org.pronsky.service.mapper.Mapper;
+import org.pronsky.utils.PropertyReader;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Order list served from the order summary read model: id, status, total, item count and product names.
+ * GET supports the {@code after}/{@code limit} keyset pagination of the other listings.
+ * POST to {@code /api/order_summaries/rebuild} recomputes the read model from the orders.
+ */
+@Log4j2
+@NoArgsConstructor
+@WebServlet({"/api/order_summaries", OrderSummaryServlet.REBUILD_PATH})
+public class OrderSummaryServlet extends HttpServlet {
+
+    public static final String CONTENT_TYPE = "application/json";
+    public static final String CHARSET = "UTF-8";
+    static final String REBUILD_PATH = "/api/order_summaries/rebuild";
+    private final ConnectionUtil connectionUtil = new ConnectionUtil();
+    private final OrderSummaryDAO orderSummaryDAO = new OrderSummaryDAOImpl(connectionUtil);
+    private final OrderSummaryRepository orderSummaryRepository = new OrderSummaryRepositoryImpl(orderSummaryDAO);
+    private final OrderSummaryService orderSummaryService =
+            new OrderSummaryServiceImpl(Mappers.getMapper(Mapper.class), orderSummaryRepository);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int pageDefaultLimit = PropertyReader.getInstance().getPageDefaultLimit();
+    private final int pageMaxLimit = PropertyReader.getInstance().getPageMaxLimit();
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        log.debug("Got request type GET : " + req.getRequestURI());
+        if (REBUILD_PATH.equals(req.getServletPath())) {
+            resp.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        try {
+            List<OrderSummaryDTO> summaries;
+            String cursor = req.getParameter("after");
+            String rawLimit = req.getParameter("limit");
+            if (cursor == null && rawLimit == null) {
+                summaries = orderSummaryService.getAll();
+            } else {
+                int limit = PageRequests.parseLimit(rawLimit, pageDefaultLimit, pageMaxLimit);
+                summaries = orderSummaryService.getPage(PageCursor.decode(cursor), limit + 1);
+                summaries = PageRequests.toPage(summaries, limit, OrderSummaryDTO::getId, resp);
+            }
+            resp.setContentType(CONTENT_TYPE);
+            resp.setCharacterEncoding(CHARSET);
+            resp.setStatus(HttpServletResponse.SC_OK);
+            objectMapper.writeValue(resp.getWriter(), summaries);
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @Override
+    public void doPost(HttpServletRequest req, HttpServletResponse resp) {
+        log.debug("Got request type POST : " + req.getRequestURI());
+        if (!REBUILD_PATH.equals(req.getServletPath())) {
+            resp.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+        try {
+            int rebuilt = orderSummaryService.rebuild();
+            resp.setContentType(CONTENT_TYPE);
+            resp.setCharacterEncoding(CHARSET);
+            resp.setStatus(HttpServletResponse.SC_OK);
+            objectMapper.writeValue(resp.getWriter(), Map.of("rebuilt", rebuilt));
+        } catch (UnableToUpdateException | IOException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package org.pronsky.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the keyset position of a listing page as an opaque cursor.
+ * Clients pass the cursor of the {@value #NEXT_CURSOR_HEADER} header back as the {@code after} parameter
+ * to get the next page.
+ */
+final class PageCursor {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String PREFIX = "id:";
+
+    private PageCursor() {
+    }
+
+    /**
+     * @param lastId The ID of the last entry of the page.
+     * @return The cursor pointing right after the entry.
+     */
+    static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor The cursor received from the client, may be null for the first page.
+     * @return The ID the page starts after, 0 for the first page.
+     * @throws IllegalArgumentException If the cursor was not produced by {@link #encode(long)}.
+     */
+    static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        String decoded = new String(Base64.getUrlDecoder().decode(cursor.strip()), StandardCharsets.UTF_8);
+        if (!decoded.startsWith(PREFIX)) {
+            throw new IllegalArgumentException("Invalid page cursor : " + cursor);
+        }
+        return Long.parseLong(decoded.substring(PREFIX.length()));
+    }
+}
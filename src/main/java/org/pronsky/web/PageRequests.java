@@ -0,0 +1,64 @@
+package org.pronsky.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Parses the listing parameters shared by the servlets and writes the {@link PageCursor} of the next page.
+ * Listings fetch one entry more than the limit to learn whether a next page exists.
+ */
+final class PageRequests {
+
+    private PageRequests() {
+    }
+
+    /**
+     * @param rawLimit The {@code limit} parameter, may be null.
+     * @return The requested limit capped at {@code maxLimit}, {@code defaultLimit} if none was requested.
+     * @throws IllegalArgumentException If the limit is not a positive number.
+     */
+    static int parseLimit(String rawLimit, int defaultLimit, int maxLimit) {
+        if (rawLimit == null) {
+            return defaultLimit;
+        }
+        int limit = Integer.parseInt(rawLimit.strip());
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive : " + limit);
+        }
+        return Math.min(limit, maxLimit);
+    }
+
+    /**
+     * @param rawIds Comma separated IDs, blank items are skipped.
+     * @return The IDs in request order without duplicates.
+     * @throws NumberFormatException If an ID is not a number.
+     */
+    static Set<Long> parseIds(String rawIds) {
+        Set<Long> ids = new LinkedHashSet<>();
+        for (String rawId : rawIds.split(",")) {
+            if (!rawId.isBlank()) {
+                ids.add(Long.parseLong(rawId.strip()));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Cuts the entries fetched with {@code limit + 1} down to the page and sets the
+     * {@value PageCursor#NEXT_CURSOR_HEADER} header when a next page exists.
+     *
+     * @return The entries of the page.
+     */
+    static <T> List<T> toPage(List<T> entries, int limit, ToLongFunction<T> idOf, HttpServletResponse resp) {
+        if (entries.size() <= limit) {
+            return entries;
+        }
+        List<T> page = entries.subList(0, limit);
+        resp.setHeader(PageCursor.NEXT_CURSOR_HEADER, PageCursor.encode(idOf.applyAsLong(page.get(limit - 1))));
+        return page;
+    }
+}
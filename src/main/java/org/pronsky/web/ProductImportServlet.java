@@ -0,0 +1,65 @@
+package org.pronsky.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.mapstruct.factory.Mappers;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.dao.ProductCategoryDAO;
+import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.dao.impl.ProductCategoryDAOImpl;
+import org.pronsky.data.dao.impl.ProductDAOImpl;
+import org.pronsky.data.repository.ProductRepository;
+import org.pronsky.data.repository.impl.ProductRepositoryImpl;
+import org.pronsky.exceptions.UnableToCreateException;
+import org.pronsky.service.ProductService;
+import org.pronsky.service.dto.ImportReportDTO;
+import org.pronsky.service.impl.ProductServiceImpl;
+import org.pronsky.service.mapper.Mapper;
+
+import java.io.IOException;
+
+/**
+ * Bulk product import. Accepts a CSV upload with the columns
+ * {@code name,price,quantity,available,categories} and a header row, and streams it to the database.
+ */
+@Log4j2
+@NoArgsConstructor
+@WebServlet("/api/products/import")
+public class ProductImportServlet extends HttpServlet {
+
+    public static final String CONTENT_TYPE = "application/json";
+    public static final String CHARSET = "UTF-8";
+    private final ConnectionUtil connectionUtil = new ConnectionUtil();
+    private final ProductDAO productDAO = new ProductDAOImpl(connectionUtil);
+    private final ProductCategoryDAO productCategoryDAO = new ProductCategoryDAOImpl(connectionUtil);
+    private final ProductRepository productRepository = new ProductRepositoryImpl(productDAO, productCategoryDAO);
+    private final Mapper mapper = Mappers.getMapper(Mapper.class);
+    private final ProductService productService = new ProductServiceImpl(mapper, productRepository);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public void doPost(HttpServletRequest req, HttpServletResponse resp) {
+        log.debug("Got request type POST : " + req.getRequestURI());
+        try {
+            if (req.getCharacterEncoding() == null) {
+                req.setCharacterEncoding(CHARSET);
+            }
+            ImportReportDTO report = productService.importCsv(req.getReader());
+            resp.setContentType(CONTENT_TYPE);
+            resp.setCharacterEncoding(CHARSET);
+            resp.setStatus(HttpServletResponse.SC_OK);
+            objectMapper.writeValue(resp.getWriter(), report);
+        } catch (UnableToCreateException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.pronsky.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.annotation.WebServlet;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NoArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.mapstruct.factory.Mappers;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.dao.ProductCategoryDAO;
+import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.dao.impl.ProductCategoryDAOImpl;
+import org.pronsky.data.dao.impl.ProductDAOImpl;
+import org.pronsky.data.repository.ProductRepository;
+import org.pronsky.data.repository.impl.ProductRepositoryImpl;
+import org.pronsky.service.ProductService;
+import org.pronsky.service.dto.ProductDTO;
+import org.pronsky.service.impl.ProductServiceImpl;
+import org.pronsky.service.mapper.Mapper;
+import org.pronsky.utils.PropertyReader;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Typeahead product search by name. Answers {@code ?q=<typed text>&limit=<n>} from the in-memory name index.
+ */
+@Log4j2
+@NoArgsConstructor
+@WebServlet("/api/products/search")
+public class ProductSearchServlet extends HttpServlet {
+
+    public static final String CONTENT_TYPE = "application/json";
+    public static final String CHARSET = "UTF-8";
+    private final ConnectionUtil connectionUtil = new ConnectionUtil();
+    private final ProductDAO productDAO = new ProductDAOImpl(connectionUtil);
+    private final ProductCategoryDAO productCategoryDAO = new ProductCategoryDAOImpl(connectionUtil);
+    private final ProductRepository productRepository = new ProductRepositoryImpl(productDAO, productCategoryDAO);
+    private final Mapper mapper = Mappers.getMapper(Mapper.class);
+    private final ProductService productService = new ProductServiceImpl(mapper, productRepository);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int defaultLimit = PropertyReader.getInstance().getSearchDefaultLimit();
+    private final int maxLimit = PropertyReader.getInstance().getSearchMaxLimit();
+
+    @Override
+    public void doGet(HttpServletRequest req, HttpServletResponse resp) {
+        log.debug("Got request type GET : " + req.getRequestURI());
+        try {
+            String query = req.getParameter("q");
+            if (query == null) {
+                resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return;
+            }
+            int limit = PageRequests.parseLimit(req.getParameter("limit"), defaultLimit, maxLimit);
+            List<ProductDTO> products = productService.search(query, limit);
+            resp.setContentType(CONTENT_TYPE);
+            resp.setCharacterEncoding(CHARSET);
+            resp.setStatus(HttpServletResponse.SC_OK);
+            objectMapper.writeValue(resp.getWriter(), products);
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+}
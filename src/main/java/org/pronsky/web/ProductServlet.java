@@ -15,15 +15,21 @@ import org.pronsky.data.dao.impl.ProductCategoryDAOImpl;
 import org.pronsky.data.dao.impl.ProductDAOImpl;
 import org.pronsky.data.repository.ProductRepository;
 import org.pronsky.data.repository.impl.ProductRepositoryImpl;
+import org.pronsky.exceptions.DeadlineExceededException;
 import org.pronsky.exceptions.UnableToFindException;
 import org.pronsky.service.ProductService;
+import org.pronsky.service.dto.FacetedProductsDTO;
+import org.pronsky.service.dto.ProductCategoryDTO;
 import org.pronsky.service.dto.ProductDTO;
+import org.pronsky.service.dto.ProductFilterDTO;
 import org.pronsky.service.impl.ProductServiceImpl;
 import org.pronsky.service.mapper.Mapper;
+import org.pronsky.utils.PropertyReader;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.math.BigDecimal;
 import java.util.List;
 
 @Log4j2
@@ -33,6 +39,7 @@ public class ProductServlet extends HttpServlet {
 
     public static final String CONTENT_TYPE = "application/json";
     public static final String CHARSET = "UTF-8";
+    private static final List<String> FILTER_PARAMS = List.of("category", "type", "available", "minPrice", "maxPrice");
     private final ConnectionUtil connectionUtil = new ConnectionUtil();
     private final ProductDAO productDAO = new ProductDAOImpl(connectionUtil);
     private final ProductCategoryDAO productCategoryDAO = new ProductCategoryDAOImpl(connectionUtil);
@@ -40,10 +47,26 @@ public class ProductServlet extends HttpServlet {
     private final Mapper mapper = Mappers.getMapper(Mapper.class);
     private final ProductService productService = new ProductServiceImpl(mapper, productRepository);
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final boolean jsonPassthrough = PropertyReader.getInstance().isJsonPassthrough();
+    private final int pageDefaultLimit = PropertyReader.getInstance().getPageDefaultLimit();
+    private final int pageMaxLimit = PropertyReader.getInstance().getPageMaxLimit();
 
     @Override
     public void doGet(HttpServletRequest req, HttpServletResponse resp) {
         log.debug("Got request type GET : " + req.getRequestURI());
+        String rawIds = req.getParameter("ids");
+        if (rawIds != null) {
+            getMany(rawIds, resp);
+            return;
+        }
+        if (FILTER_PARAMS.stream().anyMatch(param -> req.getParameter(param) != null)) {
+            filter(req, resp);
+            return;
+        }
+        if (req.getParameter("after") != null || req.getParameter("limit") != null) {
+            getPage(req.getParameter("after"), req.getParameter("limit"), resp);
+            return;
+        }
         Long id = processParams(req);
         if (id == null) {
             getAll(resp);
@@ -60,6 +83,9 @@ public class ProductServlet extends HttpServlet {
             ProductDTO productDTO = objectMapper.readValue(payload, ProductDTO.class);
             productService.save(productDTO);
             resp.setStatus(HttpServletResponse.SC_CREATED);
+        } catch (DeadlineExceededException e) {
+            log.warn(e.getMessage());
+            resp.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
         } catch (Exception e) {
             log.error(e.getMessage(), e);
             resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
@@ -125,8 +151,90 @@ public class ProductServlet extends HttpServlet {
         }
     }
 
+    private void getMany(String rawIds, HttpServletResponse resp) {
+        try {
+            List<ProductDTO> products = productService.getByIds(PageRequests.parseIds(rawIds));
+            resp.setContentType(CONTENT_TYPE);
+            resp.setCharacterEncoding(CHARSET);
+            resp.setStatus(HttpServletResponse.SC_OK);
+            objectMapper.writeValue(resp.getWriter(), products);
+        } catch (NumberFormatException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void getPage(String cursor, String rawLimit, HttpServletResponse resp) {
+        try {
+            int limit = PageRequests.parseLimit(rawLimit, pageDefaultLimit, pageMaxLimit);
+            List<ProductDTO> products = productService.getPage(PageCursor.decode(cursor), limit + 1);
+            products = PageRequests.toPage(products, limit, ProductDTO::getId, resp);
+            resp.setContentType(CONTENT_TYPE);
+            resp.setCharacterEncoding(CHARSET);
+            resp.setStatus(HttpServletResponse.SC_OK);
+            objectMapper.writeValue(resp.getWriter(), products);
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private void filter(HttpServletRequest req, HttpServletResponse resp) {
+        try {
+            FacetedProductsDTO result = productService.filter(parseFilter(req));
+            resp.setContentType(CONTENT_TYPE);
+            resp.setCharacterEncoding(CHARSET);
+            resp.setStatus(HttpServletResponse.SC_OK);
+            objectMapper.writeValue(resp.getWriter(), result);
+        } catch (IllegalArgumentException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        } catch (IOException e) {
+            log.error(e.getMessage(), e);
+            resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private ProductFilterDTO parseFilter(HttpServletRequest req) {
+        ProductFilterDTO filter = new ProductFilterDTO();
+        filter.setCategory(req.getParameter("category"));
+        String type = req.getParameter("type");
+        if (type != null) {
+            filter.setType(ProductCategoryDTO.CategoryType.valueOf(type.strip().toUpperCase()));
+        }
+        String available = req.getParameter("available");
+        if (available != null) {
+            if (!"true".equalsIgnoreCase(available) && !"false".equalsIgnoreCase(available)) {
+                throw new IllegalArgumentException("available must be true or false : " + available);
+            }
+            filter.setAvailable(Boolean.parseBoolean(available));
+        }
+        String minPrice = req.getParameter("minPrice");
+        if (minPrice != null) {
+            filter.setMinPrice(new BigDecimal(minPrice.strip()));
+        }
+        String maxPrice = req.getParameter("maxPrice");
+        if (maxPrice != null) {
+            filter.setMaxPrice(new BigDecimal(maxPrice.strip()));
+        }
+        return filter;
+    }
+
     private void getAll(HttpServletResponse resp) {
         try {
+            if (jsonPassthrough) {
+                resp.setContentType(CONTENT_TYPE);
+                resp.setCharacterEncoding(CHARSET);
+                resp.setStatus(HttpServletResponse.SC_OK);
+                productService.writeAllAsJson(resp.getWriter());
+                return;
+            }
             List<ProductDTO> products = productService.getAll();
             resp.setContentType(CONTENT_TYPE);
             resp.setCharacterEncoding(CHARSET);
@@ -0,0 +1,17 @@
+package org.pronsky.web;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import org.pronsky.data.reference.ReferenceData;
+
+/**
+ * Loads the reference data at startup, so reference rows that do not match the enums fail the deployment
+ * instead of the first request.
+ */
+public class ReferenceDataListener implements ServletContextListener {
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        ReferenceData.getInstance();
+    }
+}
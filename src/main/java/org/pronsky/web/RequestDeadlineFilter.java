@@ -0,0 +1,98 @@
+package org.pronsky.web;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.annotation.WebFilter;
+import jakarta.servlet.http.HttpFilter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.log4j.Log4j2;
+import org.pronsky.data.connection.RequestDeadline;
+import org.pronsky.exceptions.DeadlineExceededException;
+import org.pronsky.utils.PropertyReader;
+
+import java.io.IOException;
+
+/**
+ * Starts a {@link RequestDeadline} for every API request.
+ * The timeout comes from the {@code X-Request-Timeout} header in milliseconds, capped by the timeout configured
+ * for the endpoint. Requests that run out of time get {@code 504 Gateway Timeout}. For asynchronous requests the
+ * deadline lives until the async context completes, and it is cancelled when the async context times out or fails.
+ */
+@Log4j2
+@WebFilter("/api/*")
+public class RequestDeadlineFilter extends HttpFilter {
+
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    @Override
+    protected void doFilter(HttpServletRequest req, HttpServletResponse resp, FilterChain chain)
+            throws IOException, ServletException {
+        RequestDeadline deadline = RequestDeadline.begin(resolveTimeout(req));
+        boolean async = false;
+        try {
+            chain.doFilter(req, resp);
+            if (req.isAsyncStarted()) {
+                req.getAsyncContext().addListener(new CancellingListener(deadline));
+                async = true;
+            }
+        } catch (DeadlineExceededException e) {
+            log.warn("Request " + req.getRequestURI() + " aborted: " + e.getMessage());
+            if (!resp.isCommitted()) {
+                resp.reset();
+                resp.setStatus(HttpServletResponse.SC_GATEWAY_TIMEOUT);
+            }
+        } finally {
+            if (async) {
+                RequestDeadline.detach();
+            } else {
+                deadline.close();
+            }
+        }
+    }
+
+    long resolveTimeout(HttpServletRequest req) {
+        long configured = PropertyReader.getInstance().getRequestTimeout(req.getServletPath());
+        String header = req.getHeader(TIMEOUT_HEADER);
+        if (header == null) {
+            return configured;
+        }
+        try {
+            long requested = Long.parseLong(header.trim());
+            return requested > 0 ? Math.min(requested, configured) : configured;
+        } catch (NumberFormatException e) {
+            log.debug("Ignoring invalid " + TIMEOUT_HEADER + " header : " + header);
+            return configured;
+        }
+    }
+
+    private static final class CancellingListener implements AsyncListener {
+        private final RequestDeadline deadline;
+
+        private CancellingListener(RequestDeadline deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            deadline.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            deadline.cancel("async request timed out");
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            deadline.cancel("client connection failed");
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.pronsky.web;
+
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+import jakarta.servlet.annotation.WebListener;
+
+import java.util.List;
+
+/**
+ * Runs the startup listeners in order, the migrations first, and stops them in reverse order.
+ * The container gives annotated listeners no order, so only this one is registered.
+ */
+@WebListener
+public class StartupListener implements ServletContextListener {
+    private final List<ServletContextListener> listeners = List.of(
+            new MigrationListener(),
+            new ReferenceDataListener(),
+            new OrderDocumentSyncListener(),
+            new OrderPartitionMaintenanceListener());
+
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        for (ServletContextListener listener : listeners) {
+            listener.contextInitialized(event);
+        }
+    }
+
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        for (int i = listeners.size() - 1; i >= 0; i--) {
+            listeners.get(i).contextDestroyed(event);
+        }
+    }
+}
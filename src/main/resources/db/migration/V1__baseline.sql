@@ -1,3 +1,5 @@
+-- Baseline schema, the same as sql/schema.sql. Statements are idempotent so existing databases adopt it as is.
+
 CREATE TABLE IF NOT EXISTS products
 (
     id        BIGSERIAL PRIMARY KEY,
@@ -49,3 +51,14 @@ CREATE TABLE IF NOT EXISTS categories_to_types
     category_id BIGINT REFERENCES product_categories,
     type_id     BIGINT REFERENCES category_types
 );
+
+CREATE UNLOGGED TABLE IF NOT EXISTS product_import_staging
+(
+    row_no        BIGSERIAL,
+    name          TEXT,
+    price         TEXT,
+    quantity      TEXT,
+    available     TEXT,
+    categories    TEXT,
+    reject_reason TEXT
+);
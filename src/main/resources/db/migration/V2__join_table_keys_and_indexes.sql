@@ -0,0 +1,42 @@
+-- Keys and indexes for the join tables. Every DAO lookup by order, product or category used to scan them.
+
+DELETE FROM product_to_category WHERE product_id IS NULL OR category_id IS NULL;
+DELETE FROM product_to_category a USING product_to_category b
+WHERE a.ctid < b.ctid AND a.product_id = b.product_id AND a.category_id = b.category_id;
+ALTER TABLE product_to_category
+    DROP CONSTRAINT IF EXISTS product_to_category_product_id_fkey,
+    DROP CONSTRAINT IF EXISTS product_to_category_category_id_fkey,
+    ADD CONSTRAINT product_to_category_pkey PRIMARY KEY (product_id, category_id),
+    ADD CONSTRAINT product_to_category_product_id_fkey
+        FOREIGN KEY (product_id) REFERENCES products ON DELETE CASCADE,
+    ADD CONSTRAINT product_to_category_category_id_fkey
+        FOREIGN KEY (category_id) REFERENCES product_categories ON DELETE CASCADE;
+CREATE INDEX IF NOT EXISTS product_to_category_category_id_idx ON product_to_category (category_id);
+
+DELETE FROM categories_to_types WHERE category_id IS NULL OR type_id IS NULL;
+DELETE FROM categories_to_types a USING categories_to_types b
+WHERE a.ctid < b.ctid AND a.category_id = b.category_id AND a.type_id = b.type_id;
+ALTER TABLE categories_to_types
+    DROP CONSTRAINT IF EXISTS categories_to_types_category_id_fkey,
+    DROP CONSTRAINT IF EXISTS categories_to_types_type_id_fkey,
+    ADD CONSTRAINT categories_to_types_pkey PRIMARY KEY (category_id, type_id),
+    ADD CONSTRAINT categories_to_types_category_id_fkey
+        FOREIGN KEY (category_id) REFERENCES product_categories ON DELETE CASCADE,
+    ADD CONSTRAINT categories_to_types_type_id_fkey
+        FOREIGN KEY (type_id) REFERENCES category_types ON DELETE CASCADE;
+
+-- An order may list the same product more than once, so this table gets a surrogate key.
+DELETE FROM details_to_products WHERE order_details_id IS NULL OR product_id IS NULL;
+ALTER TABLE details_to_products
+    ADD COLUMN IF NOT EXISTS id BIGSERIAL,
+    ALTER COLUMN order_details_id SET NOT NULL,
+    ALTER COLUMN product_id SET NOT NULL,
+    DROP CONSTRAINT IF EXISTS details_to_products_order_details_id_fkey,
+    DROP CONSTRAINT IF EXISTS details_to_products_product_id_fkey,
+    ADD CONSTRAINT details_to_products_pkey PRIMARY KEY (id),
+    ADD CONSTRAINT details_to_products_order_details_id_fkey
+        FOREIGN KEY (order_details_id) REFERENCES order_details ON DELETE CASCADE,
+    ADD CONSTRAINT details_to_products_product_id_fkey
+        FOREIGN KEY (product_id) REFERENCES products ON DELETE CASCADE;
+CREATE INDEX IF NOT EXISTS details_to_products_order_details_id_idx ON details_to_products (order_details_id);
+CREATE INDEX IF NOT EXISTS details_to_products_product_id_idx ON details_to_products (product_id);
@@ -0,0 +1,20 @@
+-- Denormalized read model of the order list, kept current by the DAOs in the transaction of every write.
+
+CREATE TABLE IF NOT EXISTS order_summary
+(
+    order_details_id BIGINT PRIMARY KEY REFERENCES order_details ON DELETE CASCADE,
+    order_status     VARCHAR(64) NOT NULL,
+    total_amount     NUMERIC,
+    item_count       INTEGER     NOT NULL,
+    product_names    TEXT[]      NOT NULL
+);
+
+INSERT INTO order_summary (order_details_id, order_status, total_amount, item_count, product_names)
+SELECT od.id, os.name, od.total_amount, COUNT(p.id),
+       COALESCE(array_agg(p.name ORDER BY p.name) FILTER (WHERE p.id IS NOT NULL), '{}')
+FROM order_details od
+         JOIN order_statuses os ON os.id = od.status_id
+         LEFT JOIN details_to_products dtp ON dtp.order_details_id = od.id
+         LEFT JOIN products p ON p.id = dtp.product_id
+GROUP BY od.id, os.name
+ON CONFLICT (order_details_id) DO NOTHING;
@@ -0,0 +1,37 @@
+-- Document storage of orders: one JSONB document per order in the shape of OrderDetailsDTO, holding a snapshot of
+-- its line items with their categories. Written next to the relational rows by OrderDetailsDocumentDAOImpl.
+
+CREATE TABLE IF NOT EXISTS order_documents
+(
+    order_details_id BIGINT PRIMARY KEY REFERENCES order_details ON DELETE CASCADE,
+    document         JSONB NOT NULL
+);
+
+INSERT INTO order_documents (order_details_id, document)
+SELECT od.id,
+       jsonb_build_object(
+               'id', od.id,
+               'orderStatus', os.name,
+               'products', COALESCE((SELECT jsonb_agg(jsonb_build_object(
+                       'id', p.id, 'name', p.name, 'price', p.price, 'quantity', p.quantity,
+                       'available', COALESCE(p.available, false),
+                       'productCategories', COALESCE((SELECT jsonb_agg(jsonb_build_object(
+                               'id', pc.id, 'name', pc.name,
+                               'types', COALESCE((SELECT jsonb_agg(ct.name ORDER BY ct.id)
+                                                  FROM category_types ct
+                                                  WHERE ct.id IN (SELECT ctt.type_id
+                                                                  FROM categories_to_types ctt
+                                                                  WHERE ctt.category_id = pc.id)),
+                                                 '[]'::jsonb)) ORDER BY pc.id)
+                                                      FROM product_categories pc
+                                                      WHERE pc.id IN (SELECT ptc.category_id
+                                                                      FROM product_to_category ptc
+                                                                      WHERE ptc.product_id = p.id)),
+                                                     '[]'::jsonb)) ORDER BY p.id)
+                                     FROM details_to_products dtp
+                                              JOIN products p ON p.id = dtp.product_id
+                                     WHERE dtp.order_details_id = od.id), '[]'::jsonb),
+               'totalAmount', od.total_amount)
+FROM order_details od
+         JOIN order_statuses os ON os.id = od.status_id
+ON CONFLICT (order_details_id) DO NOTHING;
@@ -0,0 +1,5 @@
+-- Hi-lo ID allocation: every nextval of these sequences reserves a block of 1000 IDs for one application node,
+-- see SequenceBlockIdGenerator. Rows inserted with the column default take a whole block as well.
+
+ALTER SEQUENCE products_id_seq INCREMENT BY 1000;
+ALTER SEQUENCE order_details_id_seq INCREMENT BY 1000;
@@ -0,0 +1,141 @@
+-- Range partitioning of orders. order_details is split by the archived flag first: current orders are partitioned
+-- by the month of created_at, archived COMPLETED and CANCELLED orders move to the archive partition. Listing queries
+-- filter on the flag and creation time, so they only touch the partitions they need.
+-- The primary key of a partitioned table has to contain the partition keys, so it neither keeps order IDs unique nor
+-- can it be the target of a foreign key on the ID alone. order_detail_ids holds every order ID once instead: it is
+-- kept by statement triggers on order_details, a duplicate ID fails the insert, and the tables referencing orders
+-- get their foreign keys against it back. Rows written into a partition directly bypass the triggers.
+-- Orders created before this migration have no creation time and get the time of the migration.
+
+ALTER TABLE details_to_products DROP CONSTRAINT IF EXISTS details_to_products_order_details_id_fkey;
+ALTER TABLE order_summary DROP CONSTRAINT IF EXISTS order_summary_order_details_id_fkey;
+ALTER TABLE order_documents DROP CONSTRAINT IF EXISTS order_documents_order_details_id_fkey;
+
+ALTER SEQUENCE order_details_id_seq OWNED BY NONE;
+ALTER TABLE order_details RENAME TO order_details_unpartitioned;
+ALTER INDEX order_details_pkey RENAME TO order_details_unpartitioned_pkey;
+
+CREATE TABLE order_details
+(
+    id           BIGINT      NOT NULL DEFAULT nextval('order_details_id_seq'),
+    status_id    BIGINT REFERENCES order_statuses,
+    total_amount NUMERIC CHECK ( total_amount > 0 ),
+    created_at   TIMESTAMPTZ NOT NULL DEFAULT now(),
+    archived     BOOLEAN     NOT NULL DEFAULT false,
+    PRIMARY KEY (id, archived, created_at)
+) PARTITION BY LIST (archived);
+
+ALTER SEQUENCE order_details_id_seq OWNED BY order_details.id;
+
+CREATE TABLE order_details_current PARTITION OF order_details FOR VALUES IN (false) PARTITION BY RANGE (created_at);
+CREATE TABLE order_details_current_default PARTITION OF order_details_current DEFAULT;
+CREATE TABLE order_details_archive PARTITION OF order_details FOR VALUES IN (true);
+CREATE INDEX order_details_created_at_idx ON order_details (created_at);
+
+CREATE TABLE order_detail_ids
+(
+    id BIGINT PRIMARY KEY
+);
+
+CREATE FUNCTION register_order_detail_ids() RETURNS TRIGGER AS
+$$
+BEGIN
+    INSERT INTO order_detail_ids (id) SELECT id FROM new_rows;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE FUNCTION release_order_detail_ids() RETURNS TRIGGER AS
+$$
+BEGIN
+    DELETE FROM order_detail_ids i USING old_rows o WHERE i.id = o.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Moving an order between partitions, as archiving does, is an update and keeps its ID. Changing an ID is refused.
+CREATE FUNCTION keep_order_detail_ids() RETURNS TRIGGER AS
+$$
+BEGIN
+    IF EXISTS (SELECT id FROM new_rows EXCEPT SELECT id FROM old_rows) THEN
+        RAISE EXCEPTION 'Order IDs can not be changed' USING ERRCODE = 'integrity_constraint_violation';
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER order_details_register_ids
+    AFTER INSERT ON order_details REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION register_order_detail_ids();
+CREATE TRIGGER order_details_release_ids
+    AFTER DELETE ON order_details REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION release_order_detail_ids();
+CREATE TRIGGER order_details_keep_ids
+    AFTER UPDATE ON order_details REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION keep_order_detail_ids();
+
+-- Creates the monthly partitions of current orders from this month to months_ahead months ahead that do not exist
+-- yet, called again by OrderPartitionMaintenance. Returns the number of partitions created.
+-- Months and bounds are computed in UTC and written with their offset, so nodes with different session time zones
+-- agree on them. A transaction-level advisory lock keeps concurrent runs from racing on the same partition.
+-- Orders created for a month without a partition land in the default partition, and a partition can not be created
+-- while the default one holds rows of its range. Such rows are moved out with the default partition detached and the
+-- new partition is created in between, so a stray order never blocks the maintenance.
+CREATE OR REPLACE FUNCTION create_order_partitions(months_ahead INTEGER) RETURNS INTEGER AS
+$$
+DECLARE
+    month_start    TIMESTAMP;
+    lower_bound    TIMESTAMPTZ;
+    upper_bound    TIMESTAMPTZ;
+    partition_name TEXT;
+    strays         BOOLEAN;
+    created        INTEGER := 0;
+BEGIN
+    PERFORM pg_advisory_xact_lock(hashtext('create_order_partitions'));
+    FOR i IN 0..months_ahead
+        LOOP
+            month_start := date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => i);
+            partition_name := 'order_details_current_' || to_char(month_start, 'YYYY_MM');
+            lower_bound := month_start AT TIME ZONE 'UTC';
+            upper_bound := (month_start + INTERVAL '1 month') AT TIME ZONE 'UTC';
+            IF to_regclass(partition_name) IS NULL THEN
+                strays := EXISTS (SELECT 1 FROM order_details_current_default
+                                  WHERE created_at >= lower_bound AND created_at < upper_bound);
+                IF strays THEN
+                    ALTER TABLE order_details_current DETACH PARTITION order_details_current_default;
+                END IF;
+                EXECUTE format('CREATE TABLE %I PARTITION OF order_details_current FOR VALUES FROM (%L) TO (%L)',
+                               partition_name, lower_bound, upper_bound);
+                IF strays THEN
+                    WITH moved AS (DELETE FROM order_details_current_default
+                                   WHERE created_at >= lower_bound AND created_at < upper_bound
+                                   RETURNING *)
+                    INSERT INTO order_details_current SELECT * FROM moved;
+                    ALTER TABLE order_details_current ATTACH PARTITION order_details_current_default DEFAULT;
+                END IF;
+                created := created + 1;
+            END IF;
+        END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_order_partitions(3);
+
+INSERT INTO order_details (id, status_id, total_amount)
+SELECT id, status_id, total_amount
+FROM order_details_unpartitioned;
+
+DROP TABLE order_details_unpartitioned;
+
+-- The ID of a new order is registered when its statement ends, which is after the rows referencing it were written
+-- when both are inserted by one statement, so the keys are checked at commit.
+ALTER TABLE details_to_products
+    ADD CONSTRAINT details_to_products_order_details_id_fkey
+        FOREIGN KEY (order_details_id) REFERENCES order_detail_ids ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED;
+ALTER TABLE order_summary
+    ADD CONSTRAINT order_summary_order_details_id_fkey
+        FOREIGN KEY (order_details_id) REFERENCES order_detail_ids ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED;
+ALTER TABLE order_documents
+    ADD CONSTRAINT order_documents_order_details_id_fkey
+        FOREIGN KEY (order_details_id) REFERENCES order_detail_ids ON DELETE CASCADE DEFERRABLE INITIALLY DEFERRED;
@@ -0,0 +1,96 @@
+package org.pronsky.data.connection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionPoolTest {
+
+    private ConnectionFactory connectionFactory;
+    private List<Connection> physicalConnections;
+    private PoolConfig config;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        physicalConnections = new ArrayList<>();
+        connectionFactory = mock(ConnectionFactory.class);
+        when(connectionFactory.create()).thenAnswer(invocation -> {
+            Connection connection = mock(Connection.class);
+            when(connection.getAutoCommit()).thenReturn(true);
+            when(connection.isValid(anyInt())).thenReturn(true);
+            physicalConnections.add(connection);
+            return connection;
+        });
+        config = new PoolConfig();
+        config.setMaxSize(2);
+        config.setConnectionTimeout(100);
+        pool = new ConnectionPool(connectionFactory, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testClosedConnectionIsReused() throws SQLException {
+        Connection first = pool.getConnection();
+        first.close();
+        Connection second = pool.getConnection();
+        second.createStatement();
+        verify(connectionFactory, times(1)).create();
+        verify(physicalConnections.get(0)).createStatement();
+        assertEquals(1, pool.getStats().getTotalConnections());
+        assertEquals(2, pool.getStats().getBorrowCount());
+    }
+
+    @Test
+    void testCloseDoesNotClosePhysicalConnection() throws SQLException {
+        Connection connection = pool.getConnection();
+        Connection physical = physicalConnections.get(0);
+        connection.close();
+        assertTrue(connection.isClosed());
+        verify(physical, never()).close();
+        assertThrows(SQLException.class, connection::createStatement);
+    }
+
+    @Test
+    void testTimeoutWhenPoolIsExhausted() throws SQLException {
+        pool.getConnection();
+        pool.getConnection();
+        assertThrows(SQLTimeoutException.class, pool::getConnection);
+        PoolStats stats = pool.getStats();
+        assertEquals(2, stats.getActiveConnections());
+        assertEquals(1, stats.getTimeoutCount());
+    }
+
+    @Test
+    void testUncommittedTransactionIsRolledBackOnReturn() throws SQLException {
+        Connection connection = pool.getConnection();
+        Connection physical = physicalConnections.get(0);
+        when(physical.getAutoCommit()).thenReturn(false);
+        connection.close();
+        verify(physical).rollback();
+        verify(physical).setAutoCommit(true);
+    }
+
+    @Test
+    void testFailedFactoryReleasesPermit() throws SQLException {
+        when(connectionFactory.create()).thenThrow(new SQLException("refused"));
+        assertThrows(SQLException.class, pool::getConnection);
+        assertThrows(SQLException.class, pool::getConnection);
+        assertThrows(SQLException.class, pool::getConnection);
+        assertEquals(0, pool.getStats().getTotalConnections());
+        assertEquals(0, pool.getStats().getTimeoutCount());
+    }
+}
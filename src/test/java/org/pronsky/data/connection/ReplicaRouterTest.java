@@ -0,0 +1,110 @@
+package org.pronsky.data.connection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRouterTest {
+
+    private DataSource primary;
+    private DataSource firstReplica;
+    private DataSource secondReplica;
+    private Connection primaryConnection;
+    private Connection firstConnection;
+    private Connection secondConnection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        firstReplica = mock(DataSource.class);
+        secondReplica = mock(DataSource.class);
+        primaryConnection = mock(Connection.class);
+        firstConnection = mock(Connection.class);
+        secondConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+    }
+
+    @Test
+    void testRoundRobin() throws SQLException {
+        ReplicaRouter router = new ReplicaRouter(List.of(firstReplica, secondReplica),
+                ReplicaRouter.Strategy.ROUND_ROBIN, 0);
+        router.getConnection().close();
+        router.getConnection().close();
+        router.getConnection().close();
+        verify(firstReplica, times(2)).getConnection();
+        verify(secondReplica, times(1)).getConnection();
+    }
+
+    @Test
+    void testLeastInFlight() throws SQLException {
+        ReplicaRouter router = new ReplicaRouter(List.of(firstReplica, secondReplica),
+                ReplicaRouter.Strategy.LEAST_IN_FLIGHT, 0);
+        Connection held = router.getConnection();
+        router.getConnection().close();
+        router.getConnection().close();
+        verify(firstReplica, times(1)).getConnection();
+        verify(secondReplica, times(2)).getConnection();
+        held.close();
+        verify(firstConnection).close();
+    }
+
+    @Test
+    void testFailingReplicaIsDroppedUntilHealthy() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLException("down")).thenReturn(firstConnection);
+        when(firstConnection.isValid(anyInt())).thenReturn(true);
+        when(secondConnection.isValid(anyInt())).thenReturn(true);
+        ReplicaRouter router = new ReplicaRouter(List.of(firstReplica, secondReplica),
+                ReplicaRouter.Strategy.ROUND_ROBIN, 0);
+        router.getConnection().close();
+        assertEquals(1, router.getHealthyReplicaCount());
+        router.getConnection().close();
+        verify(secondReplica, times(2)).getConnection();
+        router.checkHealth();
+        assertEquals(2, router.getHealthyReplicaCount());
+    }
+
+    @Test
+    void testSaturatedReplicaIsSkippedButStaysInRotation() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLTimeoutException("pool exhausted"))
+                .thenReturn(firstConnection);
+        ReplicaRouter router = new ReplicaRouter(List.of(firstReplica, secondReplica),
+                ReplicaRouter.Strategy.ROUND_ROBIN, 0);
+        router.getConnection().close();
+        verify(secondConnection).close();
+        assertEquals(2, router.getHealthyReplicaCount());
+        router.getConnection().close();
+        verify(firstConnection).close();
+    }
+
+    @Test
+    void testReadsGoToReplicaAndWritesToPrimary() throws SQLException {
+        ReplicaRouter router = new ReplicaRouter(List.of(firstReplica), ReplicaRouter.Strategy.ROUND_ROBIN, 0);
+        ConnectionUtil connectionUtil = new ConnectionUtil(primary, router);
+        UnitOfWork.readOnly(connectionUtil::getConnection);
+        UnitOfWork.execute(connectionUtil::getConnection);
+        verify(firstConnection).setReadOnly(true);
+        verify(primaryConnection).commit();
+        verify(firstReplica, times(1)).getConnection();
+        verify(primary, times(1)).getConnection();
+    }
+
+    @Test
+    void testFallbackToPrimaryWithoutHealthyReplica() throws SQLException {
+        when(firstReplica.getConnection()).thenThrow(new SQLException("down"));
+        ReplicaRouter router = new ReplicaRouter(List.of(firstReplica), ReplicaRouter.Strategy.ROUND_ROBIN, 0);
+        ConnectionUtil connectionUtil = new ConnectionUtil(primary, router);
+        UnitOfWork.readOnly(connectionUtil::getConnection);
+        verify(primaryConnection).setReadOnly(true);
+        assertEquals(0, router.getHealthyReplicaCount());
+    }
+}
@@ -0,0 +1,87 @@
+package org.pronsky.data.connection;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.exceptions.DeadlineExceededException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RequestDeadlineTest {
+
+    private static final String SQL = "SELECT 1";
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement statement;
+    private ConnectionUtil connectionUtil;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        connectionUtil = new ConnectionUtil(dataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.detach();
+    }
+
+    @Test
+    void testQueryTimeoutFollowsRemainingTime() throws SQLException {
+        try (RequestDeadline ignored = RequestDeadline.begin(5_000);
+             Connection guarded = connectionUtil.getConnection()) {
+            guarded.prepareStatement(SQL).executeQuery();
+        }
+        verify(statement).setQueryTimeout(5);
+        verify(statement).executeQuery();
+        assertNull(RequestDeadline.current());
+    }
+
+    @Test
+    void testExpiredDeadlineStopsFurtherWork() throws Exception {
+        try (RequestDeadline ignored = RequestDeadline.begin(1)) {
+            TimeUnit.MILLISECONDS.sleep(20);
+            assertThrows(DeadlineExceededException.class, connectionUtil::getConnection);
+        }
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    void testRunningStatementIsCancelledOnExpiry() throws SQLException {
+        CountDownLatch cancelled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            cancelled.countDown();
+            return null;
+        }).when(statement).cancel();
+        when(statement.executeQuery()).thenAnswer(invocation -> {
+            if (cancelled.await(5, TimeUnit.SECONDS)) {
+                throw new SQLException("canceling statement due to user request");
+            }
+            return null;
+        });
+        try (RequestDeadline ignored = RequestDeadline.begin(50);
+             Connection guarded = connectionUtil.getConnection()) {
+            PreparedStatement guardedStatement = guarded.prepareStatement(SQL);
+            assertThrows(DeadlineExceededException.class, guardedStatement::executeQuery);
+        }
+        verify(statement).cancel();
+    }
+
+    @Test
+    void testConnectionIsNotGuardedWithoutDeadline() throws SQLException {
+        assertSame(connection, connectionUtil.getConnection());
+    }
+}
@@ -0,0 +1,84 @@
+package org.pronsky.data.connection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class StatementCacheTest {
+
+    private static final String FIRST_SQL = "SELECT 1";
+    private static final String SECOND_SQL = "SELECT 2";
+    private static final String THIRD_SQL = "SELECT 3";
+
+    private Connection connection;
+    private LongAdder hits;
+    private LongAdder misses;
+    private LongAdder evictions;
+    private StatementCache statementCache;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> mock(PreparedStatement.class));
+        hits = new LongAdder();
+        misses = new LongAdder();
+        evictions = new LongAdder();
+        statementCache = new StatementCache(2, hits, misses, evictions);
+    }
+
+    @Test
+    void testClosedStatementIsReused() throws SQLException {
+        PreparedStatement first = statementCache.prepare(connection, FIRST_SQL, null);
+        first.close();
+        PreparedStatement second = statementCache.prepare(connection, FIRST_SQL, null);
+        assertTrue(first.isClosed());
+        assertFalse(second.isClosed());
+        verify(connection, times(1)).prepareStatement(FIRST_SQL);
+        assertEquals(1, hits.sum());
+        assertEquals(1, misses.sum());
+    }
+
+    @Test
+    void testStatementInUseIsNotShared() throws SQLException {
+        statementCache.prepare(connection, FIRST_SQL, null);
+        statementCache.prepare(connection, FIRST_SQL, null);
+        verify(connection, times(2)).prepareStatement(FIRST_SQL);
+        assertEquals(0, hits.sum());
+    }
+
+    @Test
+    void testLeastRecentlyUsedStatementIsEvicted() throws SQLException {
+        statementCache.prepare(connection, FIRST_SQL, null).close();
+        statementCache.prepare(connection, SECOND_SQL, null).close();
+        statementCache.prepare(connection, FIRST_SQL, null).close();
+        statementCache.prepare(connection, THIRD_SQL, null).close();
+        statementCache.prepare(connection, FIRST_SQL, null).close();
+        statementCache.prepare(connection, SECOND_SQL, null).close();
+        verify(connection, times(1)).prepareStatement(FIRST_SQL);
+        verify(connection, times(2)).prepareStatement(SECOND_SQL);
+        assertEquals(2, evictions.sum());
+    }
+
+    @Test
+    void testResultSetClosedAndParametersClearedOnReturn() throws SQLException {
+        PreparedStatement physical = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(FIRST_SQL)).thenReturn(physical);
+        when(physical.executeQuery()).thenReturn(resultSet);
+        PreparedStatement statement = statementCache.prepare(connection, FIRST_SQL, null);
+        statement.setLong(1, 1L);
+        statement.executeQuery();
+        statement.close();
+        verify(resultSet).close();
+        verify(physical).clearParameters();
+        verify(physical, never()).close();
+    }
+}
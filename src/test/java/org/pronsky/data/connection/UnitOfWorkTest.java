@@ -0,0 +1,104 @@
+package org.pronsky.data.connection;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UnitOfWorkTest {
+
+    private DataSource dataSource;
+    private Connection connection;
+    private ConnectionUtil connectionUtil;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        connectionUtil = new ConnectionUtil(dataSource);
+    }
+
+    @Test
+    void testNestedCallsShareOneConnectionAndCommitOnce() throws SQLException {
+        UnitOfWork.run(() -> {
+            try (Connection first = connectionUtil.getConnection()) {
+                first.createStatement();
+            } catch (SQLException e) {
+                fail(e);
+            }
+            UnitOfWork.run(() -> {
+                try (Connection second = connectionUtil.getConnection()) {
+                    second.createStatement();
+                } catch (SQLException e) {
+                    fail(e);
+                }
+            });
+        });
+        verify(dataSource, times(1)).getConnection();
+        verify(connection, times(2)).createStatement();
+        verify(connection).setAutoCommit(false);
+        verify(connection, times(1)).commit();
+        verify(connection, times(1)).close();
+        assertFalse(UnitOfWork.isActive());
+    }
+
+    @Test
+    void testRollbackOnException() throws SQLException {
+        assertThrows(IllegalArgumentException.class, () -> UnitOfWork.run(() -> {
+            connectionUtil.getConnection();
+            throw new IllegalArgumentException();
+        }));
+        verify(connection).rollback();
+        verify(connection, never()).commit();
+        verify(connection).close();
+    }
+
+    @Test
+    void testNoConnectionBorrowedWhenUnused() throws SQLException {
+        String result = UnitOfWork.execute(() -> "result");
+        assertEquals("result", result);
+        verify(dataSource, never()).getConnection();
+    }
+
+    @Test
+    void testAfterCommitRunsOnceOutermostUnitCommits() throws SQLException {
+        List<String> events = new ArrayList<>();
+        UnitOfWork.run(() -> {
+            connectionUtil.getConnection();
+            UnitOfWork.run(() -> UnitOfWork.afterCommit(() -> events.add("nested")));
+            UnitOfWork.afterCommit(() -> {
+                throw new IllegalStateException("ignored");
+            });
+            UnitOfWork.afterCommit(() -> events.add("outer"));
+            assertTrue(events.isEmpty());
+        });
+        verify(connection).commit();
+        assertEquals(List.of("nested", "outer"), events);
+    }
+
+    @Test
+    void testAfterCommitDroppedOnRollback() {
+        List<String> events = new ArrayList<>();
+        assertThrows(IllegalArgumentException.class, () -> UnitOfWork.run(() -> {
+            UnitOfWork.afterCommit(() -> events.add("committed"));
+            throw new IllegalArgumentException();
+        }));
+        UnitOfWork.afterCommit(() -> events.add("immediate"));
+        assertEquals(List.of("immediate"), events);
+    }
+
+    @Test
+    void testReadOnlyConnection() throws SQLException {
+        UnitOfWork.readOnly(connectionUtil::getConnection);
+        verify(connection).setReadOnly(true);
+        assertThrows(IllegalStateException.class, () -> UnitOfWork.readOnly(() -> UnitOfWork.execute(() -> null)));
+    }
+}
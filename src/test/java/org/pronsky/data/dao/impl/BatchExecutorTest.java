@@ -0,0 +1,51 @@
+package org.pronsky.data.dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class BatchExecutorTest {
+
+    private static final String SQL = "INSERT INTO details_to_products (order_details_id, product_id) VALUES (?, ?)";
+    private static final List<Long> IDS = List.of(1L, 2L, 3L, 4L, 5L);
+
+    private Connection connection;
+    private PreparedStatement statement;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        when(statement.executeBatch()).thenReturn(new int[]{1, 1}, new int[]{1, 1}, new int[]{1});
+    }
+
+    @Test
+    void testRowsAreSentInBatchesOnOneStatement() throws SQLException {
+        int written = BatchExecutor.executeBatch(connection, SQL, IDS, 2, (preparedStatement, id) -> {
+            preparedStatement.setLong(1, 10L);
+            preparedStatement.setLong(2, id);
+        });
+        assertEquals(IDS.size(), written);
+        verify(connection, times(1)).prepareStatement(SQL);
+        verify(statement, times(IDS.size())).addBatch();
+        verify(statement, times(3)).executeBatch();
+        verify(statement, never()).executeUpdate();
+        verify(statement).close();
+    }
+
+    @Test
+    void testNothingExecutedForEmptyInput() throws SQLException {
+        int written = BatchExecutor.executeBatch(connection, SQL, List.<Long>of(), 2, (preparedStatement, id) -> {
+        });
+        assertEquals(0, written);
+        verify(statement, never()).executeBatch();
+    }
+}
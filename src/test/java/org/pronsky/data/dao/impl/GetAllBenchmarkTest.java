@@ -0,0 +1,106 @@
+package org.pronsky.data.dao.impl;
+
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.pronsky.data.connection.ConnectionPool;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.PoolConfig;
+import org.pronsky.data.connection.PoolStats;
+import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.entities.Product;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the set-based getAll with the previous id-then-getById listing.
+ * Query counts come from the statement cache counters of the pool.
+ */
+@Log4j2
+@Testcontainers(disabledWithoutDocker = true)
+class GetAllBenchmarkTest {
+
+    @Container
+    public PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("test")
+            .withUsername("testuser")
+            .withPassword("testpassword");
+
+    private ConnectionPool pool;
+    private ProductDAO productDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        PoolConfig config = new PoolConfig();
+        config.setMaxSize(4);
+        pool = new ConnectionPool(() -> DriverManager.getConnection(postgreSQLContainer.getJdbcUrl(),
+                postgreSQLContainer.getUsername(), postgreSQLContainer.getPassword()), config);
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("src/main/resources/db/migration/V1__baseline.sql")));
+        }
+        productDAO = new ProductDAOImpl(new ConnectionUtil(pool));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1_000, 10_000, 100_000})
+    void testGetAllQueryCountAndLatency(int rows) throws SQLException {
+        seed(rows);
+
+        long before = queryCount();
+        long perRowStart = System.nanoTime();
+        List<Product> listed = productDAO.getAll().stream()
+                .map(product -> productDAO.getById(product.getId()))
+                .toList();
+        long perRowMillis = (System.nanoTime() - perRowStart) / 1_000_000;
+        long perRowQueries = queryCount() - before;
+
+        before = queryCount();
+        long setBasedStart = System.nanoTime();
+        List<Product> products = productDAO.getAll();
+        long setBasedMillis = (System.nanoTime() - setBasedStart) / 1_000_000;
+        long setBasedQueries = queryCount() - before;
+
+        log.info("{} rows: per-row {} queries in {} ms, set-based {} queries in {} ms",
+                rows, perRowQueries, perRowMillis, setBasedQueries, setBasedMillis);
+        assertEquals(rows, products.size());
+        assertEquals(listed, products);
+        assertEquals(rows + 1L, perRowQueries);
+        assertEquals(1, setBasedQueries);
+    }
+
+    private void seed(int rows) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement statement = connection.prepareStatement("INSERT INTO products " +
+                     "(name, price, quantity, available) SELECT 'product-' || g, 9.99, 1 + g % 50, true " +
+                     "FROM generate_series(1, ?) g")) {
+            statement.setInt(1, rows);
+            statement.executeUpdate();
+        }
+    }
+
+    private long queryCount() {
+        PoolStats stats = pool.getStats();
+        return stats.getStatementCacheHits() + stats.getStatementCacheMisses();
+    }
+}
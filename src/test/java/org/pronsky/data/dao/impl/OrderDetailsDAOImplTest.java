@@ -0,0 +1,219 @@
+package org.pronsky.data.dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.dao.OrderDetailsDAO;
+import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.data.entities.OrderDetails.OrderStatus;
+import org.pronsky.data.entities.Product;
+import org.pronsky.data.entities.ProductCategory.CategoryType;
+import org.pronsky.data.reference.ReferenceData;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OrderDetailsDAOImplTest {
+
+    private static final ReferenceData REFERENCE_DATA = ReferenceData.of(
+            Map.of(11L, OrderStatus.OPEN, 12L, OrderStatus.CONFIRMED, 13L, OrderStatus.COMPLETED,
+                    14L, OrderStatus.CANCELLED),
+            Map.of(1L, CategoryType.PERISHABLE, 2L, CategoryType.LONG_TERM, 3L, CategoryType.FRIDGE_STORAGE,
+                    4L, CategoryType.FREEZER_STORAGE, 5L, CategoryType.PANTRY_STORAGE));
+
+    private DataSource dataSource;
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private OrderDetailsDAO orderDetailsDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(3);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnLabel(2)).thenReturn("total_amount");
+        when(metaData.getColumnLabel(3)).thenReturn("status_id");
+        orderDetailsDAO = new OrderDetailsDAOImpl(new ConnectionUtil(dataSource), REFERENCE_DATA);
+    }
+
+    @Test
+    void testCreateInsertsOrderAndRelationsInOneStatement() throws SQLException {
+        orderDetailsDAO = new OrderDetailsDAOImpl(new ConnectionUtil(dataSource), REFERENCE_DATA, () -> 4001L);
+        Array array = mock(Array.class);
+        when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenReturn(array);
+        OrderDetails details = new OrderDetails();
+        details.setOrderStatus(OrderStatus.OPEN);
+        details.setTotalAmount(BigDecimal.TEN);
+        details.setProducts(List.of(product(3L), product(5L), product(3L)));
+
+        OrderDetails created = orderDetailsDAO.create(details);
+
+        assertEquals(4001L, created.getId());
+        assertEquals(OrderStatus.OPEN, created.getOrderStatus());
+        verify(connection).prepareStatement(startsWith("WITH created AS (INSERT INTO order_details"));
+        verify(statement).setLong(1, 4001L);
+        verify(statement).setLong(2, 11L);
+        verify(statement).setLong(4, 4001L);
+        verify(connection).createArrayOf("bigint", new Object[]{3L, 5L, 3L});
+        verify(connection).prepareStatement(OrderSummaryDAOImpl.REFRESH_ORDER_SUMMARIES);
+        verify(statement, times(2)).executeUpdate();
+        verify(statement, never()).executeBatch();
+    }
+
+    @Test
+    void testReferenceDataIsResolvedOnFirstUse() throws SQLException {
+        AtomicInteger resolutions = new AtomicInteger();
+        orderDetailsDAO = new OrderDetailsDAOImpl(new ConnectionUtil(dataSource), () -> {
+            resolutions.incrementAndGet();
+            return REFERENCE_DATA;
+        }, () -> 1L);
+        assertEquals(0, resolutions.get());
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong("status_id")).thenReturn(13L);
+
+        assertEquals(OrderStatus.COMPLETED, orderDetailsDAO.getById(1L).getOrderStatus());
+        assertEquals(1, resolutions.get());
+    }
+
+    @Test
+    void testStreamAllReadsThroughCursor() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L);
+        when(resultSet.getLong("status_id")).thenReturn(11L, 13L);
+        when(resultSet.getBigDecimal(2)).thenReturn(BigDecimal.ONE, BigDecimal.TEN);
+
+        List<OrderDetails> streamed = new ArrayList<>();
+        orderDetailsDAO.streamAll(streamed::add);
+
+        assertEquals(2, streamed.size());
+        assertEquals(OrderDetails.OrderStatus.COMPLETED, streamed.get(1).getOrderStatus());
+        verify(connection).setAutoCommit(false);
+        verify(connection).setReadOnly(true);
+        verify(statement).setFetchSize(anyInt());
+        verify(connection).commit();
+    }
+
+    @Test
+    void testGetByIdsBindsIdsAsSingleArray() throws SQLException {
+        Array array = mock(Array.class);
+        when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenReturn(array);
+        when(resultSet.next()).thenReturn(true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 3L);
+        when(resultSet.getLong("status_id")).thenReturn(11L, 14L);
+
+        List<OrderDetails> found = orderDetailsDAO.getByIds(List.of(1L, 2L, 3L));
+
+        assertEquals(2, found.size());
+        assertEquals(3L, found.get(1).getId());
+        verify(connection).createArrayOf("bigint", new Object[]{1L, 2L, 3L});
+        verify(statement).setArray(1, array);
+        verify(statement, times(1)).executeQuery();
+    }
+
+    @Test
+    void testUpdateRefreshesSummaryOnSameConnection() throws SQLException {
+        Array array = mock(Array.class);
+        when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenReturn(array);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong(1)).thenReturn(7L);
+        when(resultSet.getLong("status_id")).thenReturn(12L);
+        OrderDetails details = new OrderDetails();
+        details.setId(7L);
+        details.setOrderStatus(OrderDetails.OrderStatus.CONFIRMED);
+        details.setTotalAmount(BigDecimal.TEN);
+
+        orderDetailsDAO.update(details);
+
+        verify(statement).setLong(1, 12L);
+        verify(connection).prepareStatement(OrderSummaryDAOImpl.REFRESH_ORDER_SUMMARIES);
+        verify(connection).createArrayOf("bigint", new Object[]{7L});
+        verify(statement).setArray(1, array);
+        verify(statement, times(1)).executeUpdate();
+    }
+
+    @Test
+    void testGetByIdsWithoutIdsSkipsQuery() throws SQLException {
+        assertTrue(orderDetailsDAO.getByIds(List.of()).isEmpty());
+        verify(connection, never()).prepareStatement(anyString());
+    }
+
+    @Test
+    void testGetPageSeeksPastLastId() throws SQLException {
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong(1)).thenReturn(11L);
+        when(resultSet.getLong("status_id")).thenReturn(11L);
+
+        List<OrderDetails> page = orderDetailsDAO.getPage(10L, 5);
+
+        assertEquals(1, page.size());
+        assertEquals(11L, page.get(0).getId());
+        verify(connection).prepareStatement(contains("od.id > ? ORDER BY od.id LIMIT ?"));
+        verify(statement).setLong(1, 10L);
+        verify(statement).setInt(2, 5);
+    }
+
+    @Test
+    void testGetPageCreatedBetweenBindsOpenRange() throws SQLException {
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong(1)).thenReturn(21L);
+        when(resultSet.getLong("status_id")).thenReturn(13L);
+        Instant from = Instant.parse("2026-03-01T00:00:00Z");
+
+        List<OrderDetails> page = orderDetailsDAO.getPageCreatedBetween(from, null, 0L, 50);
+
+        assertEquals(OrderStatus.COMPLETED, page.get(0).getOrderStatus());
+        verify(connection).prepareStatement(OrderDetailsDAOImpl.FIND_ORDER_DETAILS_CREATED_BETWEEN);
+        verify(statement).setTimestamp(1, Timestamp.from(from));
+        verify(statement).setTimestamp(2, null);
+        verify(statement).setLong(3, 0L);
+        verify(statement).setInt(4, 50);
+    }
+
+    @Test
+    void testGetAllMapsRowsFromSingleQuery() throws SQLException {
+        when(resultSet.next()).thenReturn(true, true, true, false);
+        when(resultSet.getLong(1)).thenReturn(1L, 2L, 3L);
+        when(resultSet.getLong("status_id")).thenReturn(11L, 12L, 14L);
+
+        List<OrderDetails> all = orderDetailsDAO.getAll();
+
+        assertEquals(3, all.size());
+        assertEquals(3L, all.get(2).getId());
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(statement, times(1)).executeQuery();
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+}
@@ -0,0 +1,120 @@
+package org.pronsky.data.dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.UnitOfWork;
+import org.pronsky.data.dao.OrderDetailsDAO;
+import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.data.entities.OrderDetails.OrderStatus;
+import org.pronsky.data.entities.ProductCategory;
+import org.pronsky.data.entities.ProductCategory.CategoryType;
+import org.pronsky.exceptions.UnableToUpdateException;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class OrderDetailsDocumentDAOImplTest {
+
+    private static final String DOCUMENT = "{\"id\": 7, \"orderStatus\": \"CONFIRMED\", \"totalAmount\": 12.50, " +
+            "\"products\": [{\"id\": 3, \"name\": \"Salmon\", \"price\": 12.50, \"quantity\": 1, \"available\": true, " +
+            "\"productCategories\": [{\"id\": 2, \"name\": \"FISH\", \"types\": [\"PERISHABLE\"]}]}]}";
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private OrderDetailsDAO relationalDAO;
+    private OrderDetailsDocumentDAOImpl documentDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        relationalDAO = mock(OrderDetailsDAO.class);
+        documentDAO = new OrderDetailsDocumentDAOImpl(new ConnectionUtil(dataSource), relationalDAO);
+    }
+
+    @Test
+    void testGetByIdReadsWholeOrderFromOneDocument() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn(DOCUMENT);
+
+        OrderDetails details = documentDAO.getById(7L);
+
+        assertEquals(7L, details.getId());
+        assertEquals(OrderStatus.CONFIRMED, details.getOrderStatus());
+        assertEquals(new BigDecimal("12.50"), details.getTotalAmount());
+        assertEquals("Salmon", details.getProducts().get(0).getName());
+        ProductCategory category = details.getProducts().get(0).getProductCategories().iterator().next();
+        assertEquals(Set.of(CategoryType.PERISHABLE), category.getTypes());
+        verify(connection).prepareStatement(startsWith("SELECT document FROM order_documents"));
+        verify(connection, times(1)).prepareStatement(anyString());
+        verify(statement).setLong(1, 7L);
+    }
+
+    @Test
+    void testGetByIdWithoutDocumentReturnsEmptyDetails() throws SQLException {
+        when(resultSet.next()).thenReturn(false);
+
+        assertNull(documentDAO.getById(8L).getId());
+    }
+
+    @Test
+    void testPageReadsCurrentOrdersOnly() throws SQLException {
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getString(1)).thenReturn(DOCUMENT);
+
+        assertEquals(1, documentDAO.getPage(5L, 20).size());
+
+        verify(connection).prepareStatement(OrderDetailsDocumentDAOImpl.FIND_ORDER_DOCUMENTS_PAGE);
+        assertTrue(OrderDetailsDocumentDAOImpl.FIND_ORDER_DOCUMENTS_PAGE.contains("NOT od.archived"));
+        assertTrue(OrderDetailsDocumentDAOImpl.FIND_ALL_ORDER_DOCUMENTS.contains("NOT od.archived"));
+        assertTrue(OrderDetailsDocumentDAOImpl.FIND_ALL_ORDER_DOCUMENTS_AS_JSON.contains("NOT od.archived"));
+        verify(statement).setLong(1, 5L);
+        verify(statement).setInt(2, 20);
+    }
+
+    @Test
+    void testUpdateWritesRelationalRowThenDocumentInOneTransaction() throws SQLException {
+        OrderDetails details = new OrderDetails();
+        details.setId(7L);
+        details.setOrderStatus(OrderStatus.CONFIRMED);
+        when(relationalDAO.update(details)).thenReturn(details);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getString(1)).thenReturn(DOCUMENT);
+
+        OrderDetails updated = UnitOfWork.execute(() -> documentDAO.update(details));
+
+        assertEquals(1, updated.getProducts().size());
+        verify(relationalDAO).update(details);
+        verify(connection).prepareStatement(contains("order_documents.document ||"));
+        verify(connection).setAutoCommit(false);
+        verify(connection).commit();
+    }
+
+    @Test
+    void testFailedRelationalUpdateSkipsDocument() throws SQLException {
+        OrderDetails details = new OrderDetails();
+        details.setId(9L);
+        when(relationalDAO.update(details)).thenThrow(new UnableToUpdateException("Order details not found : 9"));
+
+        assertThrows(UnableToUpdateException.class, () -> documentDAO.update(details));
+        verify(connection, never()).prepareStatement(anyString());
+    }
+}
@@ -0,0 +1,148 @@
+package org.pronsky.data.dao.impl;
+
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.connection.ConnectionPool;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.PoolConfig;
+import org.pronsky.data.dao.ProductCategoryDAO;
+import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.data.entities.Product;
+import org.pronsky.data.migration.MigrationRunner;
+import org.pronsky.data.reference.ReferenceData;
+import org.pronsky.data.repository.OrderDetailRepository;
+import org.pronsky.data.repository.impl.OrderDetailRepositoryImpl;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares reading and writing whole orders in the relational storage mode with the JSONB document mode,
+ * on 50 000 orders of five products with two categories each.
+ */
+@Log4j2
+@Testcontainers(disabledWithoutDocker = true)
+class OrderStorageBenchmarkTest {
+    private static final int PRODUCTS = 5_000;
+    private static final int ORDERS = 50_000;
+    private static final int LOOKUPS = 500;
+    private static final int WRITES = 200;
+
+    @Container
+    public PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("test")
+            .withUsername("testuser")
+            .withPassword("testpassword");
+
+    private ConnectionPool pool;
+    private OrderDetailRepository relationalRepository;
+    private OrderDetailRepository documentRepository;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        PoolConfig config = new PoolConfig();
+        config.setMaxSize(4);
+        pool = new ConnectionPool(() -> DriverManager.getConnection(postgreSQLContainer.getJdbcUrl(),
+                postgreSQLContainer.getUsername(), postgreSQLContainer.getPassword()), config);
+        new MigrationRunner(pool).migrate();
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("sql/data.sql")));
+            statement.execute("INSERT INTO products (name, price, quantity, available) " +
+                    "SELECT 'bench-' || g, 1.5, 1, true FROM generate_series(1, " + PRODUCTS + ") g");
+            statement.execute("INSERT INTO product_to_category (product_id, category_id) " +
+                    "SELECT p.id, 1 + (p.id + k) % 8 FROM products p, generate_series(0, 1) k " +
+                    "WHERE p.name LIKE 'bench-%'");
+            statement.execute("INSERT INTO order_details (status_id, total_amount) " +
+                    "SELECT 1, 10 FROM generate_series(1, " + ORDERS + ")");
+            statement.execute("INSERT INTO details_to_products (order_details_id, product_id) " +
+                    "SELECT o.id, p.id FROM order_details o CROSS JOIN generate_series(1, 5) k " +
+                    "JOIN products p ON p.name = 'bench-' || (1 + (o.id * 7 + k) % " + PRODUCTS + ")");
+        }
+        ConnectionUtil connectionUtil = new ConnectionUtil(pool);
+        ReferenceData referenceData = ReferenceData.load(connectionUtil);
+        ProductDAO productDAO = new ProductDAOImpl(connectionUtil);
+        ProductCategoryDAO categoryDAO = new ProductCategoryDAOImpl(connectionUtil, referenceData);
+        OrderDetailsDAOImpl relationalDAO = new OrderDetailsDAOImpl(connectionUtil, referenceData);
+        OrderDetailsDocumentDAOImpl documentDAO = new OrderDetailsDocumentDAOImpl(connectionUtil, relationalDAO);
+        documentDAO.synchronize();
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+        relationalRepository = new OrderDetailRepositoryImpl(relationalDAO, productDAO, categoryDAO);
+        documentRepository = new OrderDetailRepositoryImpl(documentDAO, productDAO, categoryDAO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testReadAndWriteLatencyPerStorageMode() {
+        List<Long> ids = ThreadLocalRandom.current().longs(LOOKUPS, 1, ORDERS + 1).boxed().toList();
+        for (Long id : ids.subList(0, 10)) {
+            assertEquals(productIds(relationalRepository.findById(id)), productIds(documentRepository.findById(id)));
+        }
+
+        long relationalReadMicros = reads(relationalRepository, ids);
+        long documentReadMicros = reads(documentRepository, ids);
+        long relationalWriteMicros = writes(relationalRepository);
+        long documentWriteMicros = writes(documentRepository);
+
+        log.info("{} reads: relational {} us, document {} us",
+                LOOKUPS, relationalReadMicros, documentReadMicros);
+        log.info("{} writes: relational {} us, document {} us",
+                WRITES, relationalWriteMicros, documentWriteMicros);
+        assertEquals(ORDERS + 2 * WRITES, relationalRepository.findAll().size());
+        assertEquals(ORDERS + WRITES, documentRepository.findAll().size());
+    }
+
+    private long reads(OrderDetailRepository repository, List<Long> ids) {
+        long start = System.nanoTime();
+        for (Long id : ids) {
+            assertEquals(5, repository.findById(id).getProducts().size());
+        }
+        return (System.nanoTime() - start) / 1_000;
+    }
+
+    private long writes(OrderDetailRepository repository) {
+        long start = System.nanoTime();
+        for (int i = 0; i < WRITES; i++) {
+            OrderDetails order = new OrderDetails();
+            order.setOrderStatus(OrderDetails.OrderStatus.OPEN);
+            order.setTotalAmount(BigDecimal.TEN);
+            List<Product> products = new ArrayList<>();
+            for (long k = 1; k <= 5; k++) {
+                Product product = new Product();
+                product.setId(k + i);
+                products.add(product);
+            }
+            order.setProducts(products);
+            repository.save(order);
+        }
+        return (System.nanoTime() - start) / 1_000;
+    }
+
+    private static List<Long> productIds(OrderDetails order) {
+        return order.getProducts().stream().map(Product::getId).sorted().toList();
+    }
+}
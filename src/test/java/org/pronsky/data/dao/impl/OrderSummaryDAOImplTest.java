@@ -0,0 +1,95 @@
+package org.pronsky.data.dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.UnitOfWork;
+import org.pronsky.data.dao.OrderSummaryDAO;
+import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.data.entities.OrderSummary;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+class OrderSummaryDAOImplTest {
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private OrderSummaryDAO orderSummaryDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+        when(metaData.getColumnCount()).thenReturn(5);
+        when(metaData.getColumnLabel(1)).thenReturn("id");
+        when(metaData.getColumnLabel(2)).thenReturn("order_status");
+        when(metaData.getColumnLabel(3)).thenReturn("total_amount");
+        when(metaData.getColumnLabel(4)).thenReturn("item_count");
+        when(metaData.getColumnLabel(5)).thenReturn("product_names");
+        orderSummaryDAO = new OrderSummaryDAOImpl(new ConnectionUtil(dataSource));
+    }
+
+    @Test
+    void testGetPageReadsSummaryTableOnly() throws SQLException {
+        Array names = mock(Array.class);
+        when(names.getArray()).thenReturn(new String[]{"Milk", "Salmon"});
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong(1)).thenReturn(11L);
+        when(resultSet.getString(2)).thenReturn("OPEN");
+        when(resultSet.getBigDecimal(3)).thenReturn(BigDecimal.TEN);
+        when(resultSet.getInt(4)).thenReturn(2);
+        when(resultSet.getArray("product_names")).thenReturn(names);
+
+        List<OrderSummary> page = orderSummaryDAO.getPage(10L, 5);
+
+        assertEquals(1, page.size());
+        OrderSummary summary = page.get(0);
+        assertEquals(11L, summary.getId());
+        assertEquals(OrderDetails.OrderStatus.OPEN, summary.getOrderStatus());
+        assertEquals(2, summary.getItemCount());
+        assertEquals(List.of("Milk", "Salmon"), summary.getProductNames());
+        verify(connection).prepareStatement(contains("FROM order_summary WHERE order_details_id > ?"));
+        verify(connection, times(1)).prepareStatement(anyString());
+    }
+
+    @Test
+    void testRebuildReplacesAllSummariesInOneTransaction() throws SQLException {
+        when(statement.executeUpdate()).thenReturn(3, 4);
+
+        assertEquals(4, (int) UnitOfWork.execute(orderSummaryDAO::rebuild));
+
+        verify(connection).prepareStatement("DELETE FROM order_summary");
+        verify(connection).prepareStatement(OrderSummaryDAOImpl.REBUILD_ORDER_SUMMARIES);
+        assertTrue(OrderSummaryDAOImpl.REBUILD_ORDER_SUMMARIES.contains("ON CONFLICT (order_details_id) DO UPDATE"));
+        verify(connection).setAutoCommit(false);
+        verify(connection, times(1)).commit();
+    }
+
+    @Test
+    void testRefreshWithoutOrdersSkipsQuery() throws SQLException {
+        OrderSummaryDAOImpl.refresh(connection, List.of());
+        verify(connection, never()).prepareStatement(anyString());
+    }
+}
@@ -0,0 +1,117 @@
+package org.pronsky.data.dao.impl;
+
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.entities.ImportReport;
+import org.pronsky.data.entities.Product;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Log4j2
+@Testcontainers(disabledWithoutDocker = true)
+class ProductImportBenchmarkTest {
+
+    private static final int ROWS = 5_000;
+    private static final String HEADER = "name,price,quantity,available,categories\n";
+
+    @Container
+    public PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("test")
+            .withUsername("testuser")
+            .withPassword("testpassword");
+
+    private PGSimpleDataSource dataSource;
+    private ProductDAO productDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgreSQLContainer.getJdbcUrl());
+        dataSource.setUser(postgreSQLContainer.getUsername());
+        dataSource.setPassword(postgreSQLContainer.getPassword());
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("src/main/resources/db/migration/V1__baseline.sql")));
+        }
+        productDAO = new ProductDAOImpl(new ConnectionUtil(dataSource));
+    }
+
+    @Test
+    void testImportReportsInsertsUpdatesAndRejections() throws SQLException {
+        productDAO.importCsv(new StringReader(HEADER + "Milk,1.50,10,true,Dairy\n"));
+
+        ImportReport report = productDAO.importCsv(new StringReader(HEADER
+                + "Milk,1.75,12,true,Dairy|Fridge\n"
+                + "Bread,2.00,5,,Bakery\n"
+                + ",1.00,1,true,\n"
+                + "Cheese,-3,1,true,Dairy\n"
+                + "Butter,3.00,many,true,Dairy\n"
+                + "Bread,2.10,6,true,Bakery\n"));
+
+        assertEquals(6, report.getReceived());
+        assertEquals(1, report.getInserted());
+        assertEquals(1, report.getUpdated());
+        assertEquals(4, report.getRejected());
+        assertEquals(4, report.getRejections().size());
+        assertEquals(2, report.getRejections().get(0).getRow());
+        assertEquals("duplicate name, a later row wins", report.getRejections().get(0).getReason());
+        assertEquals(4, report.getRejections().get(2).getRow());
+        assertEquals("price must be positive", report.getRejections().get(2).getReason());
+        assertEquals("quantity is not an integer", report.getRejections().get(3).getReason());
+        assertEquals(new BigDecimal("2.10"), scalar("SELECT price FROM products WHERE name = 'Bread'"));
+        assertEquals(new BigDecimal("1.75"), scalar("SELECT price FROM products WHERE name = 'Milk'"));
+        assertEquals(3L, ((Number) scalar("SELECT count(*) FROM product_to_category")).longValue());
+    }
+
+    @Test
+    void testBulkImportAgainstPerRowCreate() {
+        long perRowStart = System.nanoTime();
+        for (int i = 0; i < ROWS; i++) {
+            Product product = new Product();
+            product.setName("row-" + i);
+            product.setPrice(new BigDecimal("9.99"));
+            product.setQuantity(i + 1);
+            product.setAvailable(true);
+            productDAO.create(product);
+        }
+        long perRowMillis = (System.nanoTime() - perRowStart) / 1_000_000;
+
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 0; i < ROWS; i++) {
+            csv.append("bulk-").append(i).append(",9.99,").append(i + 1).append(",true,Bulk\n");
+        }
+        long bulkStart = System.nanoTime();
+        ImportReport report = productDAO.importCsv(new StringReader(csv.toString()));
+        long bulkMillis = (System.nanoTime() - bulkStart) / 1_000_000;
+
+        log.info("{} rows: per-row create {} ms, COPY import {} ms", ROWS, perRowMillis, bulkMillis);
+        assertEquals(ROWS, report.getInserted());
+        assertEquals(0, report.getRejected());
+    }
+
+    private Object scalar(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getObject(1);
+        }
+    }
+}
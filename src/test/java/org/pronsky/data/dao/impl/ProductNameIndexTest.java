@@ -0,0 +1,119 @@
+package org.pronsky.data.dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.entities.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductNameIndexTest {
+
+    private ProductNameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductNameIndex();
+        index.ensureBuilt(() -> List.of(
+                product(1L, "Smoked salmon"),
+                product(2L, "Salmon"),
+                product(3L, "Salad"),
+                product(4L, "Caesar salad"),
+                product(5L, "Cod")));
+    }
+
+    @Test
+    void testPrefixMatchesAnyWordOfName() {
+        assertEquals(List.of(2L, 1L), ids(index.search("salm", 2)));
+        assertEquals(List.of(2L, 1L, 3L, 4L), ids(index.search("salm", 10)), "prefixes rank before typo matches");
+        assertEquals(List.of(3L, 2L, 4L, 1L), ids(index.search("sal", 10)));
+    }
+
+    @Test
+    void testExactWordRanksBeforePrefix() {
+        assertEquals(List.of(3L, 4L), ids(index.search("salad", 10)));
+        assertEquals(List.of(5L), ids(index.search("COD", 10)));
+    }
+
+    @Test
+    void testOneTypoIsTolerated() {
+        assertEquals(List.of(2L, 1L), ids(index.search("slamon", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search("salmn", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search("salxmon", 10)));
+        assertTrue(index.search("sxlxmon", 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.search("smokd slamon", 10)));
+        assertEquals(List.of(4L), ids(index.search("cesar sa", 10)));
+    }
+
+    @Test
+    void testEveryQueryWordMustMatch() {
+        assertEquals(List.of(4L), ids(index.search("salad caes", 10)));
+        assertTrue(index.search("smoked cod", 10).isEmpty());
+    }
+
+    @Test
+    void testLimitKeepsBestMatches() {
+        assertEquals(List.of(3L, 2L), ids(index.search("sal", 2)));
+        assertTrue(index.search("sal", 0).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    void testPutAndRemoveUpdateIndex() {
+        index.put(product(5L, "Codfish"));
+        index.put(product(6L, "Salami"));
+        index.remove(1L);
+
+        assertEquals(List.of(3L, 6L, 2L, 4L), ids(index.search("sal", 10)));
+        assertEquals(List.of(5L), ids(index.search("codf", 10)));
+        assertTrue(index.search("smoked", 10).isEmpty());
+    }
+
+    @Test
+    void testUpdatesAreIgnoredUntilBuilt() {
+        ProductNameIndex empty = new ProductNameIndex();
+        empty.put(product(1L, "Salmon"));
+        assertFalse(empty.isBuilt());
+        index.invalidate();
+        assertFalse(index.isBuilt());
+        index.ensureBuilt(List::of);
+        assertTrue(index.search("salmon", 10).isEmpty());
+    }
+
+    @Test
+    void testLookupOverManyNamesExaminesFewCandidates() {
+        List<Product> products = new ArrayList<>();
+        for (long id = 1; id <= 100_000; id++) {
+            products.add(product(id, "Product " + Long.toString(id * 7919, 36)));
+        }
+        ProductNameIndex large = new ProductNameIndex();
+        large.ensureBuilt(() -> products);
+        List<String> queries = List.of("pro", "product", "prodct 1a", "product zz", "1a");
+
+        for (String query : queries) {
+            long before = large.candidatesExamined();
+            List<Product> found = large.search(query, 10);
+            long examined = large.candidatesExamined() - before;
+            assertFalse(found.isEmpty(), query);
+            assertTrue(examined <= 500, query + " examined " + examined + " candidates");
+        }
+        assertEquals(10, large.search("prodct 1a", 10).size());
+    }
+
+    private List<Long> ids(List<Product> products) {
+        return products.stream().map(Product::getId).toList();
+    }
+
+    private static Product product(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(BigDecimal.ONE);
+        product.setQuantity(1);
+        product.setAvailable(true);
+        return product;
+    }
+}
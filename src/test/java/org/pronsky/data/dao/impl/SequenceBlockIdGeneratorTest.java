@@ -0,0 +1,103 @@
+package org.pronsky.data.dao.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.exceptions.UnableToCreateException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SequenceBlockIdGeneratorTest {
+
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private SequenceBlockIdGenerator generator;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        generator = new SequenceBlockIdGenerator(new ConnectionUtil(dataSource), "products_id_seq");
+    }
+
+    @Test
+    void testIdsComeFromReservedBlocks() throws SQLException {
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenReturn(1001L, 5001L);
+        when(resultSet.getLong(2)).thenReturn(3L);
+
+        List<Long> ids = List.of(generator.nextId(), generator.nextId(), generator.nextId(), generator.nextId());
+
+        assertEquals(List.of(1001L, 1002L, 1003L, 5001L), ids);
+        verify(statement, times(2)).executeQuery();
+        verify(statement, times(2)).setString(1, "products_id_seq");
+    }
+
+    @Test
+    void testConcurrentCallersGetUniqueIds() throws Exception {
+        AtomicLong sequence = new AtomicLong(1);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong(1)).thenAnswer(invocation -> sequence.getAndAdd(100));
+        when(resultSet.getLong(2)).thenReturn(100L);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 1_000; j++) {
+                        assertTrue(ids.add(generator.nextId()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(8_000, ids.size());
+        verify(statement, times(80)).executeQuery();
+    }
+
+    @Test
+    void testMissingSequenceIsReported() throws SQLException {
+        when(resultSet.next()).thenReturn(false);
+
+        assertThrows(UnableToCreateException.class, generator::nextId);
+    }
+
+    @Test
+    void testSharedGeneratorIsReusedPerDataSourceAndSequence() {
+        DataSource dataSource = mock(DataSource.class);
+
+        SequenceBlockIdGenerator shared = SequenceBlockIdGenerator.shared(new ConnectionUtil(dataSource), "products_id_seq");
+
+        assertSame(shared, SequenceBlockIdGenerator.shared(new ConnectionUtil(dataSource), "products_id_seq"));
+        assertNotSame(shared, SequenceBlockIdGenerator.shared(new ConnectionUtil(dataSource), "order_details_id_seq"));
+        assertNotSame(shared, SequenceBlockIdGenerator.shared(new ConnectionUtil(mock(DataSource.class)),
+                "products_id_seq"));
+    }
+}
@@ -0,0 +1,88 @@
+package org.pronsky.data.mapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.data.entities.OrderDetailsRowMapper;
+import org.pronsky.data.entities.Product;
+import org.pronsky.data.entities.ProductRowMapper;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RowMapperTest {
+
+    private ResultSet resultSet;
+    private ResultSetMetaData metaData;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        resultSet = mock(ResultSet.class);
+        metaData = mock(ResultSetMetaData.class);
+        when(resultSet.getMetaData()).thenReturn(metaData);
+    }
+
+    @Test
+    void testColumnsResolvedOnceAndReadByIndex() throws SQLException {
+        givenColumns("id", "name", "price", "quantity", "available");
+        when(resultSet.getLong(1)).thenReturn(1L, 2L);
+        when(resultSet.getString(2)).thenReturn("Soup", "Salad");
+        when(resultSet.getBigDecimal(3)).thenReturn(BigDecimal.TEN);
+        when(resultSet.getInt(4)).thenReturn(3);
+        when(resultSet.getBoolean(5)).thenReturn(true);
+        RowMapper<Product> mapper = new ProductRowMapper();
+
+        Product first = mapper.map(resultSet);
+        Product second = mapper.map(resultSet);
+
+        assertEquals(1L, first.getId());
+        assertEquals("Soup", first.getName());
+        assertEquals(BigDecimal.TEN, first.getPrice());
+        assertEquals(3, first.getQuantity());
+        assertTrue(first.isAvailable());
+        assertEquals("Salad", second.getName());
+        assertNull(first.getProductCategories());
+        verify(metaData, times(1)).getColumnCount();
+        verify(resultSet, never()).getString(anyString());
+        verify(resultSet, never()).getLong(anyString());
+    }
+
+    @Test
+    void testLabelsInAnyOrderAndMissingColumnsSkipped() throws SQLException {
+        givenColumns("order_status", "id");
+        when(resultSet.getString(1)).thenReturn("CONFIRMED");
+        when(resultSet.getLong(2)).thenReturn(7L);
+
+        OrderDetails details = new OrderDetailsRowMapper().map(resultSet);
+
+        assertEquals(7L, details.getId());
+        assertEquals(OrderDetails.OrderStatus.CONFIRMED, details.getOrderStatus());
+        assertNull(details.getTotalAmount());
+        verify(resultSet, never()).getBigDecimal(anyInt());
+    }
+
+    @Test
+    void testNullValues() throws SQLException {
+        givenColumns("id", "order_status");
+        when(resultSet.getLong(1)).thenReturn(0L);
+        when(resultSet.wasNull()).thenReturn(true);
+
+        OrderDetails details = new OrderDetailsRowMapper().map(resultSet);
+
+        assertNull(details.getId());
+        assertNull(details.getOrderStatus());
+    }
+
+    private void givenColumns(String... labels) throws SQLException {
+        when(metaData.getColumnCount()).thenReturn(labels.length);
+        for (int i = 0; i < labels.length; i++) {
+            when(metaData.getColumnLabel(i + 1)).thenReturn(labels[i]);
+        }
+    }
+}
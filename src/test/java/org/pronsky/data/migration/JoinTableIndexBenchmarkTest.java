@@ -0,0 +1,125 @@
+package org.pronsky.data.migration;
+
+import lombok.extern.log4j.Log4j2;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.connection.ConnectionPool;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.connection.PoolConfig;
+import org.pronsky.data.dao.ProductCategoryDAO;
+import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.dao.impl.ProductCategoryDAOImpl;
+import org.pronsky.data.dao.impl.ProductDAOImpl;
+import org.pronsky.data.reference.ReferenceData;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares join table lookups on the baseline schema with the same lookups after the migrations added keys
+ * and indexes, on 200 000 orders of five products each.
+ */
+@Log4j2
+@Testcontainers(disabledWithoutDocker = true)
+class JoinTableIndexBenchmarkTest {
+    private static final int PRODUCTS = 20_000;
+    private static final int ORDERS = 200_000;
+    private static final int LOOKUPS = 200;
+
+    @Container
+    public PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("test")
+            .withUsername("testuser")
+            .withPassword("testpassword");
+
+    private ConnectionPool pool;
+    private ProductDAO productDAO;
+    private ProductCategoryDAO categoryDAO;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        PoolConfig config = new PoolConfig();
+        config.setMaxSize(4);
+        pool = new ConnectionPool(() -> DriverManager.getConnection(postgreSQLContainer.getJdbcUrl(),
+                postgreSQLContainer.getUsername(), postgreSQLContainer.getPassword()), config);
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("src/main/resources/db/migration/V1__baseline.sql")));
+            statement.execute(Files.readString(Path.of("sql/data.sql")));
+            statement.execute("INSERT INTO products (name, price, quantity, available) " +
+                    "SELECT 'bench-' || g, 1.5, 1, true FROM generate_series(1, " + PRODUCTS + ") g");
+            statement.execute("INSERT INTO product_to_category (product_id, category_id) " +
+                    "SELECT p.id, 1 + p.id % 8 FROM products p WHERE p.name LIKE 'bench-%'");
+            statement.execute("INSERT INTO order_details (status_id, total_amount) " +
+                    "SELECT 1, 10 FROM generate_series(1, " + ORDERS + ")");
+            statement.execute("INSERT INTO details_to_products (order_details_id, product_id) " +
+                    "SELECT o.id, 1 + (o.id * 7 + k) % " + PRODUCTS + " FROM order_details o, generate_series(1, 5) k");
+            statement.execute("ANALYZE");
+        }
+        ConnectionUtil connectionUtil = new ConnectionUtil(pool);
+        productDAO = new ProductDAOImpl(connectionUtil);
+        categoryDAO = new ProductCategoryDAOImpl(connectionUtil, ReferenceData.load(connectionUtil));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testIndexesSpeedUpJoinTableLookups() throws SQLException {
+        long baselineMicros = lookups();
+        assertFalse(usesIndex("SELECT * FROM details_to_products WHERE order_details_id = 42"));
+
+        MigrationRunner runner = new MigrationRunner(pool);
+        assertEquals(MigrationRunner.loadMigrations(MigrationRunner.DEFAULT_LOCATION).size(), runner.migrate());
+        assertEquals(0, runner.migrate());
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+        long indexedMicros = lookups();
+
+        log.info("{} lookups: baseline {} us, indexed {} us", LOOKUPS, baselineMicros, indexedMicros);
+        assertTrue(usesIndex("SELECT * FROM details_to_products WHERE order_details_id = 42"));
+        assertTrue(usesIndex("SELECT * FROM details_to_products WHERE product_id = 42"));
+        assertTrue(usesIndex("SELECT * FROM product_to_category WHERE product_id = 42"));
+    }
+
+    private long lookups() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            assertFalse(productDAO.getAllByOrderId(1 + random.nextInt(ORDERS)).isEmpty());
+            assertFalse(categoryDAO.getAllByProductId(1L + random.nextInt(PRODUCTS)).isEmpty());
+        }
+        return (System.nanoTime() - start) / 1_000;
+    }
+
+    private boolean usesIndex(String query) throws SQLException {
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet plan = statement.executeQuery("EXPLAIN " + query)) {
+            StringBuilder text = new StringBuilder();
+            while (plan.next()) {
+                text.append(plan.getString(1));
+            }
+            return text.toString().contains("Index");
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.pronsky.data.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.exceptions.MigrationException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class MigrationRunnerTest {
+
+    private List<Migration> migrations;
+    private Connection connection;
+    private Statement statement;
+    private PreparedStatement preparedStatement;
+    private ResultSet history;
+    private MigrationRunner runner;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        migrations = MigrationRunner.loadMigrations(MigrationRunner.DEFAULT_LOCATION);
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(Statement.class);
+        preparedStatement = mock(PreparedStatement.class);
+        history = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+        when(connection.getAutoCommit()).thenReturn(true);
+        when(statement.executeQuery(anyString())).thenReturn(history);
+        runner = new MigrationRunner(dataSource);
+    }
+
+    @Test
+    void testMigrationsAreLoadedInVersionOrder() {
+        assertTrue(migrations.size() >= 2);
+        for (int i = 0; i < migrations.size(); i++) {
+            assertEquals(i + 1, migrations.get(i).getVersion());
+            assertFalse(migrations.get(i).getScript().isBlank());
+        }
+        assertEquals("baseline", migrations.get(0).getDescription());
+        assertEquals(migrations, MigrationRunner.loadMigrations(MigrationRunner.DEFAULT_LOCATION));
+    }
+
+    @Test
+    void testOnlyPendingMigrationsAreApplied() throws SQLException {
+        Migration first = migrations.get(0);
+        when(history.next()).thenReturn(true, false);
+        when(history.getInt("version")).thenReturn(first.getVersion());
+        when(history.getLong("checksum")).thenReturn(first.getChecksum());
+
+        assertEquals(migrations.size() - 1, runner.migrate());
+        verify(statement, never()).execute(first.getScript());
+        verify(statement, times(1)).execute(migrations.get(1).getScript());
+        verify(connection, times(migrations.size() - 1)).commit();
+        verify(connection, times(2)).prepareStatement(startsWith("SELECT pg_advisory_"));
+    }
+
+    @Test
+    void testChangedMigrationStopsRun() throws SQLException {
+        Migration first = migrations.get(0);
+        when(history.next()).thenReturn(true, false);
+        when(history.getInt("version")).thenReturn(first.getVersion());
+        when(history.getLong("checksum")).thenReturn(first.getChecksum() + 1);
+
+        assertThrows(MigrationException.class, () -> runner.migrate());
+        verify(connection, never()).commit();
+        verify(connection).prepareStatement("SELECT pg_advisory_unlock(?)");
+    }
+
+    @Test
+    void testFailedMigrationIsRolledBack() throws SQLException {
+        when(history.next()).thenReturn(false);
+        when(statement.execute(migrations.get(0).getScript())).thenThrow(new SQLException("syntax error"));
+
+        assertThrows(MigrationException.class, () -> runner.migrate());
+        verify(connection, times(1)).rollback();
+        verify(connection, never()).commit();
+        verify(connection).setAutoCommit(true);
+    }
+
+    @Test
+    void testMissingLocationIsRejected() {
+        assertThrows(MigrationException.class, () -> MigrationRunner.loadMigrations("db/missing"));
+    }
+}
@@ -0,0 +1,87 @@
+package org.pronsky.data.migration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.entities.OrderDetails.OrderStatus;
+import org.pronsky.data.entities.ProductCategory.CategoryType;
+import org.pronsky.data.reference.ReferenceData;
+import org.pronsky.exceptions.UnableToUpdateException;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OrderPartitionMaintenanceTest {
+
+    private static final ReferenceData REFERENCE_DATA = ReferenceData.of(
+            Map.of(1L, OrderStatus.OPEN, 2L, OrderStatus.CONFIRMED, 3L, OrderStatus.COMPLETED,
+                    4L, OrderStatus.CANCELLED),
+            Map.of(1L, CategoryType.PERISHABLE, 2L, CategoryType.LONG_TERM, 3L, CategoryType.FRIDGE_STORAGE,
+                    4L, CategoryType.FREEZER_STORAGE, 5L, CategoryType.PANTRY_STORAGE));
+
+    private Connection connection;
+    private PreparedStatement statement;
+    private ResultSet resultSet;
+    private OrderPartitionMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        connection = mock(Connection.class);
+        statement = mock(PreparedStatement.class);
+        resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        maintenance = new OrderPartitionMaintenance(new ConnectionUtil(dataSource), REFERENCE_DATA, 3,
+                Duration.ofDays(90));
+    }
+
+    @Test
+    void testArchivesClosedOrdersOlderThanConfiguredAge() throws SQLException {
+        Array array = mock(Array.class);
+        when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenReturn(array);
+        when(resultSet.getInt(1)).thenReturn(12);
+        Instant now = Instant.parse("2026-10-17T00:00:00Z");
+
+        assertEquals(12, maintenance.archiveClosedOrders(now));
+
+        verify(connection).prepareStatement(OrderPartitionMaintenance.ARCHIVE_CLOSED_ORDERS);
+        verify(connection).createArrayOf("bigint", new Object[]{3L, 4L});
+        verify(statement).setArray(1, array);
+        verify(statement).setTimestamp(2, Timestamp.from(Instant.parse("2026-07-19T00:00:00Z")));
+        verify(connection).close();
+    }
+
+    @Test
+    void testCreatesPartitionsAhead() throws SQLException {
+        when(resultSet.getInt(1)).thenReturn(2);
+
+        assertEquals(2, maintenance.createPartitions());
+
+        verify(connection).prepareStatement("SELECT create_order_partitions(?)");
+        verify(statement).setInt(1, 3);
+    }
+
+    @Test
+    void testFailureIsReported() throws SQLException {
+        when(statement.executeQuery()).thenThrow(new SQLException("relation does not exist"));
+
+        assertThrows(UnableToUpdateException.class, maintenance::createPartitions);
+    }
+}
@@ -0,0 +1,72 @@
+package org.pronsky.data.reference;
+
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.entities.OrderDetails.OrderStatus;
+import org.pronsky.data.entities.ProductCategory.CategoryType;
+import org.pronsky.exceptions.ReferenceDataException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+class ReferenceDataTest {
+
+    private static final Map<Long, CategoryType> TYPES = Map.of(1L, CategoryType.PERISHABLE,
+            2L, CategoryType.LONG_TERM, 3L, CategoryType.FRIDGE_STORAGE, 4L, CategoryType.FREEZER_STORAGE,
+            5L, CategoryType.PANTRY_STORAGE);
+
+    @Test
+    void testLookupsWorkInBothDirections() {
+        ReferenceData referenceData = ReferenceData.of(Map.of(7L, OrderStatus.CANCELLED, 8L, OrderStatus.OPEN,
+                9L, OrderStatus.CONFIRMED, 10L, OrderStatus.COMPLETED), TYPES);
+
+        assertEquals(OrderStatus.CANCELLED, referenceData.orderStatus(7L));
+        assertEquals(8L, referenceData.idOf(OrderStatus.OPEN));
+        assertEquals(CategoryType.FRIDGE_STORAGE, referenceData.categoryType(3L));
+        assertEquals(5L, referenceData.idOf(CategoryType.PANTRY_STORAGE));
+        assertThrows(ReferenceDataException.class, () -> referenceData.orderStatus(1L));
+        assertThrows(ReferenceDataException.class, () -> referenceData.categoryType(42L));
+    }
+
+    @Test
+    void testMissingOrDuplicateRowsAreRejected() {
+        Map<Long, OrderStatus> missing = Map.of(1L, OrderStatus.OPEN, 2L, OrderStatus.CONFIRMED,
+                3L, OrderStatus.COMPLETED);
+        ReferenceDataException exception = assertThrows(ReferenceDataException.class,
+                () -> ReferenceData.of(missing, TYPES));
+        assertTrue(exception.getMessage().contains("CANCELLED"));
+
+        Map<Long, OrderStatus> duplicate = new HashMap<>(missing);
+        duplicate.put(4L, OrderStatus.CANCELLED);
+        duplicate.put(5L, OrderStatus.OPEN);
+        assertThrows(ReferenceDataException.class, () -> ReferenceData.of(duplicate, TYPES));
+    }
+
+    @Test
+    void testLoadRejectsRowWithoutEnumConstant() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true, false);
+        when(resultSet.getLong("id")).thenReturn(1L);
+        when(resultSet.getString("name")).thenReturn("REFUNDED");
+
+        assertThrows(ReferenceDataException.class, () -> ReferenceData.load(new ConnectionUtil(dataSource)));
+        verify(connection).prepareStatement(contains("FROM order_statuses"));
+        verify(connection).close();
+    }
+}
@@ -0,0 +1,90 @@
+package org.pronsky.data.repository.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.exceptions.UnableToFindException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLoaderTest {
+
+    private List<List<Long>> batches;
+    private BatchLoader<Long, String> loader;
+
+    @BeforeEach
+    void setUp() {
+        batches = new ArrayList<>();
+        loader = new BatchLoader<>(this::lookUp, () -> "missing");
+    }
+
+    @Test
+    void testKeysAreDeduplicatedIntoOneBatch() {
+        CompletableFuture<String> first = loader.load(1L);
+        CompletableFuture<String> second = loader.load(2L);
+        CompletableFuture<String> again = loader.load(1L);
+        assertFalse(first.isDone());
+        loader.dispatch();
+        assertEquals(List.of(List.of(1L, 2L)), batches);
+        assertSame(first, again);
+        assertEquals("value-1", first.join());
+        assertEquals("value-2", second.join());
+    }
+
+    @Test
+    void testLoadedKeysAreNotFetchedAgain() {
+        loader.load(1L);
+        loader.dispatch();
+        CompletableFuture<String> cached = loader.load(1L);
+        loader.dispatch();
+        assertTrue(cached.isDone());
+        assertEquals(1, batches.size());
+    }
+
+    @Test
+    void testMissingKeysGetDefaultValue() {
+        CompletableFuture<String> future = loader.load(-1L);
+        loader.dispatch();
+        assertEquals("missing", future.join());
+    }
+
+    @Test
+    void testKeysQueuedByCallbacksAreDispatchedInNextBatch() {
+        List<String> values = new ArrayList<>();
+        loader.load(1L).thenAccept(value -> loader.load(3L).thenAccept(values::add));
+        loader.dispatch();
+        assertEquals(List.of(List.of(1L), List.of(3L)), batches);
+        assertEquals(List.of("value-3"), values);
+    }
+
+    @Test
+    void testBatchFailureFailsPendingFutures() {
+        BatchLoader<Long, String> failing = new BatchLoader<>(keys -> {
+            throw new UnableToFindException("failed");
+        }, () -> null);
+        CompletableFuture<String> future = failing.load(1L);
+        assertThrows(UnableToFindException.class, failing::dispatch);
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void testDispatchWithoutKeysDoesNothing() {
+        loader.dispatch();
+        assertTrue(batches.isEmpty());
+    }
+
+    private Map<Long, String> lookUp(Collection<Long> keys) {
+        batches.add(List.copyOf(keys));
+        Map<Long, String> values = new HashMap<>();
+        keys.stream()
+                .filter(key -> key > 0)
+                .forEach(key -> values.put(key, "value-" + key));
+        return values;
+    }
+}
@@ -12,12 +12,14 @@ import org.pronsky.data.dao.ProductDAO;
 import org.pronsky.data.entities.OrderDetails;
 import org.pronsky.data.entities.Product;
 import org.pronsky.data.entities.ProductCategory;
+import org.pronsky.data.repository.FetchPlan;
 import org.pronsky.exceptions.UnableToFindException;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -133,16 +135,19 @@ class OrderDetailRepositoryImplTest {
     @Test
     void testFindByIdPositive() {
         when(orderDetailsDAO.getById(EXISTING_ID)).thenReturn(orderDetails);
-        when(productDAO.getAllByOrderId(EXISTING_ID)).thenReturn(productList);
-        when(productCategoryDAO.getAllByProductId(EXISTING_ID)).thenReturn(categorySet);
+        when(productDAO.getAllByOrderIds(List.of(EXISTING_ID))).thenReturn(Map.of(EXISTING_ID, productList));
+        when(productCategoryDAO.getAllByProductIds(List.of(EXISTING_ID, ANOTHER_EXISTING_ID)))
+                .thenReturn(Map.of(EXISTING_ID, categorySet, ANOTHER_EXISTING_ID, anotherCategoryList));
         OrderDetails result = orderDetailRepository.findById(EXISTING_ID);
         assertNotNull(result);
         assertEquals(EXISTING_ID, result.getId());
         assertEquals(2, result.getProducts().size());
         assertEquals(categorySet, result.getProducts().get(0).getProductCategories());
         verify(orderDetailsDAO, times(1)).getById(EXISTING_ID);
-        verify(productDAO, times(1)).getAllByOrderId(EXISTING_ID);
-        verify(productCategoryDAO, times(1)).getAllByProductId(EXISTING_ID);
+        verify(productDAO, times(1)).getAllByOrderIds(anyCollection());
+        verify(productCategoryDAO, times(1)).getAllByProductIds(anyCollection());
+        verify(productDAO, never()).getAllByOrderId(anyLong());
+        verify(productCategoryDAO, never()).getAllByProductId(anyLong());
     }
 
     @Test
@@ -154,20 +159,87 @@ class OrderDetailRepositoryImplTest {
     @Test
     void testFindAll() {
         when(orderDetailsDAO.getAll()).thenReturn(orderDetailsList);
-        when(productDAO.getAllByOrderId(EXISTING_ID)).thenReturn(productList);
-        when(productDAO.getAllByOrderId(ANOTHER_EXISTING_ID)).thenReturn(anotherProductList);
-        when(productCategoryDAO.getAllByProductId(EXISTING_ID)).thenReturn(categorySet);
-        when(productCategoryDAO.getAllByProductId(ANOTHER_EXISTING_ID)).thenReturn(anotherCategoryList);
+        when(productDAO.getAllByOrderIds(List.of(EXISTING_ID, ANOTHER_EXISTING_ID)))
+                .thenReturn(Map.of(EXISTING_ID, productList, ANOTHER_EXISTING_ID, anotherProductList));
+        when(productCategoryDAO.getAllByProductIds(anyCollection()))
+                .thenReturn(Map.of(EXISTING_ID, categorySet, ANOTHER_EXISTING_ID, anotherCategoryList));
         List<OrderDetails> result = orderDetailRepository.findAll();
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals(categorySet, result.get(0).getProducts().get(0).getProductCategories());
         assertEquals(anotherCategoryList, result.get(1).getProducts().get(0).getProductCategories());
         verify(orderDetailsDAO, times(1)).getAll();
-        verify(productDAO, times(1)).getAllByOrderId(EXISTING_ID);
-        verify(productDAO, times(1)).getAllByOrderId(ANOTHER_EXISTING_ID);
-        verify(productCategoryDAO, times(2)).getAllByProductId(EXISTING_ID);
-        verify(productCategoryDAO, times(2)).getAllByProductId(ANOTHER_EXISTING_ID);
+        verify(productDAO, times(1)).getAllByOrderIds(anyCollection());
+        verify(productCategoryDAO, times(1)).getAllByProductIds(anyCollection());
+    }
+
+    @Test
+    void testFindByIds() {
+        when(orderDetailsDAO.getByIds(List.of(EXISTING_ID, NOT_EXISTING_ID))).thenReturn(List.of(orderDetails));
+        when(productDAO.getAllByOrderIds(List.of(EXISTING_ID))).thenReturn(Map.of(EXISTING_ID, productList));
+        when(productCategoryDAO.getAllByProductIds(anyCollection())).thenReturn(Map.of(EXISTING_ID, categorySet));
+        List<OrderDetails> result = orderDetailRepository.findByIds(List.of(EXISTING_ID, NOT_EXISTING_ID));
+        assertEquals(1, result.size());
+        assertEquals(productList, result.get(0).getProducts());
+        verify(orderDetailsDAO, times(1)).getByIds(anyCollection());
+        verify(productDAO, times(1)).getAllByOrderIds(anyCollection());
+        verify(productCategoryDAO, times(1)).getAllByProductIds(anyCollection());
+    }
+
+    @Test
+    void testFindPage() {
+        when(orderDetailsDAO.getPage(0L, 2)).thenReturn(orderDetailsList);
+        when(productDAO.getAllByOrderIds(List.of(EXISTING_ID, ANOTHER_EXISTING_ID)))
+                .thenReturn(Map.of(EXISTING_ID, productList));
+        when(productCategoryDAO.getAllByProductIds(anyCollection())).thenReturn(Map.of());
+        List<OrderDetails> result = orderDetailRepository.findPage(0L, 2);
+        assertEquals(2, result.size());
+        assertEquals(productList, result.get(0).getProducts());
+        assertTrue(result.get(1).getProducts().isEmpty());
+        verify(orderDetailsDAO, times(1)).getPage(0L, 2);
+        verify(orderDetailsDAO, never()).getAll();
+    }
+
+    @Test
+    void testFindAllWithoutProductsSkipsAssociationQueries() {
+        OrderDetails order = new OrderDetails();
+        order.setId(EXISTING_ID);
+        when(orderDetailsDAO.getAll()).thenReturn(List.of(order));
+        List<OrderDetails> result = orderDetailRepository.findAll(FetchPlan.ORDER);
+        assertEquals(1, result.size());
+        assertNull(result.get(0).getProducts());
+        verify(productDAO, never()).getAllByOrderIds(anyCollection());
+        verify(productCategoryDAO, never()).getAllByProductIds(anyCollection());
+    }
+
+    @Test
+    void testFindByIdWithProductsSkipsCategoryQuery() {
+        OrderDetails order = new OrderDetails();
+        order.setId(EXISTING_ID);
+        Product product = new Product();
+        product.setId(EXISTING_ID);
+        when(orderDetailsDAO.getById(EXISTING_ID)).thenReturn(order);
+        when(productDAO.getAllByOrderIds(List.of(EXISTING_ID)))
+                .thenReturn(Map.of(EXISTING_ID, new ArrayList<>(List.of(product))));
+        OrderDetails result = orderDetailRepository.findById(EXISTING_ID, FetchPlan.PRODUCTS);
+        assertEquals(List.of(product), result.getProducts());
+        assertNull(result.getProducts().get(0).getProductCategories());
+        verify(productCategoryDAO, never()).getAllByProductIds(anyCollection());
+    }
+
+    @Test
+    void testFindByIdKeepsProductsReadByDao() {
+        OrderDetails order = new OrderDetails();
+        order.setId(EXISTING_ID);
+        Product product = new Product();
+        product.setId(EXISTING_ID);
+        order.setProducts(List.of(product));
+        when(orderDetailsDAO.getById(EXISTING_ID)).thenReturn(order);
+        when(orderDetailsDAO.readsProducts()).thenReturn(true);
+        OrderDetails result = orderDetailRepository.findById(EXISTING_ID);
+        assertEquals(List.of(product), result.getProducts());
+        verify(productDAO, never()).getAllByOrderIds(anyCollection());
+        verify(productCategoryDAO, never()).getAllByProductIds(anyCollection());
     }
 
     @Test
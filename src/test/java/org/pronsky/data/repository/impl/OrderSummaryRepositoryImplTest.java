@@ -0,0 +1,43 @@
+package org.pronsky.data.repository.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pronsky.data.dao.OrderSummaryDAO;
+import org.pronsky.data.entities.OrderSummary;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class OrderSummaryRepositoryImplTest {
+
+    @Mock
+    private OrderSummaryDAO orderSummaryDAO;
+
+    @InjectMocks
+    private OrderSummaryRepositoryImpl orderSummaryRepository;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testFindPage() {
+        List<OrderSummary> page = List.of(new OrderSummary(), new OrderSummary());
+        when(orderSummaryDAO.getPage(10L, 2)).thenReturn(page);
+        assertEquals(page, orderSummaryRepository.findPage(10L, 2));
+        verify(orderSummaryDAO, never()).getAll();
+    }
+
+    @Test
+    void testRebuild() {
+        when(orderSummaryDAO.rebuild()).thenReturn(5);
+        assertEquals(5, orderSummaryRepository.rebuild());
+        verify(orderSummaryDAO, times(1)).rebuild();
+    }
+}
@@ -0,0 +1,127 @@
+package org.pronsky.data.repository.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.entities.FacetedProducts;
+import org.pronsky.data.entities.Product;
+import org.pronsky.data.entities.ProductCategory;
+import org.pronsky.data.entities.ProductCategory.CategoryType;
+import org.pronsky.data.entities.ProductFilter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductFacetIndexTest {
+
+    private ProductCategory fish;
+    private ProductCategory bakery;
+    private ProductFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        fish = category(1L, "FISH", CategoryType.PERISHABLE, CategoryType.FRIDGE_STORAGE);
+        bakery = category(2L, "BAKERY", CategoryType.PANTRY_STORAGE);
+        index = new ProductFacetIndex();
+        index.ensureBuilt(() -> List.of(
+                product(1L, "Salmon", "12.50", true, fish),
+                product(2L, "Cod", "8.00", true, fish),
+                product(3L, "Trout", "6.00", false, fish),
+                product(4L, "Bread", "2.00", true, bakery)));
+    }
+
+    @Test
+    void testCombinedFilterIntersectsFacets() {
+        ProductFilter filter = new ProductFilter();
+        filter.setCategory("FISH");
+        filter.setType(CategoryType.FRIDGE_STORAGE);
+        filter.setAvailable(true);
+        filter.setMaxPrice(new BigDecimal("10"));
+
+        FacetedProducts result = index.filter(filter);
+
+        assertEquals(List.of(2L), ids(result));
+        assertEquals(Map.of("FISH", 1), result.getCategoryCounts());
+        assertEquals(Map.of("true", 1), result.getAvailabilityCounts());
+    }
+
+    @Test
+    void testEmptyFilterCountsEveryFacet() {
+        FacetedProducts result = index.filter(new ProductFilter());
+
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(result));
+        assertEquals(Map.of("FISH", 3, "BAKERY", 1), result.getCategoryCounts());
+        assertEquals(3, result.getTypeCounts().get("PERISHABLE"));
+        assertEquals(Map.of("true", 3, "false", 1), result.getAvailabilityCounts());
+    }
+
+    @Test
+    void testPriceRangeIsInclusive() {
+        ProductFilter filter = new ProductFilter();
+        filter.setMinPrice(new BigDecimal("6.0"));
+        filter.setMaxPrice(new BigDecimal("8"));
+
+        assertEquals(List.of(2L, 3L), ids(index.filter(filter)));
+    }
+
+    @Test
+    void testPutReplacesIndexedState() {
+        index.put(product(4L, "Bread", "2.00", false, bakery));
+        index.put(product(5L, "Herring", "3.00", true, fish));
+        ProductFilter filter = new ProductFilter();
+        filter.setAvailable(false);
+
+        assertEquals(List.of(3L, 4L), ids(index.filter(filter)));
+        filter.setAvailable(null);
+        filter.setCategory("FISH");
+        assertEquals(List.of(1L, 2L, 3L, 5L), ids(index.filter(filter)));
+    }
+
+    @Test
+    void testRemovedSlotIsReused() {
+        index.remove(2L);
+        index.put(product(6L, "Rye", "3.00", true, bakery));
+        ProductFilter filter = new ProductFilter();
+        filter.setCategory("FISH");
+
+        assertEquals(List.of(1L, 3L), ids(index.filter(filter)));
+        assertEquals(4, index.filter(new ProductFilter()).getProducts().size());
+    }
+
+    @Test
+    void testUpdatesAreIgnoredUntilBuilt() {
+        ProductFacetIndex empty = new ProductFacetIndex();
+        empty.put(product(1L, "Salmon", "12.50", true, fish));
+        assertFalse(empty.isBuilt());
+        index.invalidate();
+        assertFalse(index.isBuilt());
+        index.ensureBuilt(List::of);
+        assertTrue(index.filter(new ProductFilter()).getProducts().isEmpty());
+    }
+
+    private List<Long> ids(FacetedProducts result) {
+        return result.getProducts().stream().map(Product::getId).toList();
+    }
+
+    private static ProductCategory category(Long id, String name, CategoryType... types) {
+        ProductCategory category = new ProductCategory();
+        category.setId(id);
+        category.setName(name);
+        category.setTypes(Set.of(types));
+        return category;
+    }
+
+    private static Product product(Long id, String name, String price, boolean available, ProductCategory category) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setQuantity(1);
+        product.setAvailable(available);
+        product.setProductCategories(Set.of(category));
+        return product;
+    }
+}
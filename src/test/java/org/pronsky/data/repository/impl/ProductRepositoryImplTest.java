@@ -3,19 +3,22 @@ package org.pronsky.data.repository.impl;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.pronsky.data.dao.ProductCategoryDAO;
 import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.entities.FacetedProducts;
 import org.pronsky.data.entities.Product;
 import org.pronsky.data.entities.ProductCategory;
+import org.pronsky.data.entities.ProductFilter;
 import org.pronsky.exceptions.UnableToFindException;
 
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -42,12 +45,14 @@ class ProductRepositoryImplTest {
     @Mock
     private ProductCategoryDAO categoryDAO;
 
-    @InjectMocks
+    private ProductFacetIndex facetIndex;
     private ProductRepositoryImpl productRepository;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        facetIndex = new ProductFacetIndex();
+        productRepository = new ProductRepositoryImpl(productDAO, categoryDAO, facetIndex);
     }
 
     @BeforeAll
@@ -137,16 +142,119 @@ class ProductRepositoryImplTest {
     @Test
     void testFindAll() {
         when(productDAO.getAll()).thenReturn(existingProducts);
-        when(categoryDAO.getAllByProductId(1L)).thenReturn(categorySet);
-        when(categoryDAO.getAllByProductId(2L)).thenReturn(anotherCategorySet);
+        when(categoryDAO.getAllByProductIds(List.of(EXISTING_ID, ANOTHER_EXISTING_ID)))
+                .thenReturn(Map.of(EXISTING_ID, categorySet, ANOTHER_EXISTING_ID, anotherCategorySet));
         List<Product> result = productRepository.findAll();
         assertNotNull(result);
         assertEquals(2, result.size());
         assertEquals(categorySet, result.get(0).getProductCategories());
         assertEquals(anotherCategorySet, result.get(1).getProductCategories());
         verify(productDAO, times(1)).getAll();
-        verify(categoryDAO, times(1)).getAllByProductId(1L);
-        verify(categoryDAO, times(1)).getAllByProductId(2L);
+        verify(categoryDAO, times(1)).getAllByProductIds(anyCollection());
+        verify(categoryDAO, never()).getAllByProductId(anyLong());
+    }
+
+    @Test
+    void testFindByIds() {
+        when(productDAO.getByIds(List.of(EXISTING_ID, ANOTHER_EXISTING_ID))).thenReturn(existingProducts);
+        when(categoryDAO.getAllByProductIds(List.of(EXISTING_ID, ANOTHER_EXISTING_ID)))
+                .thenReturn(Map.of(EXISTING_ID, categorySet));
+        List<Product> result = productRepository.findByIds(List.of(EXISTING_ID, ANOTHER_EXISTING_ID));
+        assertEquals(2, result.size());
+        assertEquals(categorySet, result.get(0).getProductCategories());
+        assertTrue(result.get(1).getProductCategories().isEmpty());
+        verify(productDAO, times(1)).getByIds(anyCollection());
+        verify(categoryDAO, times(1)).getAllByProductIds(anyCollection());
+        verify(categoryDAO, never()).getAllByProductId(anyLong());
+    }
+
+    @Test
+    void testFindPage() {
+        when(productDAO.getPage(EXISTING_ID, 2)).thenReturn(existingProducts);
+        when(categoryDAO.getAllByProductIds(List.of(EXISTING_ID, ANOTHER_EXISTING_ID)))
+                .thenReturn(Map.of(ANOTHER_EXISTING_ID, anotherCategorySet));
+        List<Product> result = productRepository.findPage(EXISTING_ID, 2);
+        assertEquals(2, result.size());
+        assertEquals(anotherCategorySet, result.get(1).getProductCategories());
+        verify(productDAO, times(1)).getPage(EXISTING_ID, 2);
+        verify(productDAO, never()).getAll();
+    }
+
+    @Test
+    void testSearchByNameDelegatesToDao() {
+        when(productDAO.searchByName("exist", 10)).thenReturn(existingProducts);
+        assertEquals(existingProducts, productRepository.searchByName("exist", 10));
+        verify(productDAO, times(1)).searchByName("exist", 10);
+    }
+
+    @Test
+    void testFindByFilterBuildsIndexOnceAndFollowsWrites() {
+        when(productDAO.getAll()).thenReturn(new ArrayList<>(existingProducts));
+        when(categoryDAO.getAllByProductIds(anyCollection()))
+                .thenReturn(Map.of(EXISTING_ID, categorySet, ANOTHER_EXISTING_ID, anotherCategorySet));
+        ProductFilter filter = new ProductFilter();
+        filter.setCategory("Existing");
+        filter.setMaxPrice(BigDecimal.valueOf(12));
+
+        FacetedProducts result = productRepository.findByFilter(filter);
+        assertEquals(List.of(existingProduct), result.getProducts());
+        assertEquals(1, result.getCategoryCounts().get("Another existing"));
+
+        when(productDAO.create(notExistingProduct)).thenReturn(createdProduct);
+        when(productDAO.getById(3L)).thenReturn(createdProduct);
+        when(categoryDAO.getAllByProductId(3L)).thenReturn(categorySet);
+        productRepository.save(notExistingProduct);
+        filter.setMaxPrice(null);
+        assertEquals(3, productRepository.findByFilter(filter).getProducts().size());
+
+        productRepository.delete(3L);
+        assertEquals(2, productRepository.findByFilter(filter).getProducts().size());
+        verify(productDAO, times(1)).getAll();
+    }
+
+    @Test
+    void testFilterFollowsWritesOfAnotherInstance() {
+        when(productDAO.getAll()).thenReturn(new ArrayList<>(existingProducts));
+        when(categoryDAO.getAllByProductIds(anyCollection()))
+                .thenReturn(Map.of(EXISTING_ID, categorySet, ANOTHER_EXISTING_ID, anotherCategorySet));
+        ProductRepositoryImpl otherRepository = new ProductRepositoryImpl(productDAO, categoryDAO, facetIndex);
+        ProductFilter filter = new ProductFilter();
+        assertEquals(2, productRepository.findByFilter(filter).getProducts().size());
+
+        when(productDAO.create(notExistingProduct)).thenReturn(createdProduct);
+        when(productDAO.getById(3L)).thenReturn(createdProduct);
+        when(categoryDAO.getAllByProductId(3L)).thenReturn(categorySet);
+        otherRepository.save(notExistingProduct);
+        assertEquals(3, productRepository.findByFilter(filter).getProducts().size());
+
+        otherRepository.delete(EXISTING_ID);
+        assertEquals(2, productRepository.findByFilter(filter).getProducts().size());
+
+        otherRepository.importCsv(new StringReader("name,price,quantity,available,categories\n"));
+        productRepository.findByFilter(filter);
+        verify(productDAO, times(2)).getAll();
+    }
+
+    @Test
+    void testSaveCommittedWhileIndexIsBuiltIsNotLost() throws InterruptedException {
+        when(productDAO.create(notExistingProduct)).thenReturn(createdProduct);
+        when(productDAO.getById(3L)).thenReturn(createdProduct);
+        when(categoryDAO.getAllByProductId(3L)).thenReturn(categorySet);
+        when(categoryDAO.getAllByProductIds(anyCollection()))
+                .thenReturn(Map.of(EXISTING_ID, categorySet, ANOTHER_EXISTING_ID, anotherCategorySet));
+        Thread writer = new Thread(() -> productRepository.save(notExistingProduct));
+        when(productDAO.getAll()).thenAnswer(invocation -> {
+            writer.start();
+            while (writer.getState() != Thread.State.WAITING && writer.getState() != Thread.State.TERMINATED) {
+                Thread.onSpinWait();
+            }
+            return new ArrayList<>(existingProducts);
+        });
+
+        productRepository.findByFilter(new ProductFilter());
+        writer.join();
+
+        assertEquals(3, productRepository.findByFilter(new ProductFilter()).getProducts().size());
     }
 
     @Test
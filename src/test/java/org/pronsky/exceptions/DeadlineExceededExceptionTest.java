@@ -0,0 +1,55 @@
+package org.pronsky.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlineExceededExceptionTest {
+    @Test
+    void testDefaultConstructor() {
+        DeadlineExceededException exception = new DeadlineExceededException();
+        assertNull(exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void testMessageConstructor() {
+        String message = "Test message";
+        DeadlineExceededException exception = new DeadlineExceededException(message);
+        assertEquals(message, exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void testExceptionConstructor() {
+        Exception cause = new Exception("Cause exception");
+        DeadlineExceededException exception = new DeadlineExceededException(cause);
+        assertEquals("java.lang.Exception: Cause exception", exception.getMessage());
+        assertSame(cause, exception.getCause());
+    }
+
+    @Test
+    void testMessageAndCauseConstructor() {
+        String message = "Test message";
+        Throwable cause = new RuntimeException("Cause exception");
+        DeadlineExceededException exception = new DeadlineExceededException(message, cause);
+        assertEquals(message, exception.getMessage());
+        assertSame(cause, exception.getCause());
+    }
+
+    @Test
+    void testThrowableConstructor() {
+        Throwable cause = new RuntimeException("Cause exception");
+        DeadlineExceededException exception = new DeadlineExceededException(cause);
+        assertEquals("java.lang.RuntimeException: Cause exception", exception.getMessage());
+        assertSame(cause, exception.getCause());
+    }
+
+    @Test
+    void testExceptionThrown() {
+        String message = "Test exception";
+        assertThrows(DeadlineExceededException.class, () -> {
+            throw new DeadlineExceededException(message);
+        });
+    }
+}
@@ -0,0 +1,55 @@
+package org.pronsky.exceptions;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReferenceDataExceptionTest {
+    @Test
+    void testDefaultConstructor() {
+        ReferenceDataException exception = new ReferenceDataException();
+        assertNull(exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void testMessageConstructor() {
+        String message = "Test message";
+        ReferenceDataException exception = new ReferenceDataException(message);
+        assertEquals(message, exception.getMessage());
+        assertNull(exception.getCause());
+    }
+
+    @Test
+    void testExceptionConstructor() {
+        Exception cause = new Exception("Cause exception");
+        ReferenceDataException exception = new ReferenceDataException(cause);
+        assertEquals("java.lang.Exception: Cause exception", exception.getMessage());
+        assertSame(cause, exception.getCause());
+    }
+
+    @Test
+    void testMessageAndCauseConstructor() {
+        String message = "Test message";
+        Throwable cause = new RuntimeException("Cause exception");
+        ReferenceDataException exception = new ReferenceDataException(message, cause);
+        assertEquals(message, exception.getMessage());
+        assertSame(cause, exception.getCause());
+    }
+
+    @Test
+    void testThrowableConstructor() {
+        Throwable cause = new RuntimeException("Cause exception");
+        ReferenceDataException exception = new ReferenceDataException(cause);
+        assertEquals("java.lang.RuntimeException: Cause exception", exception.getMessage());
+        assertSame(cause, exception.getCause());
+    }
+
+    @Test
+    void testExceptionThrown() {
+        String message = "Test exception";
+        assertThrows(ReferenceDataException.class, () -> {
+            throw new ReferenceDataException(message);
+        });
+    }
+}
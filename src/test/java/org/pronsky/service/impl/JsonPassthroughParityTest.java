@@ -0,0 +1,146 @@
+package org.pronsky.service.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.dao.OrderDetailsDAO;
+import org.pronsky.data.dao.ProductCategoryDAO;
+import org.pronsky.data.dao.ProductDAO;
+import org.pronsky.data.dao.impl.OrderDetailsDAOImpl;
+import org.pronsky.data.dao.impl.ProductCategoryDAOImpl;
+import org.pronsky.data.dao.impl.ProductDAOImpl;
+import org.pronsky.data.migration.MigrationRunner;
+import org.pronsky.data.reference.ReferenceData;
+import org.pronsky.data.repository.impl.OrderDetailRepositoryImpl;
+import org.pronsky.data.repository.impl.ProductRepositoryImpl;
+import org.pronsky.service.OrderDetailsService;
+import org.pronsky.service.ProductService;
+import org.pronsky.service.mapper.Mapper;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the JSON built by PostgreSQL matches the Jackson serialization of the DTOs.
+ * Only the order of the arrays without a defined order is ignored: the listings, because getAll does not sort, and
+ * the categories and types, which the DTOs hold in sets. The products of an order are compared in order.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class JsonPassthroughParityTest {
+
+    private static final Set<String> UNORDERED_FIELDS = Set.of("productCategories", "types");
+
+    @Container
+    public PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("test")
+            .withUsername("testuser")
+            .withPassword("testpassword");
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    private ProductService productService;
+    private OrderDetailsService orderDetailsService;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgreSQLContainer.getJdbcUrl());
+        dataSource.setUser(postgreSQLContainer.getUsername());
+        dataSource.setPassword(postgreSQLContainer.getPassword());
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("src/main/resources/db/migration/V1__baseline.sql")));
+            statement.execute(Files.readString(Path.of("sql/data.sql")));
+        }
+        new MigrationRunner(dataSource).migrate();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO products (name, price, quantity, available) VALUES ('Orphan', 1.10, 1, null)");
+            statement.execute("INSERT INTO order_details (status_id, total_amount) VALUES (1, 5)");
+        }
+        ConnectionUtil connectionUtil = new ConnectionUtil(dataSource);
+        ProductDAO productDAO = new ProductDAOImpl(connectionUtil);
+        ReferenceData referenceData = ReferenceData.load(connectionUtil);
+        ProductCategoryDAO categoryDAO = new ProductCategoryDAOImpl(connectionUtil, referenceData);
+        OrderDetailsDAO orderDetailsDAO = new OrderDetailsDAOImpl(connectionUtil, referenceData);
+        Mapper mapper = Mappers.getMapper(Mapper.class);
+        productService = new ProductServiceImpl(mapper,
+                new ProductRepositoryImpl(productDAO, categoryDAO));
+        orderDetailsService = new OrderDetailsServiceImpl(mapper,
+                new OrderDetailRepositoryImpl(orderDetailsDAO, productDAO, categoryDAO));
+    }
+
+    @Test
+    void testProductsJsonMatchesDtos() throws IOException {
+        StringWriter passthrough = new StringWriter();
+        productService.writeAllAsJson(passthrough);
+
+        JsonNode expected = sorted(objectMapper.valueToTree(productService.getAll()));
+        JsonNode actual = sorted(objectMapper.readTree(passthrough.toString()));
+
+        assertTrue(expected.size() > 1);
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testOrderDetailsJsonMatchesDtos() throws IOException {
+        StringWriter passthrough = new StringWriter();
+        orderDetailsService.writeAllAsJson(passthrough);
+
+        JsonNode expected = sorted(objectMapper.valueToTree(orderDetailsService.getAll()));
+        JsonNode actual = sorted(objectMapper.readTree(passthrough.toString()));
+
+        assertTrue(expected.size() > 1);
+        assertEquals(expected, actual);
+    }
+
+    private JsonNode normalize(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            List<String> names = new ArrayList<>();
+            object.fieldNames().forEachRemaining(names::add);
+            names.forEach(name -> object.set(name, UNORDERED_FIELDS.contains(name)
+                    ? sorted(object.get(name)) : normalize(object.get(name))));
+            return object;
+        }
+        if (node instanceof ArrayNode array) {
+            ArrayNode normalized = objectMapper.createArrayNode();
+            array.forEach(element -> normalized.add(normalize(element)));
+            return normalized;
+        }
+        return node;
+    }
+
+    private JsonNode sorted(JsonNode node) {
+        if (!(node instanceof ArrayNode array)) {
+            return normalize(node);
+        }
+        List<JsonNode> elements = new ArrayList<>();
+        array.forEach(element -> elements.add(normalize(element)));
+        elements.sort(Comparator.comparing(JsonNode::toString));
+        ArrayNode sorted = objectMapper.createArrayNode();
+        sorted.addAll(elements);
+        return sorted;
+    }
+}
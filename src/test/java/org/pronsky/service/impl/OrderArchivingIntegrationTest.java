@@ -0,0 +1,223 @@
+package org.pronsky.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.pronsky.data.connection.ConnectionUtil;
+import org.pronsky.data.dao.OrderDetailsDAO;
+import org.pronsky.data.dao.impl.OrderDetailsDAOImpl;
+import org.pronsky.data.dao.impl.OrderDetailsDocumentDAOImpl;
+import org.pronsky.data.dao.impl.ProductCategoryDAOImpl;
+import org.pronsky.data.dao.impl.ProductDAOImpl;
+import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.data.entities.OrderDetails.OrderStatus;
+import org.pronsky.data.migration.MigrationRunner;
+import org.pronsky.data.migration.OrderPartitionMaintenance;
+import org.pronsky.data.reference.ReferenceData;
+import org.pronsky.data.repository.FetchPlan;
+import org.pronsky.data.repository.impl.OrderDetailRepositoryImpl;
+import org.pronsky.service.OrderDetailsService;
+import org.pronsky.service.dto.OrderDetailsDTO;
+import org.pronsky.service.mapper.Mapper;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the partitioned order schema of the migrations against PostgreSQL: archived orders leave the listings but
+ * stay reachable by creation time, partitions are created the same way from any session time zone, orders in the
+ * default partition do not block the creation of their month, and order IDs stay unique and referenced.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OrderArchivingIntegrationTest {
+
+    @Container
+    public PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:latest")
+            .withDatabaseName("test")
+            .withUsername("testuser")
+            .withPassword("testpassword");
+
+    private PGSimpleDataSource dataSource;
+    private ConnectionUtil connectionUtil;
+    private ReferenceData referenceData;
+    private OrderDetailsService orderDetailsService;
+
+    @BeforeEach
+    void setUp() throws SQLException, IOException {
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgreSQLContainer.getJdbcUrl());
+        dataSource.setUser(postgreSQLContainer.getUsername());
+        dataSource.setPassword(postgreSQLContainer.getPassword());
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(Files.readString(Path.of("src/main/resources/db/migration/V1__baseline.sql")));
+            statement.execute(Files.readString(Path.of("sql/data.sql")));
+        }
+        new MigrationRunner(dataSource).migrate();
+        connectionUtil = new ConnectionUtil(dataSource);
+        referenceData = ReferenceData.load(connectionUtil);
+        OrderDetailsDAO orderDetailsDAO = new OrderDetailsDAOImpl(connectionUtil, referenceData);
+        orderDetailsService = new OrderDetailsServiceImpl(Mappers.getMapper(Mapper.class),
+                new OrderDetailRepositoryImpl(orderDetailsDAO, new ProductDAOImpl(connectionUtil),
+                        new ProductCategoryDAOImpl(connectionUtil, referenceData)));
+    }
+
+    @Test
+    void testArchivedOrderLeavesListingsButKeepsCreationTimeRange() throws SQLException {
+        long archivedId = firstOrderId();
+        execute("UPDATE order_details SET status_id = " + referenceData.idOf(OrderStatus.COMPLETED)
+                + ", created_at = now() - INTERVAL '120 days' WHERE id = " + archivedId);
+        OrderPartitionMaintenance maintenance = new OrderPartitionMaintenance(connectionUtil, referenceData, 3,
+                Duration.ofDays(90));
+
+        String productCount = "SELECT count(*) FROM details_to_products WHERE order_details_id = " + archivedId;
+        String productsBefore = queryString(productCount);
+
+        assertEquals(1, maintenance.archiveClosedOrders(Instant.now()));
+        assertEquals(productsBefore, queryString(productCount));
+
+        assertFalse(ids(orderDetailsService.getPage(0, 1000, FetchPlan.ORDER)).contains(archivedId));
+        Instant from = Instant.now().minus(150, ChronoUnit.DAYS);
+        Instant to = Instant.now().minus(90, ChronoUnit.DAYS);
+        assertEquals(List.of(archivedId),
+                ids(orderDetailsService.getPageCreatedBetween(from, to, 0, 1000, FetchPlan.ORDER)));
+        assertTrue(ids(orderDetailsService.getPageCreatedBetween(null, null, 0, 1000, FetchPlan.ORDER))
+                .contains(archivedId));
+        assertFalse(explain("SELECT id FROM order_details WHERE NOT archived ORDER BY id LIMIT 100")
+                .contains("order_details_archive"));
+
+        OrderDetailsDocumentDAOImpl documentDAO = new OrderDetailsDocumentDAOImpl(connectionUtil,
+                new OrderDetailsDAOImpl(connectionUtil, referenceData));
+        documentDAO.synchronize();
+        assertFalse(documentDAO.getPage(0, 1000).stream().map(OrderDetails::getId).toList().contains(archivedId));
+        assertEquals(archivedId, documentDAO.getById(archivedId).getId());
+    }
+
+    @Test
+    void testPartitionsAgreeAcrossSessionTimeZones() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("SET TIME ZONE 'America/Los_Angeles'");
+            assertEquals(0, createPartitions(statement, 3));
+            statement.execute("SET TIME ZONE 'Pacific/Kiritimati'");
+            assertEquals(0, createPartitions(statement, 3));
+            assertEquals(1, createPartitions(statement, 4));
+        }
+        assertEquals(0, new OrderPartitionMaintenance(connectionUtil, referenceData, 4, Duration.ofDays(90))
+                .createPartitions());
+    }
+
+    @Test
+    void testOrderInDefaultPartitionMovesToItsNewMonth() throws SQLException {
+        long strayId = firstOrderId();
+        String strayMonth = "date_trunc('month', now() AT TIME ZONE 'UTC') + INTERVAL '5 months'";
+        execute("UPDATE order_details SET created_at = (" + strayMonth + " + INTERVAL '10 days') AT TIME ZONE 'UTC' "
+                + "WHERE id = " + strayId);
+        assertEquals("order_details_current_default", partitionOf(strayId));
+        OrderPartitionMaintenance maintenance = new OrderPartitionMaintenance(connectionUtil, referenceData, 6,
+                Duration.ofDays(90));
+
+        assertEquals(3, maintenance.createPartitions());
+        assertEquals(0, maintenance.createPartitions());
+
+        assertEquals(queryString("SELECT 'order_details_current_' || to_char(" + strayMonth + ", 'YYYY_MM')"),
+                partitionOf(strayId));
+        assertEquals(strayId, orderDetailsService.getById(strayId, FetchPlan.ORDER).getId());
+    }
+
+    @Test
+    void testOrderIdsStayUniqueAcrossPartitions() throws SQLException {
+        long id = firstOrderId();
+
+        assertThrows(SQLException.class, () -> execute("INSERT INTO order_details (id, status_id, total_amount, "
+                + "created_at) VALUES (" + id + ", 1, 5, now() - INTERVAL '400 days')"));
+        assertThrows(SQLException.class, () -> execute("INSERT INTO order_details (id, status_id, total_amount, "
+                + "archived) VALUES (" + id + ", 3, 5, true)"));
+        assertThrows(SQLException.class, () -> execute("UPDATE order_details SET id = -1 WHERE id = " + id));
+        assertEquals("1", queryString("SELECT count(*) FROM order_details WHERE id = " + id));
+    }
+
+    @Test
+    void testRowsReferencingOrdersNeedAnExistingOrder() throws SQLException {
+        long id = firstOrderId();
+
+        assertThrows(SQLException.class, () -> execute("INSERT INTO details_to_products (order_details_id, "
+                + "product_id) VALUES (-1, (SELECT min(id) FROM products))"));
+        assertThrows(SQLException.class, () -> execute("INSERT INTO order_documents (order_details_id, document) "
+                + "VALUES (-1, '{}')"));
+
+        execute("DELETE FROM order_details WHERE id = " + id);
+        assertEquals("0", queryString("SELECT count(*) FROM details_to_products WHERE order_details_id = " + id));
+        assertEquals("0", queryString("SELECT count(*) FROM order_detail_ids WHERE id = " + id));
+    }
+
+    private int createPartitions(Statement statement, int monthsAhead) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT create_order_partitions(" + monthsAhead + ")")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private long firstOrderId() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT min(id) FROM order_details")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private String partitionOf(long orderId) throws SQLException {
+        return queryString("SELECT tableoid::regclass::text FROM order_details WHERE id = " + orderId);
+    }
+
+    private String queryString(String query) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private String explain(String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("EXPLAIN " + query)) {
+            while (resultSet.next()) {
+                plan.append(resultSet.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static List<Long> ids(List<OrderDetailsDTO> orderDetails) {
+        return orderDetails.stream().map(OrderDetailsDTO::getId).toList();
+    }
+}
@@ -6,12 +6,14 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.pronsky.data.entities.OrderDetails;
+import org.pronsky.data.repository.FetchPlan;
 import org.pronsky.data.repository.OrderDetailRepository;
 import org.pronsky.service.dto.OrderDetailsDTO;
 import org.pronsky.service.dto.ProductDTO;
 import org.pronsky.service.mapper.Mapper;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -47,6 +49,38 @@ class OrderDetailsServiceImplTest {
         verify(mapper, times(1)).toDto(orderDetails);
     }
 
+    @Test
+    void testGetByIds() {
+        List<OrderDetails> orderDetailsList = new ArrayList<>();
+        orderDetailsList.add(new OrderDetails());
+        orderDetailsList.add(new OrderDetails());
+        when(repository.findByIds(List.of(1L, 2L))).thenReturn(orderDetailsList);
+        when(mapper.toDto(any(OrderDetails.class))).thenReturn(new OrderDetailsDTO());
+        List<OrderDetailsDTO> result = service.getByIds(List.of(1L, 2L));
+        assertEquals(2, result.size());
+        verify(repository, times(1)).findByIds(List.of(1L, 2L));
+        verify(mapper, times(2)).toDto(any(OrderDetails.class));
+    }
+
+    @Test
+    void testGetAllPassesFetchPlan() {
+        when(repository.findAll(FetchPlan.ORDER)).thenReturn(List.of(new OrderDetails()));
+        when(mapper.toDto(any(OrderDetails.class))).thenReturn(new OrderDetailsDTO());
+        assertEquals(1, service.getAll(FetchPlan.ORDER).size());
+        verify(repository, times(1)).findAll(FetchPlan.ORDER);
+        verify(repository, never()).findAll();
+    }
+
+    @Test
+    void testGetPageCreatedBetweenPassesRange() {
+        Instant from = Instant.parse("2026-01-01T00:00:00Z");
+        when(repository.findPageCreatedBetween(from, null, 5L, 10, FetchPlan.PRODUCTS))
+                .thenReturn(List.of(new OrderDetails()));
+        when(mapper.toDto(any(OrderDetails.class))).thenReturn(new OrderDetailsDTO());
+        assertEquals(1, service.getPageCreatedBetween(from, null, 5L, 10, FetchPlan.PRODUCTS).size());
+        verify(repository, never()).findPage(anyLong(), anyInt(), any(FetchPlan.class));
+    }
+
     @Test
     void testGetAll() {
         List<OrderDetails> orderDetailsList = new ArrayList<>();
@@ -0,0 +1,57 @@
+package org.pronsky.service.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.pronsky.data.entities.OrderSummary;
+import org.pronsky.data.repository.OrderSummaryRepository;
+import org.pronsky.service.dto.OrderSummaryDTO;
+import org.pronsky.service.mapper.Mapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+class OrderSummaryServiceImplTest {
+
+    @Mock
+    private Mapper mapper;
+
+    @Mock
+    private OrderSummaryRepository repository;
+
+    @InjectMocks
+    private OrderSummaryServiceImpl service;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testGetAll() {
+        OrderSummary summary = new OrderSummary();
+        OrderSummaryDTO summaryDTO = new OrderSummaryDTO();
+        when(repository.findAll()).thenReturn(List.of(summary));
+        when(mapper.toDto(summary)).thenReturn(summaryDTO);
+        assertEquals(List.of(summaryDTO), service.getAll());
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void testGetPage() {
+        when(repository.findPage(0L, 3)).thenReturn(List.of(new OrderSummary()));
+        when(mapper.toDto(any(OrderSummary.class))).thenReturn(new OrderSummaryDTO());
+        assertEquals(1, service.getPage(0L, 3).size());
+        verify(repository, times(1)).findPage(0L, 3);
+    }
+
+    @Test
+    void testRebuild() {
+        when(repository.rebuild()).thenReturn(7);
+        assertEquals(7, service.rebuild());
+    }
+}
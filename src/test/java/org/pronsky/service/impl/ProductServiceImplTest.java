@@ -6,13 +6,21 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.pronsky.data.entities.FacetedProducts;
+import org.pronsky.data.entities.ImportReport;
 import org.pronsky.data.entities.Product;
 import org.pronsky.data.entities.ProductCategory;
+import org.pronsky.data.entities.ProductFilter;
+import org.pronsky.service.dto.FacetedProductsDTO;
 import org.pronsky.data.repository.ProductRepository;
+import org.pronsky.service.dto.ImportReportDTO;
 import org.pronsky.service.dto.ProductCategoryDTO;
 import org.pronsky.service.dto.ProductDTO;
+import org.pronsky.service.dto.ProductFilterDTO;
 import org.pronsky.service.mapper.Mapper;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -190,6 +198,38 @@ class ProductServiceImplTest {
         verify(mapper, times(1)).toDto(existingProduct);
     }
 
+    @Test
+    void testGetByIds() {
+        when(repository.findByIds(List.of(EXISTING_ID))).thenReturn(productList);
+        when(mapper.toDto(existingProduct)).thenReturn(existingProductDTO);
+        List<ProductDTO> result = service.getByIds(List.of(EXISTING_ID));
+        assertEquals(List.of(existingProductDTO), result);
+        verify(repository, times(1)).findByIds(List.of(EXISTING_ID));
+    }
+
+    @Test
+    void testFilter() {
+        ProductFilterDTO filterDTO = new ProductFilterDTO();
+        filterDTO.setAvailable(true);
+        ProductFilter filter = new ProductFilter();
+        filter.setAvailable(true);
+        FacetedProducts facetedProducts = new FacetedProducts();
+        FacetedProductsDTO facetedProductsDTO = new FacetedProductsDTO();
+        when(mapper.toEntity(filterDTO)).thenReturn(filter);
+        when(repository.findByFilter(filter)).thenReturn(facetedProducts);
+        when(mapper.toDto(facetedProducts)).thenReturn(facetedProductsDTO);
+        assertEquals(facetedProductsDTO, service.filter(filterDTO));
+        verify(repository, times(1)).findByFilter(filter);
+    }
+
+    @Test
+    void testSearch() {
+        when(repository.searchByName("salm", 5)).thenReturn(productList);
+        when(mapper.toDto(any(Product.class))).thenReturn(new ProductDTO());
+        assertEquals(productList.size(), service.search("salm", 5).size());
+        verify(repository, times(1)).searchByName("salm", 5);
+    }
+
     @Test
     void testGetAll() {
         when(repository.findAll()).thenReturn(productList);
@@ -230,4 +270,17 @@ class ProductServiceImplTest {
         service.delete(id);
         verify(repository, times(1)).delete(id);
     }
+
+    @Test
+    void testImportCsv() {
+        Reader csv = new StringReader("name,price,quantity,available,categories\n");
+        ImportReport report = new ImportReport();
+        ImportReportDTO reportDTO = new ImportReportDTO();
+        when(repository.importCsv(csv)).thenReturn(report);
+        when(mapper.toDto(report)).thenReturn(reportDTO);
+        ImportReportDTO result = service.importCsv(csv);
+        assertEquals(reportDTO, result);
+        verify(repository, times(1)).importCsv(csv);
+        verify(mapper, times(1)).toDto(report);
+    }
 }
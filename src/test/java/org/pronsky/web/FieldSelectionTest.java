@@ -0,0 +1,56 @@
+package org.pronsky.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.pronsky.data.repository.FetchPlan;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldSelectionTest {
+
+    private static final String ORDER = """
+            {"id": 1, "orderStatus": "OPEN", "totalAmount": 5,
+             "products": [{"id": 2, "name": "Milk", "productCategories": [{"id": 3}]}]}
+            """;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testNoParametersKeepFullGraph() {
+        FieldSelection selection = FieldSelection.parse(null, null);
+        assertTrue(selection.isFull());
+        assertEquals(FetchPlan.PRODUCTS_WITH_CATEGORIES, selection.getPlan());
+    }
+
+    @Test
+    void testFieldsWithoutProductsSkipProducts() throws Exception {
+        FieldSelection selection = FieldSelection.parse("id, orderStatus,totalAmount", null);
+        assertEquals(FetchPlan.ORDER, selection.getPlan());
+        JsonNode trimmed = selection.apply(objectMapper.readTree(ORDER));
+        assertEquals(objectMapper.readTree("{\"id\": 1, \"orderStatus\": \"OPEN\", \"totalAmount\": 5}"), trimmed);
+    }
+
+    @Test
+    void testExpandProductsDropsCategories() throws Exception {
+        FieldSelection selection = FieldSelection.parse(null, "products");
+        assertEquals(FetchPlan.PRODUCTS, selection.getPlan());
+        assertFalse(selection.isFull());
+        JsonNode trimmed = selection.apply(objectMapper.readTree("[" + ORDER + "]"));
+        assertFalse(trimmed.get(0).get("products").get(0).has("productCategories"));
+        assertEquals("Milk", trimmed.get(0).get("products").get(0).get("name").asText());
+    }
+
+    @Test
+    void testExpandCategoriesImpliesProducts() {
+        assertEquals(FetchPlan.PRODUCTS_WITH_CATEGORIES, FieldSelection.parse(null, "products.categories").getPlan());
+        assertEquals(FetchPlan.PRODUCTS_WITH_CATEGORIES,
+                FieldSelection.parse("id,products", "products,products.categories").getPlan());
+        assertEquals(FetchPlan.ORDER, FieldSelection.parse(null, "").getPlan());
+    }
+
+    @Test
+    void testUnknownNamesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse("id,customer", null));
+        assertThrows(IllegalArgumentException.class, () -> FieldSelection.parse(null, "customer"));
+    }
+}
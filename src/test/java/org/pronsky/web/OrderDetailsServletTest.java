@@ -11,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.pronsky.data.repository.FetchPlan;
 import org.pronsky.service.OrderDetailsService;
 import org.pronsky.service.dto.OrderDetailsDTO;
 import org.pronsky.service.dto.ProductDTO;
@@ -154,7 +155,7 @@ class OrderDetailsServletTest {
     @Test
     void testDoGetWithId() throws IOException {
         when(request.getParameter(ID_PARAM)).thenReturn(String.valueOf(ID));
-        when(orderDetailsService.getById(ID)).thenReturn(detailsDTO);
+        when(orderDetailsService.getById(ID, FetchPlan.PRODUCTS_WITH_CATEGORIES)).thenReturn(detailsDTO);
         StringWriter stringWriter = new StringWriter();
         PrintWriter printWriter = new PrintWriter(stringWriter);
         when(response.getWriter()).thenReturn(printWriter);
@@ -167,7 +168,7 @@ class OrderDetailsServletTest {
     @Test
     void testDoGetAll() throws IOException {
         when(request.getParameter(ID_PARAM)).thenReturn(null);
-        when(orderDetailsService.getAll()).thenReturn(detailsDTOList);
+        when(orderDetailsService.getAll(FetchPlan.PRODUCTS_WITH_CATEGORIES)).thenReturn(detailsDTOList);
         StringWriter stringWriter = new StringWriter();
         PrintWriter printWriter = new PrintWriter(stringWriter);
         when(response.getWriter()).thenReturn(printWriter);
@@ -210,6 +211,16 @@ class OrderDetailsServletTest {
         verify(objectMapper).writeValue(printWriter, detailsDTO);
     }
 
+    @Test
+    void testDoGetWithInvalidCreationRangeIsBadRequest() {
+        when(request.getParameter("from")).thenReturn("yesterday");
+
+        orderDetailsServlet.doGet(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        verify(orderDetailsService, never()).getPageCreatedBetween(any(), any(), anyLong(), anyInt(), any());
+    }
+
     @Test
     void testDoDelete() {
         when(request.getParameter(ID_PARAM)).thenReturn(String.valueOf(ID));
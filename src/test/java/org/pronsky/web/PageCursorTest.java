@@ -0,0 +1,31 @@
+package org.pronsky.web;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageCursorTest {
+
+    @Test
+    void testEncodedCursorDecodesToLastId() {
+        String cursor = PageCursor.encode(42L);
+        assertFalse(cursor.contains("42"));
+        assertEquals(42L, PageCursor.decode(cursor));
+    }
+
+    @Test
+    void testMissingCursorStartsAtFirstPage() {
+        assertEquals(0L, PageCursor.decode(null));
+        assertEquals(0L, PageCursor.decode(" "));
+    }
+
+    @Test
+    void testForeignCursorIsRejected() {
+        String forged = Base64.getUrlEncoder().encodeToString("42".getBytes(StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode(forged));
+        assertThrows(IllegalArgumentException.class, () -> PageCursor.decode("not base64!"));
+    }
+}
@@ -0,0 +1,55 @@
+package org.pronsky.web;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class PageRequestsTest {
+
+    private static final ToLongFunction<Long> IDENTITY = Long::longValue;
+
+    @Test
+    void testLimitDefaultsAndIsCapped() {
+        assertEquals(20, PageRequests.parseLimit(null, 20, 100));
+        assertEquals(5, PageRequests.parseLimit(" 5 ", 20, 100));
+        assertEquals(100, PageRequests.parseLimit("500", 20, 100));
+    }
+
+    @Test
+    void testInvalidLimitIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PageRequests.parseLimit("0", 20, 100));
+        assertThrows(NumberFormatException.class, () -> PageRequests.parseLimit("ten", 20, 100));
+    }
+
+    @Test
+    void testIdsKeepRequestOrderWithoutDuplicates() {
+        assertEquals(List.of(3L, 1L, 2L), List.copyOf(PageRequests.parseIds("3, 1,,2,3")));
+        assertThrows(NumberFormatException.class, () -> PageRequests.parseIds("1,x"));
+    }
+
+    @Test
+    void testFullPageSetsNextCursor() {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        List<Long> page = PageRequests.toPage(List.of(1L, 2L, 3L), 2, IDENTITY, resp);
+
+        assertEquals(List.of(1L, 2L), page);
+        verify(resp).setHeader(PageCursor.NEXT_CURSOR_HEADER, PageCursor.encode(2L));
+    }
+
+    @Test
+    void testLastPageHasNoNextCursor() {
+        HttpServletResponse resp = mock(HttpServletResponse.class);
+
+        List<Long> page = PageRequests.toPage(List.of(1L, 2L), 2, IDENTITY, resp);
+
+        assertEquals(List.of(1L, 2L), page);
+        verify(resp, never()).setHeader(eq(PageCursor.NEXT_CURSOR_HEADER), anyString());
+    }
+}
@@ -0,0 +1,45 @@
+package org.pronsky.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.pronsky.utils.PropertyReader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestDeadlineFilterTest {
+
+    private static final String PATH = "/api/order_details";
+
+    private HttpServletRequest request;
+    private RequestDeadlineFilter filter;
+    private long configured;
+
+    @BeforeEach
+    void setUp() {
+        request = mock(HttpServletRequest.class);
+        when(request.getServletPath()).thenReturn(PATH);
+        filter = new RequestDeadlineFilter();
+        configured = PropertyReader.getInstance().getRequestTimeout(PATH);
+    }
+
+    @Test
+    void testHeaderShortensTimeout() {
+        when(request.getHeader(RequestDeadlineFilter.TIMEOUT_HEADER)).thenReturn("250");
+        assertEquals(250, filter.resolveTimeout(request));
+    }
+
+    @Test
+    void testHeaderCannotExceedEndpointTimeout() {
+        when(request.getHeader(RequestDeadlineFilter.TIMEOUT_HEADER)).thenReturn(String.valueOf(configured + 1));
+        assertEquals(configured, filter.resolveTimeout(request));
+    }
+
+    @Test
+    void testInvalidHeaderFallsBackToEndpointTimeout() {
+        when(request.getHeader(RequestDeadlineFilter.TIMEOUT_HEADER)).thenReturn("soon");
+        assertEquals(configured, filter.resolveTimeout(request));
+    }
+}